@@ -0,0 +1,367 @@
+package h.sakai.game.engine;
+
+import java.awt.Image;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 素材の管理クラス<br />
+ * 
+ * 画像・サウンドの読み込みを作業スレッドで並列に行い、読み込み結果のFutureを返す。
+ * 読み込んだ素材はパスごとに参照数を数えてキャッシュし、シーンをまたいで共有する。
+ * 読み込みを要求したシーンは不要になった時点で{@link #release(String)}を呼び出すこと。
+ * 
+ * 参照数が0になった素材はすぐには破棄せず、シーンの遷移の反映後に{@link #evictUnused()}で破棄する。
+ * これにより破棄するシーンと次のシーンが同じ素材を使う場合は読み込み直さずにそのまま引き継ぐ。
+ * 
+ * 読み込む素材の一覧をプリロード定義ファイルに記述しておくと、
+ * 前のシーンから先行して読み込みを開始でき、次のシーンの初期化で待たずに済む。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class AssetManager {
+	
+	/** プリロード定義ファイルのコメント行の接頭辞 */
+	private static final String MANIFEST_COMMENT = "#";
+	
+	/** プリロード定義ファイルのループ再生の指定 */
+	private static final String MANIFEST_LOOP = "loop";
+	
+	/** サウンドファイルの拡張子 */
+	private static final String SOUND_EXTENSION = ".wav";
+	
+	/** 本クラスのインスタンス */
+	private static final AssetManager instance = new AssetManager();
+	
+	/** 読み込みの作業スレッド(使用するまでスレッドは作成されない) */
+	private final ExecutorService _executor;
+	
+	/** パスごとのキャッシュ */
+	private final Map< String, Entry > _cache = new HashMap< String, Entry >();
+	
+	/** プリロード定義ファイルごとの読み込み中の素材のパス */
+	private final Map< String, List< String > > _manifests = new HashMap< String, List< String > >();
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 読み込みはファイル入出力の待ちを含むため、CPU数が少なくても2スレッド以上で行う。
+	 */
+	private AssetManager() {
+		
+		final AtomicInteger threadNo = new AtomicInteger();
+		
+		_executor = Executors.newFixedThreadPool( Math.max( Runtime.getRuntime().availableProcessors(), 2 ), new ThreadFactory() {
+			@Override
+			public Thread newThread( Runnable r ) {
+				Thread thread = new Thread( r, "asset-" + threadNo.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			}
+		} );
+	}
+	
+	/**
+	 * 本クラスのインスタンスを取得する。
+	 * 
+	 * @return 本クラスのインスタンス
+	 */
+	public static AssetManager getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * 画像の読み込みを要求する。<br />
+	 * 
+	 * キャッシュ済みの場合は読み込み済みまたは読み込み中のFutureを返す。
+	 * 呼び出しごとに参照数を1増やす。
+	 * 
+	 * @param path 画像ファイルパス(作業ディレクトリからの相対パス)
+	 * @return 読み込み結果(読み込みに失敗した場合の結果はnull)
+	 */
+	@SuppressWarnings( "unchecked" )
+	public Future< Image > loadImage( final String path ) {
+		return ( Future< Image > ) acquire( path, new Callable< Image >() {
+			@Override
+			public Image call() {
+				return readImage( path );
+			}
+		} );
+	}
+	
+	/**
+	 * サウンドの読み込みを要求する。<br />
+	 * 
+	 * キャッシュ済みの場合は読み込み済みまたは読み込み中のFutureを返す。
+	 * ループ再生の指定は最初に読み込んだ時の指定となるため、同じパスは同じ指定で読み込むこと。
+	 * 呼び出しごとに参照数を1増やす。
+	 * 
+	 * @param path サウンドファイルパス(作業ディレクトリからの相対パス)
+	 * @param isLoop ループ再生フラグ
+	 * @return 読み込み結果
+	 */
+	@SuppressWarnings( "unchecked" )
+	public Future< Sound > loadSound( final String path, final boolean isLoop ) {
+		return ( Future< Sound > ) acquire( path, new Callable< Sound >() {
+			@Override
+			public Sound call() {
+				return new Sound( new File( path ).getAbsolutePath(), isLoop );
+			}
+		} );
+	}
+	
+	/**
+	 * 素材の参照数を1減らす。<br />
+	 * 
+	 * 参照数が0になった素材は{@link #evictUnused()}の呼び出し時に破棄する。
+	 * 
+	 * @param path 素材ファイルパス
+	 */
+	public synchronized void release( String path ) {
+		
+		Entry entry = _cache.get( path );
+		
+		if ( entry == null || entry._refCount == 0 ) {
+			System.out.println( "読み込んでいない素材の解放に失敗しました。:" + path );
+			return;
+		}
+		
+		entry._refCount--;
+	}
+	
+	/**
+	 * プリロード定義ファイルに記述された素材の読み込みを開始する。<br />
+	 * 
+	 * 定義ファイルは1行に1つの素材ファイルパスを記述する。
+	 * 拡張子が.wavのファイルはサウンド、それ以外は画像として読み込み、
+	 * サウンドはパスの後に空白区切りでloopと記述するとループ再生で読み込む。
+	 * #で始まる行と空行は無視する。
+	 * 
+	 * 読み込んだ素材は{@link #releaseManifest(String)}の呼び出しまで参照を保持する。
+	 * 同じ定義ファイルを読み込み中の場合は何もしない。
+	 * 
+	 * @param manifestPath プリロード定義ファイルパス(作業ディレクトリからの相対パス)
+	 * @return 読み込みを開始した素材数
+	 */
+	public synchronized int preload( String manifestPath ) {
+		
+		if ( _manifests.containsKey( manifestPath ) ) {
+			return 0;
+		}
+		
+		List< String > paths = new ArrayList< String >();
+		List< Boolean > loops = new ArrayList< Boolean >();
+		
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader( new InputStreamReader( new FileInputStream( manifestPath ), "UTF-8" ) );
+			
+			String line;
+			while ( ( line = reader.readLine() ) != null ) {
+				
+				line = line.trim();
+				if ( line.isEmpty() || line.startsWith( MANIFEST_COMMENT ) ) {
+					continue;
+				}
+				
+				String[] columns = line.split( "\\s+" );
+				paths.add( columns[ 0 ] );
+				loops.add( columns.length > 1 && MANIFEST_LOOP.equals( columns[ 1 ] ) );
+			}
+		} catch (Exception e) {
+			System.out.println( "プリロード定義ファイルの読み込みに失敗しました。:" + manifestPath );
+			return 0;
+		} finally {
+			close( reader );
+		}
+		
+		for ( int i = 0; i < paths.size(); i++ ) {
+			
+			String path = paths.get( i );
+			
+			if ( path.toLowerCase().endsWith( SOUND_EXTENSION ) ) {
+				loadSound( path, loops.get( i ) );
+			} else {
+				loadImage( path );
+			}
+		}
+		
+		_manifests.put( manifestPath, paths );
+		
+		return paths.size();
+	}
+	
+	/**
+	 * プリロード定義ファイルで読み込んだ素材の参照を解放する。
+	 * 
+	 * @param manifestPath プリロード定義ファイルパス
+	 */
+	public synchronized void releaseManifest( String manifestPath ) {
+		
+		List< String > paths = _manifests.remove( manifestPath );
+		
+		if ( paths == null ) {
+			return;
+		}
+		
+		for ( String path : paths ) {
+			release( path );
+		}
+	}
+	
+	/**
+	 * 参照数が0の読み込み済みの素材をキャッシュから破棄する。<br />
+	 * 
+	 * サウンドは再生を停止してデコード済みのデータを手放す。読み込み中の素材は読み込みの完了後に破棄する。
+	 * 
+	 * @return 破棄した素材数
+	 */
+	public synchronized int evictUnused() {
+		
+		int count = 0;
+		
+		for ( Iterator< Entry > it = _cache.values().iterator(); it.hasNext(); ) {
+			
+			Entry entry = it.next();
+			
+			if ( entry._refCount > 0 || !entry._future.isDone() ) {
+				continue;
+			}
+			
+			Object asset = await( entry._future );
+			if ( asset instanceof Sound ) {
+				( ( Sound ) asset ).close();
+			}
+			
+			it.remove();
+			count++;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * キャッシュしている素材数を取得する。
+	 * 
+	 * @return 素材数
+	 */
+	public synchronized int getCachedCount() {
+		return _cache.size();
+	}
+	
+	/**
+	 * 読み込みの完了を待ち、読み込み結果を取得する。
+	 * 
+	 * @param future 読み込み結果
+	 * @return 素材(読み込みに失敗した場合はnull)
+	 */
+	public static < T > T await( Future< T > future ) {
+		
+		try {
+			return future.get();
+		} catch (Exception e) {
+			System.out.println( "素材の読み込みに失敗しました。" );
+			return null;
+		}
+	}
+	
+	/**
+	 * キャッシュ済みの場合は参照数を増やし、未キャッシュの場合は読み込みを開始する。
+	 * 
+	 * @param path 素材ファイルパス
+	 * @param loader 読み込み処理
+	 * @return 読み込み結果
+	 */
+	private synchronized Future< ? > acquire( String path, Callable< ? > loader ) {
+		
+		Entry entry = _cache.get( path );
+		
+		if ( entry == null ) {
+			entry = new Entry( _executor.submit( loader ) );
+			_cache.put( path, entry );
+		}
+		
+		entry._refCount++;
+		
+		return entry._future;
+	}
+	
+	/**
+	 * 画像ファイルを読み込む。<br />
+	 * 
+	 * 作業スレッドでデコードまで完了させ、描画スレッドでの読み込み待ちを無くす。
+	 * 
+	 * @param path 画像ファイルパス
+	 * @return 画像(読み込みに失敗した場合はnull)
+	 */
+	private static Image readImage( String path ) {
+		
+		try {
+			Image image = ImageIO.read( new File( path ) );
+			
+			if ( image == null ) {
+				System.out.println( "画像の読み込みに失敗しました。:" + path );
+			}
+			
+			return image;
+		} catch (Exception e) {
+			System.out.println( "画像の読み込みに失敗しました。:" + path );
+			return null;
+		}
+	}
+	
+	/**
+	 * 読み込みを閉じる。
+	 * 
+	 * @param reader 読み込み(nullの場合は何もしない)
+	 */
+	private static void close( BufferedReader reader ) {
+		
+		if ( reader == null ) {
+			return;
+		}
+		
+		try {
+			reader.close();
+		} catch (Exception e) {
+			System.out.println( "プリロード定義ファイルのクローズに失敗しました。" );
+		}
+	}
+	
+	/**
+	 * キャッシュの1素材分の情報
+	 */
+	private static final class Entry {
+		
+		/** 読み込み結果 */
+		private final Future< ? > _future;
+		
+		/** 参照数 */
+		private int _refCount = 0;
+		
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param future 読み込み結果
+		 */
+		private Entry( Future< ? > future ) {
+			_future = future;
+		}
+	}
+}
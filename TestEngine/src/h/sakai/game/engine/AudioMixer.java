@@ -0,0 +1,942 @@
+package h.sakai.game.engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * ソフトウェアミキサークラス<br />
+ * 
+ * 固定数のボイスをソフトウェアで合成し、1本の出力回線に書き込む。
+ * 合成は優先度を上げた専用スレッドで行い、1回に合成するフレーム数を小さくして遅延を抑える。
+ * 音声データはデコード済みのPCMを共有するため、同じ効果音を連続で再生しても前の再生を途切れさせない。
+ * 
+ * ボイスごとに音量とピッチ(再生速度)を指定できる。ピッチは線形補間で再生位置を進める。
+ * 空きボイスが無い場合はループしないボイスのうち最も古いもの(全てループの場合は最も古いボイス)を奪って再生する。
+ * 
+ * BGM({@link Music})はボイスとは別に、再生中とフェードアウト中の2つを合成する。
+ * BGMを切り替える場合は前のBGMをフェードアウトしながら次のBGMをフェードインしてクロスフェードする。
+ * 
+ * 出力回線を開けない場合や出力なしを指定した場合は、合成結果を破棄して実時間の間隔で合成を続ける。
+ * 合成スレッドを開始せずに{@link #mix(short[])}を呼び出すと、呼び出し元で1回分ずつ合成できる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class AudioMixer implements AudioMixerMBean, Runnable {
+	
+	/** 出力のサンプリング周波数 */
+	public static final int SAMPLE_RATE = 44100;
+	
+	/** 出力のチャンネル数 */
+	public static final int CHANNELS = 2;
+	
+	/** ボイス数(初期値) */
+	protected static final int DEFAULT_VOICES = 16;
+	
+	/** 1回に合成するフレーム数(初期値) */
+	protected static final int DEFAULT_BUFFER_FRAMES = 512;
+	
+	/** 音量の上限(固定小数点でサンプルと掛けてもintに収まる範囲) */
+	private static final float MAX_GAIN = 8.0f;
+	
+	/** ボイス数の上限(再生番号の下位8bitでボイスを表すため) */
+	private static final int MAX_VOICES = 256;
+	
+	/** 出力先：出力回線 */
+	private static final String OUTPUT_LINE = "line";
+	
+	/** 出力先：出力なし */
+	private static final String OUTPUT_NULL = "null";
+	
+	/** 音量の固定小数点の小数部のビット数 */
+	private static final int GAIN_SHIFT = 12;
+	
+	/** 再生位置の固定小数点の小数部のビット数 */
+	private static final int POSITION_SHIFT = 16;
+	
+	/** 再生位置の小数部を線形補間の係数に変換するシフト数 */
+	private static final int FRACTION_SHIFT = POSITION_SHIFT - GAIN_SHIFT;
+	
+	/** フェードの音量の固定小数点の小数部のビット数 */
+	private static final int FADE_SHIFT = 16;
+	
+	/** フェードの音量の最大値 */
+	private static final int FADE_ONE = 1 << FADE_SHIFT;
+	
+	/** 再生位置の小数部のマスク */
+	private static final long FRACTION_MASK = ( 1L << POSITION_SHIFT ) - 1;
+	
+	/** MBeanのドメイン */
+	private static final String DOMAIN = "h.sakai.game.engine";
+	
+	/** 設定ファイルから作成したインスタンス */
+	private static AudioMixer instance = null;
+	
+	/** ボイス */
+	private final Voice[] _voices;
+	
+	/** 1回に合成するフレーム数 */
+	private final int _bufferFrames;
+	
+	/** 合成用バッファ(チャンネル順に交互に格納) */
+	private final int[] _mixBuffer;
+	
+	/** 出力回線への書き込み用バッファ(16bit符号付きリトルエンディアン) */
+	private final byte[] _outBuffer;
+	
+	/** 再生中のBGM */
+	private MusicDeck _music = new MusicDeck();
+	
+	/** フェードアウト中のBGM */
+	private MusicDeck _fadingMusic = new MusicDeck();
+	
+	/** 出力回線(出力なしの場合はnull) */
+	private SourceDataLine _line = null;
+	
+	/** 出力なしフラグ */
+	private final boolean _isNullOutput;
+	
+	/** 合成スレッド */
+	private Thread _thread = null;
+	
+	/** 合成スレッドの実行中フラグ */
+	private volatile boolean _isRunning = false;
+	
+	/** 再生要求の通し番号(ボイスの新旧の比較に使用) */
+	private long _playSeq = 0;
+	
+	/** ボイスを奪った回数 */
+	private volatile long _stealCount = 0;
+	
+	/** 出力回線のバッファが空になった回数 */
+	private volatile long _underrunCount = 0;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param voiceCount ボイス数
+	 * @param bufferFrames 1回に合成するフレーム数
+	 * @param isNullOutput true:出力なし、false:出力回線に出力
+	 */
+	public AudioMixer( int voiceCount, int bufferFrames, boolean isNullOutput ) {
+		
+		if ( voiceCount < 1 || voiceCount > MAX_VOICES ) {
+			throw new IllegalArgumentException( "ボイス数は1～" + MAX_VOICES + "を指定してください。:" + voiceCount );
+		}
+		if ( bufferFrames < 1 ) {
+			throw new IllegalArgumentException( "合成するフレーム数は1以上を指定してください。:" + bufferFrames );
+		}
+		
+		_voices = new Voice[ voiceCount ];
+		for ( int i = 0; i < voiceCount; i++ ) {
+			_voices[ i ] = new Voice();
+		}
+		
+		_bufferFrames = bufferFrames;
+		_mixBuffer = new int[ bufferFrames * CHANNELS ];
+		_outBuffer = new byte[ bufferFrames * CHANNELS * 2 ];
+		_isNullOutput = isNullOutput;
+	}
+	
+	/**
+	 * 設定ファイルの設定で作成したインスタンスを取得する。<br />
+	 * 
+	 * 初回の呼び出しで作成して合成スレッドを開始する。
+	 * ボイス数はmixerVoices、1回に合成するフレーム数はmixerBufferFrames、
+	 * 出力先はmixerOutput(line：出力回線、null：出力なし)で指定する。
+	 * 
+	 * @return ミキサー
+	 */
+	public static synchronized AudioMixer getInstance() {
+		
+		if ( instance != null ) {
+			return instance;
+		}
+		
+		// 未設定の場合は初期値
+		int voices = DEFAULT_VOICES;
+		try {
+			voices = SystemProperty.getInstance().getInt( "mixerVoices", DEFAULT_VOICES );
+		} catch (Exception e) {
+			voices = DEFAULT_VOICES;
+		}
+		
+		int bufferFrames = DEFAULT_BUFFER_FRAMES;
+		try {
+			bufferFrames = SystemProperty.getInstance().getInt( "mixerBufferFrames", DEFAULT_BUFFER_FRAMES );
+		} catch (Exception e) {
+			bufferFrames = DEFAULT_BUFFER_FRAMES;
+		}
+		
+		String output = OUTPUT_LINE;
+		try {
+			output = SystemProperty.getInstance().getProperty( "mixerOutput" );
+		} catch (Exception e) {
+			output = OUTPUT_LINE;
+		}
+		
+		// 未設定の場合は登録する
+		boolean isJmx = true;
+		try {
+			isJmx = SystemProperty.getInstance().getBoolean( "jmx", true );
+		} catch (Exception e) {
+			isJmx = true;
+		}
+		
+		instance = new AudioMixer( voices, bufferFrames, OUTPUT_NULL.equals( output ) );
+		instance.start();
+		
+		if ( isJmx ) {
+			instance.register();
+		}
+		
+		return instance;
+	}
+	
+	/**
+	 * 出力回線を開き、合成スレッドを開始する。<br />
+	 * 
+	 * 出力回線を開けない場合は出力なしで開始する。開始済みの場合は何もしない。
+	 */
+	public synchronized void start() {
+		
+		if ( _isRunning ) {
+			return;
+		}
+		
+		if ( !_isNullOutput ) {
+			try {
+				AudioFormat format = new AudioFormat( SAMPLE_RATE, 16, CHANNELS, true, false );
+				_line = AudioSystem.getSourceDataLine( format );
+				
+				// 合成2回分のバッファで書き込みと再生を交互に行う
+				_line.open( format, _outBuffer.length * 2 );
+				_line.start();
+			} catch (Exception e) {
+				System.out.println( "音声出力の初期化に失敗しました。出力なしで動作します。" );
+				_line = null;
+			}
+		}
+		
+		_isRunning = true;
+		
+		_thread = new Thread( this, "mixer" );
+		_thread.setDaemon( true );
+		_thread.setPriority( Thread.MAX_PRIORITY );
+		_thread.start();
+	}
+	
+	/**
+	 * 合成スレッドを終了し、出力回線を閉じる。
+	 */
+	public void shutdown() {
+		
+		Thread thread;
+		synchronized ( this ) {
+			_isRunning = false;
+			thread = _thread;
+			_thread = null;
+		}
+		
+		if ( thread == null ) {
+			return;
+		}
+		
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		if ( _line != null ) {
+			_line.close();
+			_line = null;
+		}
+	}
+	
+	/**
+	 * 合成スレッドの処理を実行する。<br />
+	 * 
+	 * 出力回線がある場合は書き込みの待ちで、出力なしの場合は実時間の待ちで合成の間隔を合わせる。
+	 * 
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		
+		long blockNanos = _bufferFrames * 1000000000L / SAMPLE_RATE;
+		long deadline = System.nanoTime();
+		boolean isWritten = false;
+		
+		while ( _isRunning ) {
+			
+			SourceDataLine line = _line;
+			
+			synchronized ( this ) {
+				
+				mixVoices();
+				
+				if ( line != null ) {
+					for ( int i = 0, j = 0; i < _mixBuffer.length; i++, j += 2 ) {
+						int sample = clamp( _mixBuffer[ i ] );
+						_outBuffer[ j ] = ( byte ) sample;
+						_outBuffer[ j + 1 ] = ( byte ) ( sample >> 8 );
+					}
+				}
+			}
+			
+			if ( line != null ) {
+				
+				// 書き込み前に再生待ちのデータが無い場合は途切れている
+				if ( isWritten && line.available() >= line.getBufferSize() ) {
+					_underrunCount++;
+				}
+				
+				line.write( _outBuffer, 0, _outBuffer.length );
+				isWritten = true;
+				
+			} else {
+				
+				deadline += blockNanos;
+				long wait = deadline - System.nanoTime();
+				if ( wait > 0 ) {
+					LockSupport.parkNanos( wait );
+				} else {
+					deadline = System.nanoTime();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 1回分のフレーム数を合成し、16bit符号付きのサンプルとして書き込む。<br />
+	 * 
+	 * 合成スレッドを開始していない場合に、呼び出し元で合成を進めるために使用する。
+	 * 
+	 * @param out 書き込み先(1回分のフレーム数 × チャンネル数以上の長さ)
+	 */
+	public void mix( short[] out ) {
+		
+		if ( out.length < _mixBuffer.length ) {
+			throw new IllegalArgumentException( "書き込み先の長さが不足しています。:" + out.length );
+		}
+		
+		synchronized ( this ) {
+			
+			mixVoices();
+			
+			for ( int i = 0; i < _mixBuffer.length; i++ ) {
+				out[ i ] = ( short ) clamp( _mixBuffer[ i ] );
+			}
+		}
+	}
+	
+	/**
+	 * 音声データの再生を開始する。<br />
+	 * 
+	 * 空きボイスが無い場合は再生中のボイスを奪う。
+	 * 
+	 * @param data 音声データ
+	 * @param gain 音量(1.0で元の音量、0～8.0)
+	 * @param pitch ピッチ(1.0で元の速度)
+	 * @param isLoop ループ再生フラグ
+	 * @return 再生番号(停止・音量・ピッチの変更に使用する)
+	 */
+	public synchronized int play( PcmData data, float gain, float pitch, boolean isLoop ) {
+		
+		int index = findVoice();
+		Voice voice = _voices[ index ];
+		
+		if ( voice._data != null ) {
+			_stealCount++;
+		}
+		
+		voice._data = data;
+		voice._position = 0;
+		voice._step = toStep( data.getSampleRate(), pitch );
+		voice._gain = toGain( gain );
+		voice._isLoop = isLoop;
+		voice._seq = ++_playSeq;
+		voice._generation = ( voice._generation + 1 ) & 0x7FFFFF;
+		
+		return ( voice._generation << 8 ) | index;
+	}
+	
+	/**
+	 * 再生を停止する。<br />
+	 * 
+	 * 再生が終了済みまたは他の再生にボイスを奪われている場合は何もしない。
+	 * 
+	 * @param handle 再生番号
+	 */
+	public synchronized void stop( int handle ) {
+		
+		Voice voice = getVoice( handle );
+		
+		if ( voice != null ) {
+			voice._data = null;
+		}
+	}
+	
+	/**
+	 * 音声データを再生中の全てのボイスを停止する。
+	 * 
+	 * @param data 音声データ
+	 */
+	public synchronized void stop( PcmData data ) {
+		
+		for ( Voice voice : _voices ) {
+			if ( voice._data == data ) {
+				voice._data = null;
+			}
+		}
+	}
+	
+	/**
+	 * 全てのボイスを停止する。
+	 */
+	public synchronized void stopAll() {
+		
+		for ( Voice voice : _voices ) {
+			voice._data = null;
+		}
+	}
+	
+	/**
+	 * 再生中の音量を変更する。
+	 * 
+	 * @param handle 再生番号
+	 * @param gain 音量(1.0で元の音量、0～8.0)
+	 */
+	public synchronized void setGain( int handle, float gain ) {
+		
+		Voice voice = getVoice( handle );
+		
+		if ( voice != null ) {
+			voice._gain = toGain( gain );
+		}
+	}
+	
+	/**
+	 * 再生中のピッチを変更する。
+	 * 
+	 * @param handle 再生番号
+	 * @param pitch ピッチ(1.0で元の速度)
+	 */
+	public synchronized void setPitch( int handle, float pitch ) {
+		
+		Voice voice = getVoice( handle );
+		
+		if ( voice != null ) {
+			voice._step = toStep( voice._data.getSampleRate(), pitch );
+		}
+	}
+	
+	/**
+	 * 再生中か判定する。
+	 * 
+	 * @param handle 再生番号
+	 * @return true:再生中、false:再生終了または他の再生にボイスを奪われた
+	 */
+	public synchronized boolean isPlaying( int handle ) {
+		return getVoice( handle ) != null;
+	}
+	
+	/**
+	 * BGMの再生を開始する。<br />
+	 * 
+	 * 再生中のBGMはフェードアウトに切り替え、引数のBGMを先頭からフェードインしてクロスフェードする。
+	 * 既にフェードアウト中のBGMがある場合はそれを停止する。
+	 * 同じBGMを再生中(フェードアウト中を除く)の場合は何もしない。
+	 * 
+	 * @param music BGM
+	 * @param fadeMillis フェード時間(ミリ秒、0以下の場合はフェードしない)
+	 */
+	public synchronized void playMusic( Music music, int fadeMillis ) {
+		
+		if ( _music._music == music ) {
+			return;
+		}
+		
+		MusicDeck previous = _music;
+		_music = _fadingMusic;
+		_fadingMusic = previous;
+		
+		if ( _fadingMusic._music != null ) {
+			fadeOut( _fadingMusic, fadeMillis );
+		}
+		
+		_music._music = music;
+		_music._position = 0;
+		_music._step = toStep( music.getSampleRate(), 1.0f );
+		
+		if ( fadeMillis > 0 ) {
+			_music._fade = 0;
+			_music._fadeDelta = Math.max( FADE_ONE / toFrames( fadeMillis ), 1 );
+		} else {
+			_music._fade = FADE_ONE;
+			_music._fadeDelta = 0;
+		}
+	}
+	
+	/**
+	 * BGMの再生を停止する。<br />
+	 * 
+	 * 再生中のBGMはフェードアウトに切り替える。フェード時間が0以下の場合はフェードアウト中のBGMも即座に停止する。
+	 * 
+	 * @param music BGM
+	 * @param fadeMillis フェード時間(ミリ秒、0以下の場合はフェードしない)
+	 */
+	public synchronized void stopMusic( Music music, int fadeMillis ) {
+		
+		if ( fadeMillis <= 0 ) {
+			
+			if ( _music._music == music ) {
+				_music._music = null;
+			}
+			if ( _fadingMusic._music == music ) {
+				_fadingMusic._music = null;
+			}
+			return;
+		}
+		
+		if ( _music._music == music ) {
+			
+			MusicDeck previous = _music;
+			_music = _fadingMusic;
+			_fadingMusic = previous;
+			
+			_music._music = null;
+			fadeOut( _fadingMusic, fadeMillis );
+		}
+	}
+	
+	/**
+	 * BGMを再生中か判定する。
+	 * 
+	 * @param music BGM
+	 * @return true:再生中、false:停止またはフェードアウト中
+	 */
+	public synchronized boolean isMusicPlaying( Music music ) {
+		return _music._music == music;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.AudioMixerMBean#getVoiceCount()
+	 */
+	@Override
+	public int getVoiceCount() {
+		return _voices.length;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.AudioMixerMBean#getActiveVoiceCount()
+	 */
+	@Override
+	public synchronized int getActiveVoiceCount() {
+		
+		int count = 0;
+		for ( Voice voice : _voices ) {
+			if ( voice._data != null ) {
+				count++;
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.AudioMixerMBean#getStealCount()
+	 */
+	@Override
+	public long getStealCount() {
+		return _stealCount;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.AudioMixerMBean#getUnderrunCount()
+	 */
+	@Override
+	public long getUnderrunCount() {
+		return _underrunCount;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.AudioMixerMBean#getBufferFrames()
+	 */
+	@Override
+	public int getBufferFrames() {
+		return _bufferFrames;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.AudioMixerMBean#isNullOutput()
+	 */
+	@Override
+	public boolean isNullOutput() {
+		return _line == null;
+	}
+	
+	/**
+	 * プラットフォームMBeanサーバーに登録する。
+	 */
+	public void register() {
+		
+		try {
+			
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName( DOMAIN + ":type=AudioMixer" );
+			
+			if ( server.isRegistered( objectName ) ) {
+				server.unregisterMBean( objectName );
+			}
+			server.registerMBean( this, objectName );
+			
+		} catch (Exception e) {
+			System.out.println( "ミキサーの登録に失敗しました。" );
+		}
+	}
+	
+	/**
+	 * 再生中の全てのボイスを合成用バッファに合成する。
+	 */
+	private void mixVoices() {
+		
+		int[] buffer = _mixBuffer;
+		for ( int i = 0; i < buffer.length; i++ ) {
+			buffer[ i ] = 0;
+		}
+		
+		for ( Voice voice : _voices ) {
+			if ( voice._data != null ) {
+				mixVoice( voice, buffer );
+			}
+		}
+		
+		if ( _music._music != null ) {
+			mixMusic( _music, buffer );
+		}
+		if ( _fadingMusic._music != null ) {
+			mixMusic( _fadingMusic, buffer );
+		}
+	}
+	
+	/**
+	 * BGM1曲分を合成用バッファに加算する。<br />
+	 * 
+	 * メモリマップしたファイルから直接サンプルを読み出し、ボイスと同じく線形補間する。
+	 * ループの終端に達したら始端に戻り、終端の補間も始端のフレームと行うため継ぎ目が途切れない。
+	 * フェードアウトが終わった時点で停止する。
+	 * 
+	 * @param deck BGMの再生状態
+	 * @param buffer 合成用バッファ
+	 */
+	private void mixMusic( MusicDeck deck, int[] buffer ) {
+		
+		Music music = deck._music;
+		int loopStart = music.getLoopStart();
+		int loopEnd = music.getLoopEnd();
+		long end = ( long ) loopEnd << POSITION_SHIFT;
+		long loopLength = ( long ) ( loopEnd - loopStart ) << POSITION_SHIFT;
+		boolean isStereo = music.getChannels() == 2;
+		
+		long position = deck._position;
+		long step = deck._step;
+		int fade = deck._fade;
+		int fadeDelta = deck._fadeDelta;
+		
+		for ( int i = 0, len = buffer.length; i < len; i += 2 ) {
+			
+			while ( position >= end ) {
+				position -= loopLength;
+			}
+			
+			int frame = ( int ) ( position >>> POSITION_SHIFT );
+			int fraction = ( int ) ( position & FRACTION_MASK ) >>> FRACTION_SHIFT;
+			
+			int next = frame + 1;
+			if ( next == loopEnd ) {
+				next = loopStart;
+			}
+			
+			if ( fadeDelta != 0 ) {
+				
+				fade += fadeDelta;
+				
+				if ( fade >= FADE_ONE ) {
+					fade = FADE_ONE;
+					fadeDelta = 0;
+				} else if ( fade <= 0 ) {
+					deck._music = null;
+					return;
+				}
+			}
+			
+			int left = interpolate( music.getSample( frame, 0 ), music.getSample( next, 0 ), fraction );
+			int right = isStereo ? interpolate( music.getSample( frame, 1 ), music.getSample( next, 1 ), fraction ) : left;
+			
+			buffer[ i ] += ( int ) ( ( long ) left * fade >> FADE_SHIFT );
+			buffer[ i + 1 ] += ( int ) ( ( long ) right * fade >> FADE_SHIFT );
+			
+			position += step;
+		}
+		
+		deck._position = position;
+		deck._fade = fade;
+		deck._fadeDelta = fadeDelta;
+	}
+	
+	/**
+	 * BGMのフェードアウトを開始する。
+	 * 
+	 * @param deck BGMの再生状態
+	 * @param fadeMillis フェード時間(ミリ秒、0以下の場合は即座に停止)
+	 */
+	private static void fadeOut( MusicDeck deck, int fadeMillis ) {
+		
+		if ( fadeMillis <= 0 ) {
+			deck._music = null;
+			return;
+		}
+		
+		// フェードイン中の場合は現在の音量から下げる
+		deck._fadeDelta = -Math.max( FADE_ONE / toFrames( fadeMillis ), 1 );
+	}
+	
+	/**
+	 * ミリ秒を出力のフレーム数に変換する。
+	 * 
+	 * @param millis ミリ秒
+	 * @return フレーム数(1以上)
+	 */
+	private static int toFrames( int millis ) {
+		return Math.max( ( int ) ( ( long ) millis * SAMPLE_RATE / 1000 ), 1 );
+	}
+	
+	/**
+	 * 1ボイス分を合成用バッファに加算する。<br />
+	 * 
+	 * 再生位置は固定小数点で進め、隣り合うフレームを線形補間する。
+	 * ループしないボイスは末尾に達した時点で停止する。
+	 * 
+	 * @param voice ボイス
+	 * @param buffer 合成用バッファ
+	 */
+	private void mixVoice( Voice voice, int[] buffer ) {
+		
+		PcmData data = voice._data;
+		short[] samples = data.getSamples();
+		int frameCount = data.getFrameCount();
+		long end = ( long ) frameCount << POSITION_SHIFT;
+		boolean isStereo = data.getChannels() == 2;
+		
+		long position = voice._position;
+		long step = voice._step;
+		int gain = voice._gain;
+		
+		for ( int i = 0, len = buffer.length; i < len; i += 2 ) {
+			
+			if ( position >= end ) {
+				if ( !voice._isLoop || frameCount == 0 ) {
+					voice._data = null;
+					return;
+				}
+				position %= end;
+			}
+			
+			int frame = ( int ) ( position >>> POSITION_SHIFT );
+			int fraction = ( int ) ( position & FRACTION_MASK ) >>> FRACTION_SHIFT;
+			
+			// 末尾の次はループの場合は先頭、ループしない場合は末尾と補間する
+			int next = frame + 1;
+			if ( next == frameCount ) {
+				next = voice._isLoop ? 0 : frame;
+			}
+			
+			if ( isStereo ) {
+				buffer[ i ] += interpolate( samples[ frame * 2 ], samples[ next * 2 ], fraction ) * gain >> GAIN_SHIFT;
+				buffer[ i + 1 ] += interpolate( samples[ frame * 2 + 1 ], samples[ next * 2 + 1 ], fraction ) * gain >> GAIN_SHIFT;
+			} else {
+				int sample = interpolate( samples[ frame ], samples[ next ], fraction ) * gain >> GAIN_SHIFT;
+				buffer[ i ] += sample;
+				buffer[ i + 1 ] += sample;
+			}
+			
+			position += step;
+		}
+		
+		voice._position = position;
+	}
+	
+	/**
+	 * 再生に使用するボイスを探す。<br />
+	 * 
+	 * 空きボイス、ループしない最も古いボイス、最も古いボイスの順に探す。
+	 * 
+	 * @return ボイスの番号
+	 */
+	private int findVoice() {
+		
+		int oldest = 0;
+		int oldestOneShot = -1;
+		
+		for ( int i = 0; i < _voices.length; i++ ) {
+			
+			Voice voice = _voices[ i ];
+			
+			if ( voice._data == null ) {
+				return i;
+			}
+			
+			if ( voice._seq < _voices[ oldest ]._seq ) {
+				oldest = i;
+			}
+			
+			if ( !voice._isLoop && ( oldestOneShot < 0 || voice._seq < _voices[ oldestOneShot ]._seq ) ) {
+				oldestOneShot = i;
+			}
+		}
+		
+		return ( oldestOneShot >= 0 ) ? oldestOneShot : oldest;
+	}
+	
+	/**
+	 * 再生番号のボイスを取得する。
+	 * 
+	 * @param handle 再生番号
+	 * @return ボイス(再生終了または他の再生にボイスを奪われた場合はnull)
+	 */
+	private Voice getVoice( int handle ) {
+		
+		if ( handle < 0 ) {
+			return null;
+		}
+		
+		int index = handle & 0xFF;
+		if ( index >= _voices.length ) {
+			return null;
+		}
+		
+		Voice voice = _voices[ index ];
+		if ( voice._data == null || voice._generation != ( handle >>> 8 ) ) {
+			return null;
+		}
+		
+		return voice;
+	}
+	
+	/**
+	 * 音量を固定小数点に変換する。
+	 * 
+	 * @param gain 音量
+	 * @return 固定小数点の音量
+	 */
+	private static int toGain( float gain ) {
+		
+		if ( gain < 0 || gain > MAX_GAIN ) {
+			throw new IllegalArgumentException( "音量は0～" + MAX_GAIN + "を指定してください。:" + gain );
+		}
+		
+		return Math.round( gain * ( 1 << GAIN_SHIFT ) );
+	}
+	
+	/**
+	 * ピッチと音声データのサンプリング周波数から、出力1フレームあたりの再生位置の増分を求める。
+	 * 
+	 * @param sampleRate 音声データのサンプリング周波数
+	 * @param pitch ピッチ
+	 * @return 固定小数点の再生位置の増分
+	 */
+	private static long toStep( int sampleRate, float pitch ) {
+		
+		if ( pitch <= 0 ) {
+			throw new IllegalArgumentException( "ピッチは0より大きい値を指定してください。:" + pitch );
+		}
+		
+		return Math.max( Math.round( ( double ) sampleRate * pitch / SAMPLE_RATE * ( 1 << POSITION_SHIFT ) ), 1L );
+	}
+	
+	/**
+	 * 2つのサンプルを線形補間する。
+	 * 
+	 * @param a 前のサンプル
+	 * @param b 後のサンプル
+	 * @param fraction 後のサンプルの割合(固定小数点)
+	 * @return 補間したサンプル
+	 */
+	private static int interpolate( int a, int b, int fraction ) {
+		return a + ( ( b - a ) * fraction >> GAIN_SHIFT );
+	}
+	
+	/**
+	 * 16bit符号付きの範囲に収める。
+	 * 
+	 * @param sample サンプル
+	 * @return 範囲に収めたサンプル
+	 */
+	private static int clamp( int sample ) {
+		
+		if ( sample > Short.MAX_VALUE ) {
+			return Short.MAX_VALUE;
+		}
+		if ( sample < Short.MIN_VALUE ) {
+			return Short.MIN_VALUE;
+		}
+		
+		return sample;
+	}
+	
+	/**
+	 * BGMの再生状態
+	 */
+	private static final class MusicDeck {
+		
+		/** 再生中のBGM(停止中はnull) */
+		private Music _music = null;
+		
+		/** 再生位置(固定小数点のフレーム) */
+		private long _position = 0;
+		
+		/** 出力1フレームあたりの再生位置の増分(固定小数点) */
+		private long _step = 0;
+		
+		/** フェードの音量(固定小数点) */
+		private int _fade = 0;
+		
+		/** 出力1フレームあたりのフェードの音量の増分(負の場合はフェードアウト) */
+		private int _fadeDelta = 0;
+	}
+	
+	/**
+	 * ボイスの再生状態
+	 */
+	private static final class Voice {
+		
+		/** 再生中の音声データ(停止中はnull) */
+		private PcmData _data = null;
+		
+		/** 再生位置(固定小数点のフレーム) */
+		private long _position = 0;
+		
+		/** 出力1フレームあたりの再生位置の増分(固定小数点) */
+		private long _step = 0;
+		
+		/** 音量(固定小数点) */
+		private int _gain = 0;
+		
+		/** ループ再生フラグ */
+		private boolean _isLoop = false;
+		
+		/** 再生開始時の再生要求の通し番号 */
+		private long _seq = 0;
+		
+		/** 再生のたびに増やす世代番号(奪われたボイスの再生番号を無効にする) */
+		private int _generation = 0;
+	}
+}
@@ -0,0 +1,54 @@
+package h.sakai.game.engine;
+
+/**
+ * ソフトウェアミキサーの管理インタフェース<br />
+ * 
+ * ボイスの使用状況とバッファの途切れを公開する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface AudioMixerMBean {
+	
+	/**
+	 * ボイス数を取得する。
+	 * 
+	 * @return ボイス数
+	 */
+	int getVoiceCount();
+	
+	/**
+	 * 再生中のボイス数を取得する。
+	 * 
+	 * @return 再生中のボイス数
+	 */
+	int getActiveVoiceCount();
+	
+	/**
+	 * 空きボイスが無く、再生中のボイスを奪った回数を取得する。
+	 * 
+	 * @return 回数
+	 */
+	long getStealCount();
+	
+	/**
+	 * 出力回線のバッファが空になった回数を取得する。
+	 * 
+	 * @return 回数(出力なしの場合は0)
+	 */
+	long getUnderrunCount();
+	
+	/**
+	 * 1回に合成するフレーム数を取得する。
+	 * 
+	 * @return フレーム数
+	 */
+	int getBufferFrames();
+	
+	/**
+	 * 出力なしで動作しているか判定する。
+	 * 
+	 * @return true:出力なし、false:出力回線に出力
+	 */
+	boolean isNullOutput();
+}
@@ -1,244 +1,960 @@
-package h.sakai.game.engine;
-
-import java.awt.Container;
-import java.awt.Dimension;
-import java.awt.Graphics;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
-
-import javax.swing.JFrame;
-import javax.swing.JOptionPane;
-import javax.swing.JPanel;
-
-/**
- * ゲームエンジンクラス
- * 
- * @author H.Sakai
- * @version V1.00 2012/12/28 H.Sakai 新規作成
- */
-public class Engine implements Runnable {
-	
-	/** ゲームウィンドウ */
-	private GameWindow gameWindow = null;
-	
-	/** FPS設定 */
-	private static final byte FPS = 60;
-	
-	/** FPS更新間隔 */
-	private static final short FPS_TIME = 1000 / FPS;
-	
-	/** シーンID：開始シーン */
-	protected static final byte SCENE_START = 1;
-	
-	/**
-	 * コンストラクタ<br />
-	 * 
-	 * 設定ファイル等読み込み初期化処理を実行する。
-	 */
-	public Engine() {
-		
-		try {
-			SystemProperty.read();
-		} catch (Exception e) {
-			System.out.println( "設定ファイルの読み込みに失敗しました。" );
-		}
-	}
-	
-	/**
-	 * ゲームを起動する。
-	 */
-	public void launch() {
-		
-		gameWindow = new GameWindow();
-		gameWindow.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
-		gameWindow.setVisible( true );
-		
-		SceneDirector.runScene( SceneFactory.createScene( SCENE_START ) );
-		
-		Thread mainRoop = new Thread( this );
-		mainRoop.start();
-	}
-	
-	/**
-	 * ゲームの起動メソッド
-	 */
-	public void run() {
-		
-		long time = System.currentTimeMillis();
-		
-		while ( true ) {
-			
-			long thisTime = System.currentTimeMillis();
-			
-			if ( thisTime - time < FPS_TIME ) {
-				continue;
-			}
-			
-			int len = SceneDirector.getLength();
-			int last = len - 1;
-			
-			for ( int i = 0; i < len; i++ ) {
-				Scene scene = SceneDirector.getScene( i );
-				scene.getKeyEvent().updateKeyEvent( gameWindow.getPressKey(), gameWindow.getReleaseKey() );
-				scene.processUpdaste( ( i < last ) );
-				scene.getKeyEvent().disposeKeyEvent();
-			}
-			
-			gameWindow.getGamePanel().repaint();
-			gameWindow.disposeKey();
-			
-			time = thisTime;
-		}
-		
-	}
-	
-	/**
-	 * ゲームウィンドウクラス
-	 * 
-	 * @author H.Sakai
-	 * @version V1.00 2012/12/28 H.Sakai 新規作成
-	 */
-	private class GameWindow extends JFrame implements KeyListener {
-		
-		private static final long serialVersionUID = -8907562095323143296L;
-		
-		/** ゲームパネル */
-		private JPanel panel = null;
-		
-		/** 押下キー */
-		private int _pressKey = -1;
-		
-		/** 解除キー */
-		private int _releaseKey = -1;
-		
-		/**
-		 * コンストラクタ<br />
-		 * 
-		 * ゲーム画面の初期化処理を実行する。
-		 */
-		public GameWindow() {
-			
-			try {
-				setTitle( SystemProperty.getInstance().getProperty( "title" ) );
-			} catch (Exception e) {
-				JOptionPane.showMessageDialog(this, "画面の初期化に失敗しました。");
-				System.exit(0);
-			}
-			
-			setResizable( false );
-			
-			this.panel = new GamePanel();
-			
-			Container container = getContentPane();
-			container.add( this.panel );
-			
-			addKeyListener( this );
-			
-			// パネルサイズに自動調整
-			pack();
-			
-			// 画面中央に配置
-			setLocationRelativeTo( null );
-		}
-		
-		/**
-		 * ゲームの描画パネルを取得する。
-		 * 
-		 * @return ゲーム描画パネル
-		 */
-		public JPanel getGamePanel() {
-			return this.panel;
-		}
-		
-		/**
-		 * @see KeyListener#keyPressed(KeyEvent)
-		 */
-		@Override
-		public void keyPressed(KeyEvent e) {
-			_pressKey = e.getKeyCode();
-		}
-		
-		/**
-		 * @see KeyListener#keyReleased(KeyEvent)
-		 */
-		@Override
-		public void keyReleased(KeyEvent e) {
-			_releaseKey = e.getKeyCode();
-		}
-		
-		/**
-		 * @see KeyListener#keyTyped(KeyEvent)
-		 */
-		@Override
-		public void keyTyped(KeyEvent e) {
-			
-		}
-		
-		/**
-		 * 押下されたキー情報を取得する。
-		 * 
-		 * @return 押下キー
-		 */
-		protected int getPressKey() {
-			return _pressKey;
-		}
-		
-		/**
-		 * 押下状態を解除されたキーを取得する。
-		 * 
-		 * @return 押下状態を解除されたキー
-		 */
-		protected int getReleaseKey() {
-			return _releaseKey;
-		}
-		
-		/**
-		 * 入力キーを破棄する。
-		 */
-		public void disposeKey() {
-			_pressKey = _releaseKey = -1;
-		}
-	}
-	
-	/**
-	 * ウィンドウの更に内部のパネルクラス
-	 * 
-	 * @author H.Sakai
-	 * @version V1.00 2012/12/28 H.Sakai 新規作成
-	 */
-	private class GamePanel extends JPanel {
-		
-		private static final long serialVersionUID = 8007104410351092814L;
-		
-		/**
-		 * コンストラクタ
-		 */
-		public GamePanel() {
-			
-			try {
-				setPreferredSize( new Dimension( Integer.parseInt( SystemProperty.getInstance().getProperty("width") ),
-						Integer.parseInt( SystemProperty.getInstance().getProperty("height") ) ) );
-			} catch (Exception e) {
-				JOptionPane.showMessageDialog(this, "画面の初期化に失敗しました。");
-				System.exit(0);
-			}
-		}
-		
-		/**
-		 * repainコール時に呼び出される。
-		 */
-		@Override
-		public void paintComponent(Graphics g) {
-			
-			super.paintComponent(g);
-			
-			int len = SceneDirector.getLength();
-			int last = len - 1;
-			
-			for ( int i = 0; i < len; i++ ) {
-				Scene scene = SceneDirector.getScene( i );
-				scene.processDraw( g, this, ( i < last ) );
-			}
-		}
-	}
-}
+package h.sakai.game.engine;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+
+/**
+ * ゲームエンジンクラス
+ * 
+ * @author H.Sakai
+ * @version V1.00 2012/12/28 H.Sakai 新規作成
+ */
+public class Engine implements Runnable {
+	
+	/** ゲームウィンドウ */
+	private GameWindow gameWindow = null;
+	
+	/** キー入力 */
+	private InputSource inputSource = null;
+	
+	/** フレームスケジューラ */
+	private FrameTimer frameTimer = null;
+	
+	/** キーイベントの取り出し先キーコード */
+	private final int[] inputCodes = new int[ KeyQueue.DEFAULT_CAPACITY ];
+	
+	/** キーイベントの取り出し先発生時間 */
+	private final long[] inputTimes = new long[ KeyQueue.DEFAULT_CAPACITY ];
+	
+	/** キー入力の記録(終了時のフックから破棄するためvolatile) */
+	private volatile InputRecorder recorder = null;
+	
+	/** 更新済みフレーム数 */
+	private long frameNo = 0;
+	
+	/** 描画の補間値 */
+	private volatile float drawAlpha = 0.0f;
+	
+	/** アクティブ描画フラグ */
+	private boolean isActiveRendering = false;
+	
+	/** 描画スレッド使用フラグ */
+	private boolean isRenderThread = false;
+	
+	/** 最終更新時間 */
+	private volatile long lastUpdateTime = 0;
+	
+	/** ページフリップ使用フラグ */
+	private boolean isPageFlip = false;
+	
+	/** 描画バッファ数 */
+	private int bufferCount = 0;
+	
+	/** フレーム計測 */
+	private FrameMetrics frameMetrics = null;
+	
+	/** 画面反映の要求時間 */
+	private volatile long presentRequestTime = 0;
+	
+	/** 起動時間の計測(生成から最初のフレームまで) */
+	private final StartupTimer startupTimer = new StartupTimer();
+	
+	/** 更新FPSの既定値 */
+	private static final int DEFAULT_UPDATE_FPS = 60;
+	
+	/** 描画FPSの既定値 */
+	private static final int DEFAULT_DRAW_FPS = 60;
+	
+	/** 最大追いつき更新回数の既定値 */
+	private static final int DEFAULT_MAX_CATCH_UP = 5;
+	
+	/** 描画バッファ数の既定値 */
+	private static final int DEFAULT_BUFFER_COUNT = 2;
+	
+	/** 描画方式：アクティブ描画 */
+	private static final String RENDER_MODE_ACTIVE = "active";
+	
+	/** バッファ切替方式：ページフリップ */
+	private static final String FLIP_MODE_FLIP = "flip";
+	
+	/** ずれの報告間隔 */
+	private static final long DRIFT_REPORT_INTERVAL = FrameTimer.NANOS_PER_SECOND;
+	
+	/** 起動段階：設定ファイルの読み込み */
+	private static final String STARTUP_CONFIG = "config";
+	
+	/** 起動段階：ウィンドウの表示 */
+	private static final String STARTUP_WINDOW = "window";
+	
+	/** 起動段階：開始シーンの初期化 */
+	private static final String STARTUP_SCENE = "scene";
+	
+	/** 起動段階：最初のフレームの更新・描画 */
+	private static final String STARTUP_FIRST_FRAME = "firstFrame";
+	
+	/** シーンID：開始シーン */
+	protected static final byte SCENE_START = 1;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 設定ファイル等読み込み初期化処理を実行する。
+	 */
+	public Engine() {
+		
+		try {
+			SystemProperty.read();
+		} catch (Exception e) {
+			System.out.println( "設定ファイルの読み込みに失敗しました。" );
+		}
+		
+		startupTimer.mark( STARTUP_CONFIG );
+		
+		frameTimer = new FrameTimer( getIntProperty( "updateFps", DEFAULT_UPDATE_FPS ),
+				getIntProperty( "drawFps", DEFAULT_DRAW_FPS ), getIntProperty( "maxCatchUp", DEFAULT_MAX_CATCH_UP ) );
+		
+		isActiveRendering = RENDER_MODE_ACTIVE.equals( getStringProperty( "renderMode", "" ) );
+		isRenderThread = isActiveRendering && getBooleanProperty( "renderThread", false );
+		isPageFlip = FLIP_MODE_FLIP.equals( getStringProperty( "flipMode", "" ) );
+		bufferCount = getIntProperty( "bufferCount", DEFAULT_BUFFER_COUNT );
+		
+		h.sakai.game.engine.KeyEvent.setRepeat( getIntProperty( "keyRepeatDelay", h.sakai.game.engine.KeyEvent.DEFAULT_REPEAT_DELAY ),
+				getIntProperty( "keyRepeatInterval", h.sakai.game.engine.KeyEvent.DEFAULT_REPEAT_INTERVAL ) );
+		
+		frameMetrics = new FrameMetrics( frameTimer );
+		if ( getBooleanProperty( "jmx", true ) ) {
+			frameMetrics.register();
+		}
+	}
+	
+	/**
+	 * ゲームを起動する。
+	 */
+	public void launch() {
+		
+		gameWindow = new GameWindow();
+		gameWindow.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
+		gameWindow.setVisible( true );
+		
+		startupTimer.mark( STARTUP_WINDOW );
+		
+		inputSource = gameWindow;
+		
+		// ゲーム内時間は更新ごとに進めるため、処理落ちがあっても同じ入力から同じ結果になる
+		GameClock.setVirtual( true );
+		
+		if ( recorder != null ) {
+			Runtime.getRuntime().addShutdownHook( new Thread() {
+				@Override
+				public void run() {
+					closeRecorder();
+				}
+			} );
+		}
+		
+		SceneDirector.runScene( SceneFactory.createScene( SCENE_START ) );
+		
+		startupTimer.mark( STARTUP_SCENE );
+		
+		Thread mainRoop = new Thread( this );
+		mainRoop.start();
+		
+		if ( isRenderThread ) {
+			Thread renderRoop = new Thread( new Runnable() {
+				@Override
+				public void run() {
+					render();
+				}
+			}, "render" );
+			renderRoop.setDaemon( true );
+			renderRoop.start();
+		}
+	}
+	
+	/**
+	 * ウィンドウを作成せずにゲームを起動する。<br />
+	 * 
+	 * 呼び出し元スレッドで指定フレーム数の更新を待ち時間なしに実行する。
+	 * ゲーム内時間は1更新ごとに更新間隔分進める。サウンドは再生しない。
+	 * 
+	 * @param input キー入力
+	 * @param frames 実行フレーム数
+	 * @param isRender true:オフスクリーン画像に毎フレーム描画する、false:描画しない
+	 * @return 最終フレームの描画結果(描画しない場合はnull)
+	 */
+	public BufferedImage launchHeadless( InputSource input, long frames, boolean isRender ) {
+		
+		inputSource = input;
+		
+		GameClock.setVirtual( true );
+		Sound.setMute( true );
+		
+		BufferedImage screen = null;
+		
+		if ( isRender ) {
+			screen = new BufferedImage( getIntProperty( "width", 0 ), getIntProperty( "height", 0 ), BufferedImage.TYPE_INT_RGB );
+		}
+		
+		SceneDirector.runScene( SceneFactory.createScene( SCENE_START ) );
+		
+		startupTimer.mark( STARTUP_SCENE );
+		
+		long start = System.nanoTime();
+		
+		for ( long i = 0; i < frames; i++ ) {
+			
+			long frameStart = System.nanoTime();
+			
+			update();
+			
+			if ( screen != null ) {
+				Graphics g = screen.createGraphics();
+				try {
+					g.clearRect( 0, 0, screen.getWidth(), screen.getHeight() );
+					draw( g, null );
+				} finally {
+					g.dispose();
+				}
+			}
+			
+			frameMetrics.recordFrame( System.nanoTime() - frameStart );
+			
+			if ( i == 0 ) {
+				startupTimer.finish( STARTUP_FIRST_FRAME );
+			}
+		}
+		
+		long elapsed = System.nanoTime() - start;
+		System.out.println( "headless frames=" + frames + " elapsed=" + elapsed / 1000000 + "ms fps="
+				+ ( ( elapsed > 0 ) ? frames * FrameTimer.NANOS_PER_SECOND / elapsed : 0 ) );
+		
+		closeRecorder();
+		
+		return screen;
+	}
+	
+	/**
+	 * ゲームの起動メソッド<br />
+	 * 
+	 * 更新は固定間隔で実行し、次の更新または描画までスレッドを休止する。
+	 */
+	public void run() {
+		
+		boolean isReportDrift = getBooleanProperty( "reportDrift", false );
+		
+		long now = System.nanoTime();
+		long reportTime = now + DRIFT_REPORT_INTERVAL;
+		
+		frameTimer.start( now );
+		
+		while ( true ) {
+			
+			long frameStart = System.nanoTime();
+			
+			// 遅れた分の更新をまとめて実行
+			int updates = frameTimer.pollUpdates( frameStart );
+			
+			for ( int count = 0; count < updates; count++ ) {
+				update();
+			}
+			
+			now = System.nanoTime();
+			
+			if ( updates > 0 ) {
+				lastUpdateTime = now;
+			}
+			
+			// 描画スレッド使用時は描画をそちらに任せる
+			boolean isDraw = frameTimer.pollDraw( now ) && !isRenderThread;
+			if ( isDraw ) {
+				drawAlpha = frameTimer.getAlpha( now );
+				presentRequestTime = now;
+				gameWindow.present();
+			}
+			
+			now = System.nanoTime();
+			
+			if ( updates > 0 || isDraw ) {
+				frameMetrics.recordFrame( now - frameStart );
+			}
+			
+			if ( isReportDrift && now - reportTime >= 0 ) {
+				reportDrift();
+				reportTime = now + DRIFT_REPORT_INTERVAL;
+			}
+			
+			// 次の更新または描画まで休止
+			long wait = frameTimer.getWaitNanos( System.nanoTime() );
+			if ( wait > 0 ) {
+				LockSupport.parkNanos( wait );
+			}
+		}
+	}
+	
+	/**
+	 * 描画スレッドの処理を実行する。<br />
+	 * 
+	 * 更新とは独立して描画間隔ごとに描画する。シーンは更新スレッドが公開した
+	 * 最新のスナップショットのみを描画するため、更新と並行して実行できる。
+	 */
+	private void render() {
+		
+		long interval = frameTimer.getDrawInterval();
+		long updateInterval = frameTimer.getUpdateInterval();
+		long nextDrawTime = System.nanoTime();
+		
+		while ( true ) {
+			
+			long now = System.nanoTime();
+			
+			// 最終更新からの経過時間で補間値を求める
+			long lap = now - lastUpdateTime;
+			drawAlpha = ( lap >= updateInterval ) ? 1.0f : ( float ) lap / updateInterval;
+			
+			gameWindow.present();
+			
+			nextDrawTime += interval;
+			
+			// 描画が遅れた場合は予定時間を現在時間に合わせる
+			now = System.nanoTime();
+			if ( nextDrawTime - now < 0 ) {
+				nextDrawTime = now;
+			}
+			
+			long wait = nextDrawTime - now;
+			if ( wait > 0 ) {
+				LockSupport.parkNanos( wait );
+			}
+		}
+	}
+	
+	/**
+	 * 全シーンのフレーム更新処理を実行する。
+	 */
+	private void update() {
+		
+		GameClock.advance( frameTimer.getUpdateInterval() );
+		
+		long start = System.nanoTime();
+		
+		inputSource.poll( frameNo );
+		int inputCount = inputSource.getKeyQueue().drain( inputCodes, inputTimes );
+		
+		long end = System.nanoTime();
+		
+		frameMetrics.recordInput( end - start );
+		
+		// 記録の終了と競合しないよう1度だけ参照する
+		InputRecorder target = recorder;
+		if ( target != null && inputCount > 0 ) {
+			record( target, inputCount );
+		}
+		
+		// 入力発生から取り込みまでの遅延
+		long now = System.nanoTime();
+		for ( int i = 0; i < inputCount; i++ ) {
+			frameMetrics.recordInputLatency( now - inputTimes[ i ] );
+		}
+		
+		Scene[] scenes = SceneDirector.getScenes();
+		int last = scenes.length - 1;
+		
+		// 記録の書き込みと遅延の集計はシーンの更新時間に含めない
+		end = System.nanoTime();
+		
+		for ( int i = 0; i < scenes.length; i++ ) {
+			
+			start = end;
+			
+			Scene scene = scenes[ i ];
+			scene.getKeyEvent().updateKeyEvent( inputCodes, inputTimes, inputCount );
+			scene.processUpdaste( ( i < last ) );
+			scene.getKeyEvent().disposeKeyEvent();
+			
+			end = System.nanoTime();
+			frameMetrics.recordUpdate( i, end - start );
+		}
+		
+		// 更新中に要求されたシーン遷移を反映
+		SceneDirector.commit();
+		
+		frameNo++;
+	}
+	
+	/**
+	 * 今回のフレームのキーイベントを記録する。<br />
+	 * 
+	 * 書き込みに失敗した場合は記録を中止する。
+	 * 終了済みの記録には書き込まない。
+	 * 
+	 * @param target キー入力の記録
+	 * @param inputCount イベント数
+	 */
+	private void record( InputRecorder target, int inputCount ) {
+		
+		synchronized ( target ) {
+			
+			if ( recorder != target ) {
+				return;
+			}
+			
+			try {
+				target.record( frameNo, inputCodes, inputCount );
+			} catch (IOException e) {
+				System.out.println( "入力の記録に失敗しました。" );
+				closeRecorder();
+			}
+		}
+	}
+	
+	/**
+	 * キー入力の記録を終了する。
+	 */
+	private void closeRecorder() {
+		
+		InputRecorder target;
+		synchronized ( this ) {
+			target = recorder;
+			recorder = null;
+		}
+		
+		if ( target == null ) {
+			return;
+		}
+		
+		// 書き込み中の場合は完了を待ってから閉じる
+		synchronized ( target ) {
+			try {
+				target.close( frameNo );
+			} catch (IOException e) {
+				System.out.println( "入力の記録に失敗しました。" );
+			}
+		}
+	}
+	
+	/**
+	 * 全シーンの描画処理を実行する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視インスタンス
+	 */
+	private void draw( Graphics g, ImageObserver imgObserver ) {
+		
+		long start = System.nanoTime();
+		
+		Scene[] scenes = SceneDirector.getScenes();
+		int last = scenes.length - 1;
+		float alpha = drawAlpha;
+		
+		for ( int i = 0; i < scenes.length; i++ ) {
+			scenes[ i ].processDraw( g, imgObserver, ( i < last ), alpha );
+		}
+		
+		frameMetrics.recordDraw( System.nanoTime() - start );
+		
+		// ウィンドウ表示直後の更新前の描画は最初のフレームに含めない
+		if ( frameNo > 0 && !startupTimer.isFinished() ) {
+			startupTimer.finish( STARTUP_FIRST_FRAME );
+		}
+	}
+	
+	/**
+	 * 更新のずれを出力し、統計をリセットする。
+	 */
+	private void reportDrift() {
+		
+		System.out.println( "drift avg=" + frameTimer.getAverageDrift() / 1000 + "us max=" + frameTimer.getMaxDrift() / 1000
+				+ "us updates=" + frameTimer.getUpdateCount() + " skipped=" + frameTimer.getSkippedUpdates() );
+		
+		frameTimer.resetDrift();
+	}
+	
+	/**
+	 * キー入力の記録先を設定する。<br />
+	 * 
+	 * ゲームの起動前に設定する。記録は終了時(ヘッドレス起動時は指定フレーム数の実行後)に閉じる。
+	 * 
+	 * @param recorder キー入力の記録
+	 */
+	public void setRecorder( InputRecorder recorder ) {
+		this.recorder = recorder;
+	}
+	
+	/**
+	 * フレームスケジューラを取得する。
+	 * 
+	 * @return フレームスケジューラ
+	 */
+	public FrameTimer getFrameTimer() {
+		return frameTimer;
+	}
+	
+	/**
+	 * フレーム計測を取得する。
+	 * 
+	 * @return フレーム計測
+	 */
+	public FrameMetrics getFrameMetrics() {
+		return frameMetrics;
+	}
+	
+	/**
+	 * 描画バッファの消失回数を取得する。
+	 * 
+	 * @return 描画バッファの消失回数
+	 */
+	public long getLostBufferCount() {
+		return frameMetrics.getLostBuffers();
+	}
+	
+	/**
+	 * 描画バッファの復元回数を取得する。
+	 * 
+	 * @return 描画バッファの復元回数
+	 */
+	public long getRestoredBufferCount() {
+		return frameMetrics.getRestoredBuffers();
+	}
+	
+	/**
+	 * 文字列の設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @param defaultValue 設定が無い場合の値
+	 * @return 設定値
+	 */
+	protected static String getStringProperty( String propKey, String defaultValue ) {
+		
+		try {
+			return SystemProperty.getInstance().getProperty( propKey );
+		} catch (Exception e) {
+			return defaultValue;
+		}
+	}
+	
+	/**
+	 * 数値の設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @param defaultValue 設定が無い場合の値
+	 * @return 設定値
+	 */
+	protected static int getIntProperty( String propKey, int defaultValue ) {
+		
+		try {
+			return SystemProperty.getInstance().getInt( propKey, defaultValue );
+		} catch (Exception e) {
+			return defaultValue;
+		}
+	}
+	
+	/**
+	 * 設定情報から画面サイズを取得する。
+	 * 
+	 * @return 画面サイズ(幅・高さが未設定または0以下の場合はnull)
+	 */
+	private static Dimension getScreenSize() {
+		
+		int width = getIntProperty( "width", 0 );
+		int height = getIntProperty( "height", 0 );
+		
+		if ( width <= 0 || height <= 0 ) {
+			return null;
+		}
+		
+		return new Dimension( width, height );
+	}
+	
+	/**
+	 * 真偽値の設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @param defaultValue 設定が無い場合の値
+	 * @return 設定値
+	 */
+	protected static boolean getBooleanProperty( String propKey, boolean defaultValue ) {
+		
+		try {
+			return SystemProperty.getInstance().getBoolean( propKey, defaultValue );
+		} catch (Exception e) {
+			return defaultValue;
+		}
+	}
+	
+	/**
+	 * ゲームウィンドウクラス
+	 * 
+	 * @author H.Sakai
+	 * @version V1.00 2012/12/28 H.Sakai 新規作成
+	 */
+	private class GameWindow extends JFrame implements KeyListener, InputSource {
+		
+		private static final long serialVersionUID = -8907562095323143296L;
+		
+		/** ゲーム描画領域 */
+		private Component screen = null;
+		
+		/** アクティブ描画時の描画キャンバス */
+		private GameCanvas canvas = null;
+		
+		/** キーイベントのキュー */
+		private final KeyQueue _keyQueue = new KeyQueue();
+		
+		/** 押下中のキー(OSのキーリピートを除外するために使用) */
+		private final long[] _holdBits = new long[ 0x10000 >>> 6 ];
+		
+		/**
+		 * コンストラクタ<br />
+		 * 
+		 * ゲーム画面の初期化処理を実行する。
+		 */
+		public GameWindow() {
+			
+			try {
+				setTitle( SystemProperty.getInstance().getProperty( "title" ) );
+			} catch (Exception e) {
+				JOptionPane.showMessageDialog(this, "画面の初期化に失敗しました。");
+				System.exit(0);
+			}
+			
+			setResizable( false );
+			
+			if ( isActiveRendering ) {
+				// 描画はメインループで行うため、OSからの再描画要求は無視する
+				this.canvas = new GameCanvas();
+				this.screen = this.canvas;
+				setIgnoreRepaint( true );
+			} else {
+				this.screen = new GamePanel();
+			}
+			
+			Container container = getContentPane();
+			container.add( this.screen );
+			
+			addKeyListener( this );
+			this.screen.addKeyListener( this );
+			
+			// フォーカスを失った場合は解除イベントを受け取れないため、押下中のキーを全て解除する
+			addWindowFocusListener( new WindowAdapter() {
+				@Override
+				public void windowLostFocus( WindowEvent e ) {
+					releaseAll();
+				}
+			} );
+			
+			// パネルサイズに自動調整
+			pack();
+			
+			// 画面中央に配置
+			setLocationRelativeTo( null );
+			
+			// バッファの作成は表示可能になった後で行う
+			if ( this.canvas != null ) {
+				this.canvas.createStrategy();
+			}
+		}
+		
+		/**
+		 * ゲームの描画領域を取得する。
+		 * 
+		 * @return ゲーム描画領域
+		 */
+		public Component getScreen() {
+			return this.screen;
+		}
+		
+		/**
+		 * 1フレーム分の描画を画面に反映する。<br />
+		 * 
+		 * アクティブ描画時は呼び出し元スレッドで描画し、それ以外は再描画を要求する。
+		 */
+		public void present() {
+			
+			if ( this.canvas != null ) {
+				this.canvas.render();
+			} else {
+				this.screen.repaint();
+			}
+		}
+		
+		/**
+		 * @see KeyListener#keyPressed(KeyEvent)
+		 */
+		@Override
+		public void keyPressed(KeyEvent e) {
+			
+			int keyCode = e.getKeyCode();
+			if ( !isValidKey( keyCode ) ) {
+				return;
+			}
+			
+			// 押下中のキーの再押下はOSのキーリピートのため無視する
+			long bit = 1L << keyCode;
+			if ( ( _holdBits[ keyCode >>> 6 ] & bit ) != 0 ) {
+				return;
+			}
+			
+			_holdBits[ keyCode >>> 6 ] |= bit;
+			_keyQueue.offer( keyCode, true, System.nanoTime() );
+		}
+		
+		/**
+		 * @see KeyListener#keyReleased(KeyEvent)
+		 */
+		@Override
+		public void keyReleased(KeyEvent e) {
+			
+			int keyCode = e.getKeyCode();
+			if ( !isValidKey( keyCode ) ) {
+				return;
+			}
+			
+			_holdBits[ keyCode >>> 6 ] &= ~( 1L << keyCode );
+			_keyQueue.offer( keyCode, false, System.nanoTime() );
+		}
+		
+		/**
+		 * @see KeyListener#keyTyped(KeyEvent)
+		 */
+		@Override
+		public void keyTyped(KeyEvent e) {
+			
+		}
+		
+		/**
+		 * 管理対象のキーコードか判定する。
+		 * 
+		 * @param keyCode キーコード
+		 * @return true:管理対象、false:対象外
+		 */
+		private boolean isValidKey( int keyCode ) {
+			return keyCode >= 0 && keyCode < ( _holdBits.length << 6 );
+		}
+		
+		/**
+		 * 押下中のキーを全て解除する。
+		 */
+		private void releaseAll() {
+			
+			long time = System.nanoTime();
+			
+			for ( int i = 0; i < _holdBits.length; i++ ) {
+				
+				long bits = _holdBits[ i ];
+				
+				while ( bits != 0 ) {
+					int keyCode = ( i << 6 ) + Long.numberOfTrailingZeros( bits );
+					_keyQueue.offer( keyCode, false, time );
+					bits &= bits - 1;
+				}
+				
+				_holdBits[ i ] = 0;
+			}
+		}
+		
+		/**
+		 * @see InputSource#poll(long)
+		 */
+		@Override
+		public void poll( long frame ) {
+			
+		}
+		
+		/**
+		 * @see InputSource#getKeyQueue()
+		 */
+		@Override
+		public KeyQueue getKeyQueue() {
+			return _keyQueue;
+		}
+	}
+	
+	/**
+	 * ウィンドウの更に内部のパネルクラス
+	 * 
+	 * @author H.Sakai
+	 * @version V1.00 2012/12/28 H.Sakai 新規作成
+	 */
+	private class GamePanel extends JPanel {
+		
+		private static final long serialVersionUID = 8007104410351092814L;
+		
+		/**
+		 * コンストラクタ
+		 */
+		public GamePanel() {
+			
+			Dimension size = getScreenSize();
+			
+			if ( size == null ) {
+				JOptionPane.showMessageDialog(this, "画面の初期化に失敗しました。");
+				System.exit(0);
+			}
+			
+			setPreferredSize( size );
+		}
+		
+		/**
+		 * repainコール時に呼び出される。
+		 */
+		@Override
+		public void paintComponent(Graphics g) {
+			
+			super.paintComponent(g);
+			
+			draw( g, this );
+			
+			// 再描画要求から描画完了までを画面反映時間とする
+			long requestTime = presentRequestTime;
+			if ( requestTime != 0 ) {
+				frameMetrics.recordPresent( System.nanoTime() - requestTime );
+				presentRequestTime = 0;
+			}
+		}
+	}
+	
+	/**
+	 * アクティブ描画用のキャンバスクラス<br />
+	 * 
+	 * BufferStrategyのバックバッファに描画し、明示的に画面へ反映する。
+	 * 
+	 * @author H.Sakai
+	 * @version V1.00 2026/10/18 H.Sakai 新規作成
+	 */
+	private class GameCanvas extends Canvas {
+		
+		private static final long serialVersionUID = 3290153716251846097L;
+		
+		/** 描画バッファ */
+		private BufferStrategy strategy = null;
+		
+		/**
+		 * コンストラクタ
+		 */
+		public GameCanvas() {
+			
+			Dimension size = getScreenSize();
+			
+			if ( size == null ) {
+				JOptionPane.showMessageDialog(this, "画面の初期化に失敗しました。");
+				System.exit(0);
+			}
+			
+			setPreferredSize( size );
+			
+			setBackground( Color.BLACK );
+			setIgnoreRepaint( true );
+		}
+		
+		/**
+		 * 描画バッファを作成する。<br />
+		 * 
+		 * ページフリップが使用できない環境ではブリット転送で作成する。
+		 */
+		public void createStrategy() {
+			
+			if ( isPageFlip ) {
+				try {
+					createBufferStrategy( bufferCount, new BufferCapabilities( new ImageCapabilities( true ),
+							new ImageCapabilities( true ), BufferCapabilities.FlipContents.BACKGROUND ) );
+				} catch (AWTException e) {
+					System.out.println( "ページフリップが使用できないため、ブリット転送で描画します。" );
+					isPageFlip = false;
+				}
+			}
+			
+			if ( !isPageFlip ) {
+				try {
+					createBufferStrategy( bufferCount, new BufferCapabilities( new ImageCapabilities( true ),
+							new ImageCapabilities( true ), null ) );
+				} catch (AWTException e) {
+					createBufferStrategy( bufferCount );
+				}
+			}
+			
+			strategy = getBufferStrategy();
+		}
+		
+		/**
+		 * バックバッファに全シーンを描画し、画面に反映する。<br />
+		 * 
+		 * 描画中にバッファが消失・復元された場合は描画をやり直す。
+		 */
+		public void render() {
+			
+			do {
+				
+				do {
+					
+					Graphics g = strategy.getDrawGraphics();
+					try {
+						g.setColor( getBackground() );
+						g.fillRect( 0, 0, getWidth(), getHeight() );
+						draw( g, this );
+					} finally {
+						g.dispose();
+					}
+					
+				} while ( isContentsRestored() );
+				
+				long start = System.nanoTime();
+				strategy.show();
+				frameMetrics.recordPresent( System.nanoTime() - start );
+				
+			} while ( isContentsLost() );
+			
+			Toolkit.getDefaultToolkit().sync();
+		}
+		
+		/**
+		 * 描画中にバッファが復元されたか判定し、復元回数を数える。
+		 * 
+		 * @return true:復元された、false:復元されていない
+		 */
+		private boolean isContentsRestored() {
+			
+			if ( strategy.contentsRestored() ) {
+				frameMetrics.countRestoredBuffer();
+				return true;
+			}
+			
+			return false;
+		}
+		
+		/**
+		 * 反映後にバッファが消失したか判定し、消失回数を数える。
+		 * 
+		 * @return true:消失した、false:消失していない
+		 */
+		private boolean isContentsLost() {
+			
+			if ( strategy.contentsLost() ) {
+				frameMetrics.countLostBuffer();
+				return true;
+			}
+			
+			return false;
+		}
+	}
+}
@@ -0,0 +1,283 @@
+package h.sakai.game.engine;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * フレームの処理時間を計測するクラス<br />
+ * 
+ * 入力・更新(シーンのスタック位置ごと)・描画・画面反映の処理時間をヒストグラムに記録し、
+ * プラットフォームMBeanサーバーに公開する。
+ * 記録処理はオブジェクトを生成しないため、毎フレーム呼び出すことができる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class FrameMetrics implements FrameMetricsMBean {
+	
+	/** 個別に計測するシーンのスタック数(これより深いシーンは最後の要素にまとめる) */
+	protected static final int MAX_SCENE_DEPTH = 4;
+	
+	/** MBeanのドメイン */
+	private static final String DOMAIN = "h.sakai.game.engine";
+	
+	/** フレームスケジューラ */
+	private final FrameTimer _frameTimer;
+	
+	/** 入力処理時間 */
+	private final LatencyHistogram _input = new LatencyHistogram( "input" );
+	
+	/** キー入力の発生から取り込みまでの遅延 */
+	private final LatencyHistogram _inputLatency = new LatencyHistogram( "inputLatency" );
+	
+	/** シーンごとの更新処理時間 */
+	private final LatencyHistogram[] _update = new LatencyHistogram[ MAX_SCENE_DEPTH ];
+	
+	/** 描画処理時間 */
+	private final LatencyHistogram _draw = new LatencyHistogram( "draw" );
+	
+	/** 画面反映時間 */
+	private final LatencyHistogram _present = new LatencyHistogram( "present" );
+	
+	/** 1フレームの処理時間 */
+	private final LatencyHistogram _frame = new LatencyHistogram( "frame" );
+	
+	/** 計測したフレーム数 */
+	private volatile long _frameCount = 0;
+	
+	/** 処理落ちしたフレーム数 */
+	private volatile long _droppedFrames = 0;
+	
+	/** リセット時点の切り捨て更新回数 */
+	private volatile long _skippedBase = 0;
+	
+	/** 描画バッファの消失回数 */
+	private volatile long _lostBuffers = 0;
+	
+	/** 描画バッファの復元回数 */
+	private volatile long _restoredBuffers = 0;
+	
+	/** リセット要求フラグ */
+	private volatile boolean _isResetRequested = false;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param frameTimer フレームスケジューラ
+	 */
+	public FrameMetrics( FrameTimer frameTimer ) {
+		
+		_frameTimer = frameTimer;
+		
+		for ( int i = 0; i < MAX_SCENE_DEPTH; i++ ) {
+			_update[ i ] = new LatencyHistogram( "update" + i );
+		}
+	}
+	
+	/**
+	 * プラットフォームMBeanサーバーに登録する。<br />
+	 * 
+	 * 同じ名前で登録済みの場合は置き換える。登録に失敗しても計測は継続する。
+	 */
+	public void register() {
+		
+		try {
+			
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			String type = DOMAIN + ":type=FrameMetrics";
+			
+			register( server, this, new ObjectName( type ) );
+			register( server, _input, new ObjectName( type + ",name=" + _input.getName() ) );
+			register( server, _inputLatency, new ObjectName( type + ",name=" + _inputLatency.getName() ) );
+			register( server, _draw, new ObjectName( type + ",name=" + _draw.getName() ) );
+			register( server, _present, new ObjectName( type + ",name=" + _present.getName() ) );
+			register( server, _frame, new ObjectName( type + ",name=" + _frame.getName() ) );
+			
+			for ( int i = 0; i < MAX_SCENE_DEPTH; i++ ) {
+				register( server, _update[ i ], new ObjectName( type + ",name=" + _update[ i ].getName() ) );
+			}
+			
+		} catch (Exception e) {
+			System.out.println( "計測情報の登録に失敗しました。" );
+		}
+	}
+	
+	/**
+	 * MBeanを登録する。<br />
+	 * 
+	 * 同じ名前で登録済みの場合は登録を解除してから登録する。
+	 * 
+	 * @param server MBeanサーバ
+	 * @param mbean MBean
+	 * @param objectName 登録名
+	 * @throws Exception 登録に失敗した場合
+	 */
+	private static void register( MBeanServer server, Object mbean, ObjectName objectName ) throws Exception {
+		
+		if ( server.isRegistered( objectName ) ) {
+			server.unregisterMBean( objectName );
+		}
+		server.registerMBean( mbean, objectName );
+	}
+	
+	/**
+	 * 入力処理時間を記録する。
+	 * 
+	 * @param nanos 処理時間
+	 */
+	public void recordInput( long nanos ) {
+		_input.record( nanos );
+	}
+	
+	/**
+	 * キー入力の発生から取り込みまでの遅延を記録する。
+	 * 
+	 * @param nanos 遅延時間
+	 */
+	public void recordInputLatency( long nanos ) {
+		_inputLatency.record( nanos );
+	}
+	
+	/**
+	 * シーンの更新処理時間を記録する。
+	 * 
+	 * @param depth シーンのスタック位置
+	 * @param nanos 処理時間
+	 */
+	public void recordUpdate( int depth, long nanos ) {
+		_update[ ( depth < MAX_SCENE_DEPTH ) ? depth : MAX_SCENE_DEPTH - 1 ].record( nanos );
+	}
+	
+	/**
+	 * 描画処理時間を記録する。
+	 * 
+	 * @param nanos 処理時間
+	 */
+	public void recordDraw( long nanos ) {
+		_draw.record( nanos );
+	}
+	
+	/**
+	 * 画面反映時間を記録する。
+	 * 
+	 * @param nanos 処理時間
+	 */
+	public void recordPresent( long nanos ) {
+		_present.record( nanos );
+	}
+	
+	/**
+	 * 1フレームの処理時間を記録し、更新間隔を超えていれば処理落ちとして数える。
+	 * 
+	 * @param nanos 処理時間
+	 */
+	public void recordFrame( long nanos ) {
+		
+		if ( _isResetRequested ) {
+			_frameCount = 0;
+			_droppedFrames = 0;
+			_skippedBase = _frameTimer.getSkippedUpdates();
+			_frameTimer.resetDrift();
+			_isResetRequested = false;
+		}
+		
+		_frame.record( nanos );
+		
+		if ( nanos > _frameTimer.getUpdateInterval() ) {
+			_droppedFrames++;
+		}
+		
+		_frameCount++;
+	}
+	
+	/**
+	 * 描画バッファの消失を数える。
+	 */
+	public void countLostBuffer() {
+		_lostBuffers++;
+	}
+	
+	/**
+	 * 描画バッファの復元を数える。
+	 */
+	public void countRestoredBuffer() {
+		_restoredBuffers++;
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getFrameCount()
+	 */
+	@Override
+	public long getFrameCount() {
+		return _frameCount;
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getDroppedFrames()
+	 */
+	@Override
+	public long getDroppedFrames() {
+		return _droppedFrames;
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getSkippedUpdates()
+	 */
+	@Override
+	public long getSkippedUpdates() {
+		return _frameTimer.getSkippedUpdates() - _skippedBase;
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getAverageDrift()
+	 */
+	@Override
+	public long getAverageDrift() {
+		return _frameTimer.getAverageDrift();
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getMaxDrift()
+	 */
+	@Override
+	public long getMaxDrift() {
+		return _frameTimer.getMaxDrift();
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getLostBuffers()
+	 */
+	@Override
+	public long getLostBuffers() {
+		return _lostBuffers;
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#getRestoredBuffers()
+	 */
+	@Override
+	public long getRestoredBuffers() {
+		return _restoredBuffers;
+	}
+	
+	/**
+	 * @see FrameMetricsMBean#reset()
+	 */
+	@Override
+	public void reset() {
+		
+		_input.reset();
+		_inputLatency.reset();
+		_draw.reset();
+		_present.reset();
+		_frame.reset();
+		
+		for ( int i = 0; i < MAX_SCENE_DEPTH; i++ ) {
+			_update[ i ].reset();
+		}
+		
+		_isResetRequested = true;
+	}
+}
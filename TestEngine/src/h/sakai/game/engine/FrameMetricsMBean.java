@@ -0,0 +1,66 @@
+package h.sakai.game.engine;
+
+/**
+ * フレーム計測情報の管理インタフェース<br />
+ * 
+ * 各処理時間の分布は{@link LatencyHistogramMBean}として個別に公開する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface FrameMetricsMBean {
+	
+	/**
+	 * 計測したフレーム数を取得する。
+	 * 
+	 * @return フレーム数
+	 */
+	long getFrameCount();
+	
+	/**
+	 * 処理時間が更新間隔を超えたフレーム数を取得する。
+	 * 
+	 * @return 処理落ちしたフレーム数
+	 */
+	long getDroppedFrames();
+	
+	/**
+	 * 追いつけずに切り捨てた更新回数を取得する。
+	 * 
+	 * @return 切り捨てた更新回数
+	 */
+	long getSkippedUpdates();
+	
+	/**
+	 * 更新の予定時間からのずれの平均値を取得する。
+	 * 
+	 * @return ずれの平均値(ナノ秒)
+	 */
+	long getAverageDrift();
+	
+	/**
+	 * 更新の予定時間からのずれの最大値を取得する。
+	 * 
+	 * @return ずれの最大値(ナノ秒)
+	 */
+	long getMaxDrift();
+	
+	/**
+	 * 描画バッファの消失回数を取得する。
+	 * 
+	 * @return 描画バッファの消失回数
+	 */
+	long getLostBuffers();
+	
+	/**
+	 * 描画バッファの復元回数を取得する。
+	 * 
+	 * @return 描画バッファの復元回数
+	 */
+	long getRestoredBuffers();
+	
+	/**
+	 * 全ての計測値をリセットする。
+	 */
+	void reset();
+}
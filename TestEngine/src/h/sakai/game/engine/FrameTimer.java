@@ -0,0 +1,252 @@
+package h.sakai.game.engine;
+
+/**
+ * 固定間隔のフレームスケジューラ<br />
+ * 
+ * 更新処理は固定間隔で実行し、遅れた分は上限回数まで追いつき更新を行う。
+ * 描画は更新とは独立した間隔で実行し、次の更新までの経過割合を補間値として提供する。
+ * 時間は全てナノ秒({@link System#nanoTime()}基準)で扱う。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class FrameTimer {
+	
+	/** 1秒のナノ秒数 */
+	protected static final long NANOS_PER_SECOND = 1000000000L;
+	
+	/** 更新間隔 */
+	private final long _updateInterval;
+	
+	/** 描画間隔 */
+	private final long _drawInterval;
+	
+	/** 1ループでの最大追いつき更新回数 */
+	private final int _maxCatchUp;
+	
+	/** 次回の更新予定時間 */
+	private long _nextUpdateTime = 0;
+	
+	/** 次回の描画予定時間 */
+	private long _nextDrawTime = 0;
+	
+	/** 直近の更新のずれ */
+	private long _lastDrift = 0;
+	
+	/** 更新のずれの最大値 */
+	private long _maxDrift = 0;
+	
+	/** 更新のずれの合計 */
+	private long _totalDrift = 0;
+	
+	/** 更新回数 */
+	private long _updateCount = 0;
+	
+	/** 描画回数 */
+	private long _drawCount = 0;
+	
+	/** 追いつけずに切り捨てた更新回数 */
+	private long _skippedUpdates = 0;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param updateFps 1秒あたりの更新回数
+	 * @param drawFps 1秒あたりの描画回数
+	 * @param maxCatchUp 1ループでの最大追いつき更新回数
+	 */
+	public FrameTimer( int updateFps, int drawFps, int maxCatchUp ) {
+		
+		if ( updateFps <= 0 || drawFps <= 0 || maxCatchUp <= 0 ) {
+			throw new IllegalArgumentException( "updateFps=" + updateFps + ", drawFps=" + drawFps + ", maxCatchUp=" + maxCatchUp );
+		}
+		
+		_updateInterval = NANOS_PER_SECOND / updateFps;
+		_drawInterval = NANOS_PER_SECOND / drawFps;
+		_maxCatchUp = maxCatchUp;
+	}
+	
+	/**
+	 * スケジュールを開始する。
+	 * 
+	 * @param now 現在時間
+	 */
+	public void start( long now ) {
+		_nextUpdateTime = now;
+		_nextDrawTime = now;
+	}
+	
+	/**
+	 * 現在時間までに実行すべき更新回数を取得し、スケジュールを進める。<br />
+	 * 
+	 * 上限回数を超えて遅れている分は切り捨て、現在時間から再スケジュールする。
+	 * 
+	 * @param now 現在時間
+	 * @return 実行すべき更新回数
+	 */
+	public int pollUpdates( long now ) {
+		
+		int count = 0;
+		
+		while ( now - _nextUpdateTime >= 0 && count < _maxCatchUp ) {
+			
+			// 予定時間とのずれを記録
+			long drift = now - _nextUpdateTime;
+			_lastDrift = drift;
+			_totalDrift += drift;
+			if ( drift > _maxDrift ) {
+				_maxDrift = drift;
+			}
+			
+			_nextUpdateTime += _updateInterval;
+			_updateCount++;
+			count++;
+		}
+		
+		// 上限まで追いついても遅れている場合は切り捨て
+		if ( now - _nextUpdateTime >= 0 ) {
+			long behind = ( now - _nextUpdateTime ) / _updateInterval + 1;
+			_skippedUpdates += behind;
+			_nextUpdateTime += behind * _updateInterval;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * 描画時間に達したか判定し、達していればスケジュールを進める。
+	 * 
+	 * @param now 現在時間
+	 * @return true:描画する、false:描画しない
+	 */
+	public boolean pollDraw( long now ) {
+		
+		if ( now - _nextDrawTime < 0 ) {
+			return false;
+		}
+		
+		_nextDrawTime += _drawInterval;
+		
+		// 1描画間隔以上遅れていたら現在時間から再スケジュール
+		if ( now - _nextDrawTime >= 0 ) {
+			_nextDrawTime = now + _drawInterval;
+		}
+		
+		_drawCount++;
+		
+		return true;
+	}
+	
+	/**
+	 * 描画の補間値を取得する。
+	 * 
+	 * @param now 現在時間
+	 * @return 前回の更新から次回の更新までの経過割合(0.0～1.0)
+	 */
+	public float getAlpha( long now ) {
+		
+		long lap = now - ( _nextUpdateTime - _updateInterval );
+		
+		if ( lap <= 0 ) {
+			return 0.0f;
+		} else if ( lap >= _updateInterval ) {
+			return 1.0f;
+		}
+		
+		return ( float ) lap / _updateInterval;
+	}
+	
+	/**
+	 * 次の更新または描画までの待ち時間を取得する。
+	 * 
+	 * @param now 現在時間
+	 * @return 待ち時間(待つ必要がない場合は0)
+	 */
+	public long getWaitNanos( long now ) {
+		
+		long next = ( _nextUpdateTime - _nextDrawTime < 0 ) ? _nextUpdateTime : _nextDrawTime;
+		long wait = next - now;
+		
+		return ( wait > 0 ) ? wait : 0;
+	}
+	
+	/**
+	 * 更新間隔を取得する。
+	 * 
+	 * @return 更新間隔
+	 */
+	public long getUpdateInterval() {
+		return _updateInterval;
+	}
+	
+	/**
+	 * 描画間隔を取得する。
+	 * 
+	 * @return 描画間隔
+	 */
+	public long getDrawInterval() {
+		return _drawInterval;
+	}
+	
+	/**
+	 * 直近の更新のずれを取得する。
+	 * 
+	 * @return 予定時間からのずれ
+	 */
+	public long getLastDrift() {
+		return _lastDrift;
+	}
+	
+	/**
+	 * 更新のずれの最大値を取得する。
+	 * 
+	 * @return 予定時間からのずれの最大値
+	 */
+	public long getMaxDrift() {
+		return _maxDrift;
+	}
+	
+	/**
+	 * 更新のずれの平均値を取得する。
+	 * 
+	 * @return 予定時間からのずれの平均値
+	 */
+	public long getAverageDrift() {
+		return ( _updateCount == 0 ) ? 0 : _totalDrift / _updateCount;
+	}
+	
+	/**
+	 * 更新回数を取得する。
+	 * 
+	 * @return 更新回数
+	 */
+	public long getUpdateCount() {
+		return _updateCount;
+	}
+	
+	/**
+	 * 描画回数を取得する。
+	 * 
+	 * @return 描画回数
+	 */
+	public long getDrawCount() {
+		return _drawCount;
+	}
+	
+	/**
+	 * 追いつけずに切り捨てた更新回数を取得する。
+	 * 
+	 * @return 切り捨てた更新回数
+	 */
+	public long getSkippedUpdates() {
+		return _skippedUpdates;
+	}
+	
+	/**
+	 * ずれの統計をリセットする。
+	 */
+	public void resetDrift() {
+		_lastDrift = _maxDrift = _totalDrift = 0;
+		_updateCount = 0;
+	}
+}
@@ -0,0 +1,75 @@
+package h.sakai.game.engine;
+
+/**
+ * ゲーム内時間の管理クラス<br />
+ * 
+ * シーンやモデルは{@link System#currentTimeMillis()}の代わりに本クラスから時間を取得する。
+ * 仮想時間モードではエンジンが更新ごとに時間を進めるため、実時間に関係なく動作させることができる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class GameClock {
+	
+	/** 仮想時間モードフラグ */
+	private static volatile boolean isVirtual = false;
+	
+	/** 仮想時間 */
+	private static volatile long virtualNanos = 0;
+	
+	/**
+	 * コンストラクタ
+	 */
+	private GameClock() {
+	}
+	
+	/**
+	 * 仮想時間モードを設定する。<br />
+	 * 
+	 * 仮想時間は0から開始する。
+	 * 
+	 * @param virtual true:仮想時間、false:実時間
+	 */
+	public static void setVirtual( boolean virtual ) {
+		virtualNanos = 0;
+		isVirtual = virtual;
+	}
+	
+	/**
+	 * 仮想時間モードか判定する。
+	 * 
+	 * @return true:仮想時間、false:実時間
+	 */
+	public static boolean isVirtual() {
+		return isVirtual;
+	}
+	
+	/**
+	 * 仮想時間を進める。
+	 * 
+	 * @param nanos 進める時間(ナノ秒)
+	 */
+	protected static void advance( long nanos ) {
+		virtualNanos += nanos;
+	}
+	
+	/**
+	 * 現在時間をナノ秒で取得する。
+	 * 
+	 * @return 現在時間(ナノ秒)
+	 */
+	public static long nanoTime() {
+		return ( isVirtual ) ? virtualNanos : System.nanoTime();
+	}
+	
+	/**
+	 * 現在時間をミリ秒で取得する。<br />
+	 * 
+	 * 経過時間の計測用のため、値そのものは日時を表さない。
+	 * 
+	 * @return 現在時間(ミリ秒)
+	 */
+	public static long currentTimeMillis() {
+		return nanoTime() / 1000000L;
+	}
+}
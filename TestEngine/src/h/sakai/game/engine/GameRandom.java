@@ -0,0 +1,42 @@
+package h.sakai.game.engine;
+
+/**
+ * ゲーム内乱数の管理クラス<br />
+ * 
+ * シーンやモデルは乱数を本クラスの乱数の種から生成する。
+ * 入力の記録時は種を併せて保存し、再生時に同じ種を設定することで同じ乱数列を再現する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class GameRandom {
+	
+	/** 乱数の種 */
+	private static volatile long seed = System.nanoTime();
+	
+	/**
+	 * コンストラクタ
+	 */
+	private GameRandom() {
+	}
+	
+	/**
+	 * 乱数の種を設定する。<br />
+	 * 
+	 * 以降に生成する乱数に反映されるため、シーンの起動前に設定すること。
+	 * 
+	 * @param newSeed 乱数の種
+	 */
+	public static void setSeed( long newSeed ) {
+		seed = newSeed;
+	}
+	
+	/**
+	 * 乱数の種を取得する。
+	 * 
+	 * @return 乱数の種
+	 */
+	public static long getSeed() {
+		return seed;
+	}
+}
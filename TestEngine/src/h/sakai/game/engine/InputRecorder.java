@@ -0,0 +1,172 @@
+package h.sakai.game.engine;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * キー入力の記録クラス<br />
+ * 
+ * 乱数の種と、フレーム番号ごとのキーイベントをバイナリファイルに記録する。
+ * 記録内容は{@link ReplayInput}で再生する。
+ * 
+ * ファイル形式(数値は全てリトルエンディアン)
+ * <ul>
+ * <li>ヘッダ：識別子(int)、形式バージョン(int)、乱数の種(long)</li>
+ * <li>イベント：(キーコード &lt;&lt; 1 | 解除フラグ) + 1(可変長)、前回のイベントからのフレーム数(可変長)</li>
+ * <li>終端：0(可変長)、総フレーム数(可変長)</li>
+ * </ul>
+ * 可変長の数値は下位から7ビットずつ格納し、続きがある場合は最上位ビットを立てる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class InputRecorder {
+	
+	/** 識別子 */
+	protected static final int MAGIC = 0x50525348;
+	
+	/** 形式バージョン */
+	protected static final int VERSION = 3;
+	
+	/** 書き込みバッファサイズ */
+	private static final int BUFFER_SIZE = 8192;
+	
+	/** 1イベントの最大バイト数 */
+	private static final int MAX_EVENT_BYTES = 20;
+	
+	/** 出力先 */
+	private final FileChannel _channel;
+	
+	/** 書き込みバッファ */
+	private final ByteBuffer _buffer = ByteBuffer.allocateDirect( BUFFER_SIZE );
+	
+	/** 前回のイベントのフレーム番号 */
+	private long _lastFrame = 0;
+	
+	/** 記録したイベント数 */
+	private long _eventCount = 0;
+	
+	/** 終了フラグ */
+	private boolean _isClosed = false;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * ファイルを作成し、ヘッダを書き込む。
+	 * 
+	 * @param path 記録ファイルパス
+	 * @param seed 乱数の種
+	 * @throws IOException ファイルの作成に失敗した場合
+	 */
+	public InputRecorder( String path, long seed ) throws IOException {
+		
+		_channel = new FileOutputStream( path ).getChannel();
+		
+		_buffer.order( ByteOrder.LITTLE_ENDIAN );
+		_buffer.putInt( MAGIC );
+		_buffer.putInt( VERSION );
+		_buffer.putLong( seed );
+	}
+	
+	/**
+	 * 1フレーム分のキーイベントを記録する。
+	 * 
+	 * @param frame フレーム番号
+	 * @param codes 発生順のキーコード(解除イベントは{@link KeyQueue#RELEASE}を付加)
+	 * @param count イベント数
+	 * @throws IOException 書き込みに失敗した場合
+	 */
+	public synchronized void record( long frame, int[] codes, int count ) throws IOException {
+		
+		if ( _isClosed ) {
+			return;
+		}
+		
+		for ( int i = 0; i < count; i++ ) {
+			
+			if ( _buffer.remaining() < MAX_EVENT_BYTES ) {
+				flush();
+			}
+			
+			int keyCode = codes[ i ] & ~KeyQueue.RELEASE;
+			int release = ( ( codes[ i ] & KeyQueue.RELEASE ) != 0 ) ? 1 : 0;
+			
+			putVarLong( ( ( ( long ) keyCode << 1 ) | release ) + 1 );
+			putVarLong( frame - _lastFrame );
+			
+			_lastFrame = frame;
+			_eventCount++;
+		}
+	}
+	
+	/**
+	 * 終端を書き込み、ファイルを閉じる。
+	 * 
+	 * @param frames 総フレーム数
+	 * @throws IOException 書き込みに失敗した場合
+	 */
+	public synchronized void close( long frames ) throws IOException {
+		
+		if ( _isClosed ) {
+			return;
+		}
+		
+		_isClosed = true;
+		
+		try {
+			if ( _buffer.remaining() < MAX_EVENT_BYTES ) {
+				flush();
+			}
+			
+			putVarLong( 0 );
+			putVarLong( frames );
+			flush();
+			
+		} finally {
+			_channel.close();
+		}
+	}
+	
+	/**
+	 * 記録したイベント数を取得する。
+	 * 
+	 * @return イベント数
+	 */
+	public synchronized long getEventCount() {
+		return _eventCount;
+	}
+	
+	/**
+	 * バッファの内容をファイルに書き込む。
+	 * 
+	 * @throws IOException 書き込みに失敗した場合
+	 */
+	private void flush() throws IOException {
+		
+		_buffer.flip();
+		
+		while ( _buffer.hasRemaining() ) {
+			_channel.write( _buffer );
+		}
+		
+		_buffer.clear();
+	}
+	
+	/**
+	 * 可変長の数値を書き込む。
+	 * 
+	 * @param value 数値(0以上)
+	 */
+	private void putVarLong( long value ) {
+		
+		while ( ( value & ~0x7FL ) != 0 ) {
+			_buffer.put( ( byte ) ( ( value & 0x7F ) | 0x80 ) );
+			value >>>= 7;
+		}
+		
+		_buffer.put( ( byte ) value );
+	}
+}
@@ -0,0 +1,28 @@
+package h.sakai.game.engine;
+
+/**
+ * キー入力の供給元インタフェース<br />
+ * 
+ * ゲームウィンドウのキーリスナーや、ヘッドレス実行時のスクリプト入力が実装する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface InputSource {
+	
+	/**
+	 * フレーム更新前に入力を取り込む。
+	 * 
+	 * @param frame フレーム番号
+	 */
+	void poll( long frame );
+	
+	/**
+	 * 取り込んだキーイベントのキューを取得する。<br />
+	 * 
+	 * エンジンは{@link #poll(long)}の後にキューからイベントを取り出す。
+	 * 
+	 * @return キーイベントのキュー
+	 */
+	KeyQueue getKeyQueue();
+}
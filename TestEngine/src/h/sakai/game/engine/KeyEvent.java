@@ -1,51 +1,296 @@
-package h.sakai.game.engine;
-
-/**
- * キーイベントの管理クラス
- * 
- * @author H.Sakai
- * @version V1.00 2013/01/01 新規作成
- */
-public final class KeyEvent {
-	
-	private int _pressKey = -1;
-	private int _releaseKey = -1;
-	
-	/**
-	 * キーイベントの更新処理を実行する。
-	 * 
-	 * @param pressKey 入力キー
-	 * @param releaseKey リリースキー
-	 */
-	protected void updateKeyEvent( int pressKey, int releaseKey ) {
-		_pressKey = pressKey;
-		_releaseKey = releaseKey;
-	}
-	
-	/**
-	 * キーイベントを破棄する。
-	 */
-	protected void disposeKeyEvent() {
-		_pressKey = _releaseKey = -1;
-	}
-	
-	/**
-	 * 引数のキーが押下されたか判定する。
-	 * 
-	 * @param keyCode キーコード
-	 * @return true:押下された、false:押下されていない
-	 */
-	public boolean isPressKey( int keyCode ) {
-		return keyCode == _pressKey;
-	}
-	
-	/**
-	 * 引数のキーが解除されたか判定する。
-	 * 
-	 * @param keyCode キーコード
-	 * @return true:解除された、false:解除されていない
-	 */
-	public boolean isReleaseKey( int keyCode ) {
-		return keyCode == _releaseKey;
-	}
-}
+package h.sakai.game.engine;
+
+/**
+ * キーイベントの管理クラス<br />
+ * 
+ * フレームごとに押下・解除されたキーと、押下中のキーを管理する。
+ * 押下し続けたキーは、押下から一定フレーム後に一定間隔でリピート入力として扱う。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2013/01/01 新規作成
+ */
+public final class KeyEvent {
+	
+	/** 管理するキーコードの上限 */
+	private static final int MAX_KEY_CODE = 0x10000;
+	
+	/** 記録領域の初期サイズ */
+	private static final int INITIAL_SIZE = 8;
+	
+	/** リピート開始までのフレーム数の既定値 */
+	protected static final int DEFAULT_REPEAT_DELAY = 10;
+	
+	/** リピート間隔フレーム数の既定値 */
+	protected static final int DEFAULT_REPEAT_INTERVAL = 2;
+	
+	/** リピート開始までのフレーム数 */
+	private static volatile int repeatDelay = DEFAULT_REPEAT_DELAY;
+	
+	/** リピート間隔フレーム数 */
+	private static volatile int repeatInterval = DEFAULT_REPEAT_INTERVAL;
+	
+	/** 押下中のキー(キーコードごとのビット) */
+	private final long[] _holdBits = new long[ MAX_KEY_CODE >>> 6 ];
+	
+	/** 今回のフレームで押下されたキー */
+	private int[] _pressKeys = new int[ INITIAL_SIZE ];
+	
+	/** 今回のフレームで押下されたキーの発生時間 */
+	private long[] _pressTimes = new long[ INITIAL_SIZE ];
+	
+	/** 今回のフレームで押下されたキー数 */
+	private int _pressCount = 0;
+	
+	/** 今回のフレームで解除されたキー */
+	private int[] _releaseKeys = new int[ INITIAL_SIZE ];
+	
+	/** 今回のフレームで解除されたキー数 */
+	private int _releaseCount = 0;
+	
+	/** 押下中のキー */
+	private int[] _holdKeys = new int[ INITIAL_SIZE ];
+	
+	/** 押下中のキーを押下したフレーム番号 */
+	private long[] _holdFrames = new long[ INITIAL_SIZE ];
+	
+	/** 押下中のキー数 */
+	private int _holdCount = 0;
+	
+	/** フレーム番号 */
+	private long _frame = 0;
+	
+	/**
+	 * キーリピートの間隔を設定する。
+	 * 
+	 * @param delay リピート開始までのフレーム数
+	 * @param interval リピート間隔フレーム数(1以上)
+	 */
+	protected static void setRepeat( int delay, int interval ) {
+		repeatDelay = Math.max( delay, 0 );
+		repeatInterval = Math.max( interval, 1 );
+	}
+	
+	/**
+	 * キーイベントの更新処理を実行する。
+	 * 
+	 * @param codes 発生順のキーコード(解除イベントは{@link KeyQueue#RELEASE}を付加)
+	 * @param times 発生時間
+	 * @param count イベント数
+	 */
+	protected void updateKeyEvent( int[] codes, long[] times, int count ) {
+		
+		_frame++;
+		_pressCount = _releaseCount = 0;
+		
+		for ( int i = 0; i < count; i++ ) {
+			
+			int keyCode = codes[ i ] & ~KeyQueue.RELEASE;
+			
+			if ( keyCode < 0 || keyCode >= MAX_KEY_CODE ) {
+				continue;
+			}
+			
+			if ( ( codes[ i ] & KeyQueue.RELEASE ) == 0 ) {
+				addPress( keyCode, times[ i ] );
+			} else {
+				addRelease( keyCode );
+			}
+		}
+	}
+	
+	/**
+	 * キーイベントを破棄する。
+	 */
+	protected void disposeKeyEvent() {
+		_pressCount = _releaseCount = 0;
+	}
+	
+	/**
+	 * 押下イベントを記録する。
+	 * 
+	 * @param keyCode キーコード
+	 * @param time 発生時間
+	 */
+	private void addPress( int keyCode, long time ) {
+		
+		if ( _pressCount == _pressKeys.length ) {
+			_pressKeys = grow( _pressKeys );
+			_pressTimes = grow( _pressTimes );
+		}
+		
+		_pressKeys[ _pressCount ] = keyCode;
+		_pressTimes[ _pressCount ] = time;
+		_pressCount++;
+		
+		if ( isHoldKey( keyCode ) ) {
+			return;
+		}
+		
+		_holdBits[ keyCode >>> 6 ] |= 1L << keyCode;
+		
+		if ( _holdCount == _holdKeys.length ) {
+			_holdKeys = grow( _holdKeys );
+			_holdFrames = grow( _holdFrames );
+		}
+		
+		_holdKeys[ _holdCount ] = keyCode;
+		_holdFrames[ _holdCount ] = _frame;
+		_holdCount++;
+	}
+	
+	/**
+	 * 解除イベントを記録する。
+	 * 
+	 * @param keyCode キーコード
+	 */
+	private void addRelease( int keyCode ) {
+		
+		if ( _releaseCount == _releaseKeys.length ) {
+			_releaseKeys = grow( _releaseKeys );
+		}
+		
+		_releaseKeys[ _releaseCount++ ] = keyCode;
+		
+		if ( !isHoldKey( keyCode ) ) {
+			return;
+		}
+		
+		_holdBits[ keyCode >>> 6 ] &= ~( 1L << keyCode );
+		
+		// 最後の要素で埋める
+		int index = indexOfHold( keyCode );
+		_holdCount--;
+		_holdKeys[ index ] = _holdKeys[ _holdCount ];
+		_holdFrames[ index ] = _holdFrames[ _holdCount ];
+	}
+	
+	/**
+	 * 押下中のキーの要素番号を取得する。
+	 * 
+	 * @param keyCode キーコード
+	 * @return 要素番号(押下中でない場合は-1)
+	 */
+	private int indexOfHold( int keyCode ) {
+		
+		for ( int i = 0; i < _holdCount; i++ ) {
+			if ( _holdKeys[ i ] == keyCode ) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * 引数のキーが押下されたか判定する。
+	 * 
+	 * @param keyCode キーコード
+	 * @return true:押下された、false:押下されていない
+	 */
+	public boolean isPressKey( int keyCode ) {
+		
+		for ( int i = 0; i < _pressCount; i++ ) {
+			if ( _pressKeys[ i ] == keyCode ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * 引数のキーが解除されたか判定する。
+	 * 
+	 * @param keyCode キーコード
+	 * @return true:解除された、false:解除されていない
+	 */
+	public boolean isReleaseKey( int keyCode ) {
+		
+		for ( int i = 0; i < _releaseCount; i++ ) {
+			if ( _releaseKeys[ i ] == keyCode ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * 引数のキーが押下中か判定する。
+	 * 
+	 * @param keyCode キーコード
+	 * @return true:押下中、false:押下されていない
+	 */
+	public boolean isHoldKey( int keyCode ) {
+		
+		if ( keyCode < 0 || keyCode >= MAX_KEY_CODE ) {
+			return false;
+		}
+		
+		return ( _holdBits[ keyCode >>> 6 ] & ( 1L << keyCode ) ) != 0;
+	}
+	
+	/**
+	 * 引数のキーがリピート入力を含めて入力されたか判定する。<br />
+	 * 
+	 * 押下されたフレームと、押下し続けてリピート開始フレーム数が経過した後のリピート間隔ごとのフレームで入力されたとみなす。
+	 * 
+	 * @param keyCode キーコード
+	 * @return true:入力された、false:入力されていない
+	 */
+	public boolean isRepeatKey( int keyCode ) {
+		
+		if ( isPressKey( keyCode ) ) {
+			return true;
+		}
+		
+		if ( !isHoldKey( keyCode ) ) {
+			return false;
+		}
+		
+		long holdFrames = _frame - _holdFrames[ indexOfHold( keyCode ) ] - repeatDelay;
+		
+		return holdFrames >= 0 && holdFrames % repeatInterval == 0;
+	}
+	
+	/**
+	 * 引数のキーが今回のフレームで押下された時間を取得する。
+	 * 
+	 * @param keyCode キーコード
+	 * @return 発生時間(ナノ秒)、押下されていない場合は-1
+	 */
+	public long getPressTime( int keyCode ) {
+		
+		for ( int i = 0; i < _pressCount; i++ ) {
+			if ( _pressKeys[ i ] == keyCode ) {
+				return _pressTimes[ i ];
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * 配列を2倍の長さに拡張する。
+	 * 
+	 * @param src 拡張元
+	 * @return 拡張後の配列
+	 */
+	private static int[] grow( int[] src ) {
+		int[] dest = new int[ src.length * 2 ];
+		System.arraycopy( src, 0, dest, 0, src.length );
+		return dest;
+	}
+	
+	/**
+	 * 配列を2倍の長さに拡張する。
+	 * 
+	 * @param src 拡張元
+	 * @return 拡張後の配列
+	 */
+	private static long[] grow( long[] src ) {
+		long[] dest = new long[ src.length * 2 ];
+		System.arraycopy( src, 0, dest, 0, src.length );
+		return dest;
+	}
+}
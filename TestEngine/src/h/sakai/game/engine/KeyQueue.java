@@ -0,0 +1,131 @@
+package h.sakai.game.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * キー入力のキュー<br />
+ * 
+ * 入力元スレッド(AWTのイベントスレッド等)が1つ、更新スレッドが1つの前提で、
+ * ロックせずにキーイベントを受け渡すリングバッファ。
+ * 各イベントはキーコード・押下/解除・発生時間(ナノ秒)を保持し、追加・取り出し時にオブジェクトを生成しない。
+ * キューが一杯の場合、追加したイベントは破棄して件数を数える。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class KeyQueue {
+	
+	/** 解除イベントを示すフラグ(キーコードに付加する) */
+	public static final int RELEASE = 0x80000000;
+	
+	/** キュー容量の既定値 */
+	public static final int DEFAULT_CAPACITY = 256;
+	
+	/** 要素番号のマスク */
+	private final int _mask;
+	
+	/** キーコード(解除イベントはRELEASEを付加) */
+	private final int[] _codes;
+	
+	/** 発生時間 */
+	private final long[] _times;
+	
+	/** 次に取り出す位置(取り出しスレッドのみ更新) */
+	private final AtomicLong _head = new AtomicLong();
+	
+	/** 次に追加する位置(追加スレッドのみ更新) */
+	private final AtomicLong _tail = new AtomicLong();
+	
+	/** 破棄したイベント数 */
+	private volatile long _dropped = 0;
+	
+	/**
+	 * コンストラクタ
+	 */
+	public KeyQueue() {
+		this( DEFAULT_CAPACITY );
+	}
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param capacity キュー容量(2のべき乗に切り上げる)
+	 */
+	public KeyQueue( int capacity ) {
+		
+		int size = Integer.highestOneBit( Math.max( capacity, 2 ) - 1 ) << 1;
+		
+		_mask = size - 1;
+		_codes = new int[ size ];
+		_times = new long[ size ];
+	}
+	
+	/**
+	 * キーイベントを追加する。(追加スレッド用)
+	 * 
+	 * @param keyCode キーコード
+	 * @param isPress true:押下、false:解除
+	 * @param time 発生時間(ナノ秒)
+	 * @return true:追加した、false:キューが一杯のため破棄した
+	 */
+	public boolean offer( int keyCode, boolean isPress, long time ) {
+		
+		long tail = _tail.get();
+		
+		if ( tail - _head.get() > _mask ) {
+			_dropped++;
+			return false;
+		}
+		
+		int index = ( int ) tail & _mask;
+		_codes[ index ] = ( isPress ) ? keyCode : keyCode | RELEASE;
+		_times[ index ] = time;
+		
+		// 書き込んだ内容を取り出しスレッドに公開
+		_tail.lazySet( tail + 1 );
+		
+		return true;
+	}
+	
+	/**
+	 * キーイベントを発生順に取り出す。(取り出しスレッド用)
+	 * 
+	 * @param codes 取り出し先のキーコード(解除イベントはRELEASEを付加)
+	 * @param times 取り出し先の発生時間
+	 * @return 取り出したイベント数(配列の長さまで)
+	 */
+	public int drain( int[] codes, long[] times ) {
+		
+		long head = _head.get();
+		int count = ( int ) Math.min( _tail.get() - head, Math.min( codes.length, times.length ) );
+		
+		for ( int i = 0; i < count; i++ ) {
+			int index = ( int ) ( head + i ) & _mask;
+			codes[ i ] = _codes[ index ];
+			times[ i ] = _times[ index ];
+		}
+		
+		// 取り出した領域を追加スレッドに返却
+		_head.lazySet( head + count );
+		
+		return count;
+	}
+	
+	/**
+	 * キュー容量を取得する。
+	 * 
+	 * @return キュー容量
+	 */
+	public int getCapacity() {
+		return _mask + 1;
+	}
+	
+	/**
+	 * キューが一杯で破棄したイベント数を取得する。
+	 * 
+	 * @return 破棄したイベント数
+	 */
+	public long getDroppedCount() {
+		return _dropped;
+	}
+}
@@ -0,0 +1,211 @@
+package h.sakai.game.engine;
+
+/**
+ * 処理時間の分布を記録する固定バケットのヒストグラム<br />
+ * 
+ * 1オクターブ(2倍)ごとに8分割したバケットへナノ秒単位の値を記録する。
+ * 誤差は最大12.5%程度で、記録時にオブジェクトを生成しない。
+ * 書き込みは単一スレッドから行い、他スレッドからの参照値は近似値として扱う。
+ * リセット要求は書き込みスレッドの次回記録時に反映する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+	
+	/** 1オクターブの分割ビット数 */
+	private static final int SUB_BUCKET_BITS = 3;
+	
+	/** 1オクターブの分割数 */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	
+	/** バケット数 */
+	private static final int BUCKET_COUNT = ( 64 - SUB_BUCKET_BITS + 1 ) * SUB_BUCKET_COUNT;
+	
+	/** ヒストグラム名 */
+	private final String _name;
+	
+	/** バケットごとの件数 */
+	private final long[] _buckets = new long[ BUCKET_COUNT ];
+	
+	/** 記録件数 */
+	private volatile long _count = 0;
+	
+	/** 合計値 */
+	private long _total = 0;
+	
+	/** 最大値 */
+	private volatile long _max = 0;
+	
+	/** リセット要求フラグ */
+	private volatile boolean _isResetRequested = false;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name ヒストグラム名
+	 */
+	public LatencyHistogram( String name ) {
+		_name = name;
+	}
+	
+	/**
+	 * 値を記録する。
+	 * 
+	 * @param nanos 処理時間(ナノ秒)
+	 */
+	public void record( long nanos ) {
+		
+		if ( _isResetRequested ) {
+			clear();
+		}
+		
+		if ( nanos < 0 ) {
+			nanos = 0;
+		}
+		
+		_buckets[ toIndex( nanos ) ]++;
+		_total += nanos;
+		if ( nanos > _max ) {
+			_max = nanos;
+		}
+		_count++;
+	}
+	
+	/**
+	 * 値をバケットの要素番号に変換する。
+	 * 
+	 * @param value 値
+	 * @return 要素番号
+	 */
+	private static int toIndex( long value ) {
+		
+		if ( value < SUB_BUCKET_COUNT ) {
+			return ( int ) value;
+		}
+		
+		int exp = 63 - Long.numberOfLeadingZeros( value );
+		int sub = ( int ) ( value >>> ( exp - SUB_BUCKET_BITS ) ) & ( SUB_BUCKET_COUNT - 1 );
+		
+		return ( exp - SUB_BUCKET_BITS + 1 ) * SUB_BUCKET_COUNT + sub;
+	}
+	
+	/**
+	 * バケットの上限値を取得する。
+	 * 
+	 * @param index 要素番号
+	 * @return バケットに含まれる最大の値
+	 */
+	private static long toUpperBound( int index ) {
+		
+		if ( index < SUB_BUCKET_COUNT ) {
+			return index;
+		}
+		
+		int exp = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		long sub = index % SUB_BUCKET_COUNT;
+		
+		return ( ( SUB_BUCKET_COUNT + sub + 1 ) << ( exp - SUB_BUCKET_BITS ) ) - 1;
+	}
+	
+	/**
+	 * 記録内容を消去する。
+	 */
+	private void clear() {
+		
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			_buckets[ i ] = 0;
+		}
+		
+		_total = 0;
+		_max = 0;
+		_count = 0;
+		_isResetRequested = false;
+	}
+	
+	/**
+	 * 指定パーセンタイルの値を取得する。
+	 * 
+	 * @param percentile パーセンタイル(0～100)
+	 * @return 指定パーセンタイルの値(ナノ秒)
+	 */
+	public long getPercentile( double percentile ) {
+		
+		long count = _count;
+		if ( count == 0 ) {
+			return 0;
+		}
+		
+		long target = ( long ) Math.ceil( count * percentile / 100.0 );
+		if ( target < 1 ) {
+			target = 1;
+		}
+		
+		long sum = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			sum += _buckets[ i ];
+			if ( sum >= target ) {
+				return Math.min( toUpperBound( i ), _max );
+			}
+		}
+		
+		return _max;
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#getName()
+	 */
+	@Override
+	public String getName() {
+		return _name;
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#getCount()
+	 */
+	@Override
+	public long getCount() {
+		return _count;
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#getMean()
+	 */
+	@Override
+	public long getMean() {
+		long count = _count;
+		return ( count == 0 ) ? 0 : _total / count;
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#getP50()
+	 */
+	@Override
+	public long getP50() {
+		return getPercentile( 50.0 );
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#getP99()
+	 */
+	@Override
+	public long getP99() {
+		return getPercentile( 99.0 );
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#getMax()
+	 */
+	@Override
+	public long getMax() {
+		return _max;
+	}
+	
+	/**
+	 * @see LatencyHistogramMBean#reset()
+	 */
+	@Override
+	public void reset() {
+		_isResetRequested = true;
+	}
+}
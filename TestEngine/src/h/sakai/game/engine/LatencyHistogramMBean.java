@@ -0,0 +1,59 @@
+package h.sakai.game.engine;
+
+/**
+ * 処理時間ヒストグラムの管理インタフェース<br />
+ * 
+ * 値は全てナノ秒。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface LatencyHistogramMBean {
+	
+	/**
+	 * ヒストグラム名を取得する。
+	 * 
+	 * @return ヒストグラム名
+	 */
+	String getName();
+	
+	/**
+	 * 記録件数を取得する。
+	 * 
+	 * @return 記録件数
+	 */
+	long getCount();
+	
+	/**
+	 * 平均値を取得する。
+	 * 
+	 * @return 平均値
+	 */
+	long getMean();
+	
+	/**
+	 * 中央値を取得する。
+	 * 
+	 * @return 50パーセンタイル値
+	 */
+	long getP50();
+	
+	/**
+	 * 99パーセンタイル値を取得する。
+	 * 
+	 * @return 99パーセンタイル値
+	 */
+	long getP99();
+	
+	/**
+	 * 最大値を取得する。
+	 * 
+	 * @return 最大値
+	 */
+	long getMax();
+	
+	/**
+	 * 記録内容をリセットする。
+	 */
+	void reset();
+}
@@ -0,0 +1,322 @@
+package h.sakai.game.engine;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * ストリーミング再生するBGMクラス<br />
+ * 
+ * WAVファイルをメモリマップし、デコードせずにマップした領域から直接サンプルを読み出して{@link AudioMixer}で再生する。
+ * ファイル全体を読み込む待ちが無いため即座に再生を開始でき、曲の長さによらずヒープの使用量は一定となる。
+ * 
+ * ループ区間はフレーム単位で指定する。指定が無い場合はファイルのsmplチャンクのループ区間、
+ * smplチャンクも無い場合は曲全体をループする。ループの終端から始端へは途切れなく繋げて再生する。
+ * 
+ * 対応する形式は8bitまたは16bitのリニアPCM、モノラルまたはステレオ。
+ * 消音中に作成したBGMはファイルを開かず、再生しても何もしない。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class Music {
+	
+	/** フォーマット：リニアPCM */
+	private static final int FORMAT_PCM = 1;
+	
+	/** フォーマット：拡張形式(サブフォーマットがリニアPCMの場合のみ対応) */
+	private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+	
+	/** smplチャンクのループ数の位置 */
+	private static final int SMPL_LOOP_COUNT_OFFSET = 28;
+	
+	/** smplチャンクの最初のループの始端の位置 */
+	private static final int SMPL_LOOP_START_OFFSET = 44;
+	
+	/** ファイルパス */
+	private final String _path;
+	
+	/** マップしたファイル(開いていない場合はnull) */
+	private MappedByteBuffer _data = null;
+	
+	/** サンプルの開始位置 */
+	private int _dataOffset = 0;
+	
+	/** チャンネル数 */
+	private int _channels = 0;
+	
+	/** 1サンプルのバイト数(1：8bit、2：16bit) */
+	private int _bytesPerSample = 0;
+	
+	/** サンプリング周波数 */
+	private int _sampleRate = 0;
+	
+	/** フレーム数 */
+	private int _frameCount = 0;
+	
+	/** ループの始端のフレーム */
+	private int _loopStart = 0;
+	
+	/** ループの終端のフレーム(このフレームは含まない) */
+	private int _loopEnd = 0;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * ファイルのsmplチャンクのループ区間、無い場合は曲全体をループする。
+	 * 
+	 * @param path WAVファイルパス
+	 */
+	public Music( String path ) {
+		this( path, 0, 0 );
+	}
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 引数のファイルパスのWAVファイルをメモリマップする。
+	 * 
+	 * @param path WAVファイルパス
+	 * @param loopStart ループの始端のフレーム
+	 * @param loopEnd ループの終端のフレーム(このフレームは含まない。0以下の場合はsmplチャンクまたは曲の終わり)
+	 */
+	public Music( String path, int loopStart, int loopEnd ) {
+		
+		_path = path;
+		
+		if ( Sound.isMute() ) {
+			return;
+		}
+		
+		try {
+			open( path );
+		} catch (Exception e) {
+			System.out.println( "BGMの読み込みに失敗しました。:" + path + " " + e.getMessage() );
+			_data = null;
+			return;
+		}
+		
+		// 指定が無い場合はsmplチャンクのループ区間を使用
+		if ( loopEnd > 0 ) {
+			_loopStart = loopStart;
+			_loopEnd = loopEnd;
+		}
+		
+		if ( _loopStart < 0 || _loopEnd > _frameCount || _loopStart >= _loopEnd ) {
+			System.out.println( "BGMのループ区間が不正です。曲全体をループします。:" + _loopStart + "-" + _loopEnd );
+			_loopStart = 0;
+			_loopEnd = _frameCount;
+		}
+	}
+	
+	/**
+	 * WAVファイルをメモリマップし、ヘッダを解析する。
+	 * 
+	 * @param path WAVファイルパス
+	 * @throws Exception 読み込みに失敗した場合、対応していない形式の場合
+	 */
+	private void open( String path ) throws Exception {
+		
+		RandomAccessFile file = new RandomAccessFile( path, "r" );
+		
+		try {
+			FileChannel channel = file.getChannel();
+			
+			if ( channel.size() > Integer.MAX_VALUE ) {
+				throw new IllegalArgumentException( "ファイルサイズが大きすぎます。" );
+			}
+			
+			// マップした領域はファイルを閉じた後も有効
+			MappedByteBuffer data = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+			data.order( ByteOrder.LITTLE_ENDIAN );
+			
+			if ( data.limit() < 12 || data.getInt( 0 ) != fourCc( "RIFF" ) || data.getInt( 8 ) != fourCc( "WAVE" ) ) {
+				throw new IllegalArgumentException( "WAVファイルではありません。" );
+			}
+			
+			int dataSize = -1;
+			int bits = 0;
+			
+			for ( int pos = 12; pos + 8 <= data.limit(); ) {
+				
+				int id = data.getInt( pos );
+				int size = data.getInt( pos + 4 );
+				int body = pos + 8;
+				
+				if ( size < 0 || body + size > data.limit() ) {
+					// 終端が切れているデータチャンクはファイルの終わりまでを使用する
+					size = data.limit() - body;
+				}
+				
+				if ( id == fourCc( "fmt " ) ) {
+					
+					int format = data.getShort( body ) & 0xFFFF;
+					_channels = data.getShort( body + 2 );
+					_sampleRate = data.getInt( body + 4 );
+					bits = data.getShort( body + 14 );
+					
+					if ( format == FORMAT_EXTENSIBLE ) {
+						format = data.getShort( body + 24 ) & 0xFFFF;
+					}
+					if ( format != FORMAT_PCM ) {
+						throw new IllegalArgumentException( "リニアPCM以外の形式には対応していません。:" + format );
+					}
+					
+				} else if ( id == fourCc( "data" ) ) {
+					
+					_dataOffset = body;
+					dataSize = size;
+					
+				} else if ( id == fourCc( "smpl" ) && size >= SMPL_LOOP_START_OFFSET + 8
+						&& data.getInt( body + SMPL_LOOP_COUNT_OFFSET ) > 0 ) {
+					
+					// 終端のフレームはループに含まれる
+					_loopStart = data.getInt( body + SMPL_LOOP_START_OFFSET );
+					_loopEnd = data.getInt( body + SMPL_LOOP_START_OFFSET + 4 ) + 1;
+				}
+				
+				// チャンクは偶数バイト境界に揃える
+				pos = body + size + ( size & 1 );
+			}
+			
+			if ( dataSize < 0 || _sampleRate <= 0 ) {
+				throw new IllegalArgumentException( "fmtチャンクまたはdataチャンクがありません。" );
+			}
+			if ( ( _channels != 1 && _channels != 2 ) || ( bits != 8 && bits != 16 ) ) {
+				throw new IllegalArgumentException( "8bitまたは16bitのモノラル・ステレオ以外には対応していません。" );
+			}
+			
+			_bytesPerSample = bits / 8;
+			_frameCount = dataSize / ( _bytesPerSample * _channels );
+			
+			if ( _loopEnd == 0 ) {
+				_loopEnd = _frameCount;
+			}
+			
+			_data = data;
+			
+		} finally {
+			file.close();
+		}
+	}
+	
+	/**
+	 * 再生を開始する。<br />
+	 * 
+	 * 他のBGMを再生中の場合はフェード時間でクロスフェードする。
+	 * 同じBGMを再生中の場合は何もしない。
+	 * 
+	 * @param fadeMillis フェードイン時間(ミリ秒)
+	 */
+	public void play( int fadeMillis ) {
+		if ( _data != null ) {
+			AudioMixer.getInstance().playMusic( this, fadeMillis );
+		}
+	}
+	
+	/**
+	 * 再生を停止する。
+	 * 
+	 * @param fadeMillis フェードアウト時間(ミリ秒)
+	 */
+	public void stop( int fadeMillis ) {
+		if ( _data != null ) {
+			AudioMixer.getInstance().stopMusic( this, fadeMillis );
+		}
+	}
+	
+	/**
+	 * 再生を停止してファイルのマップを手放す。<br />
+	 * 
+	 * 破棄後は再生しても何もしない。
+	 */
+	public void close() {
+		stop( 0 );
+		_data = null;
+	}
+	
+	/**
+	 * ファイルパスを取得する。
+	 * 
+	 * @return ファイルパス
+	 */
+	public String getPath() {
+		return _path;
+	}
+	
+	/**
+	 * チャンネル数を取得する。
+	 * 
+	 * @return チャンネル数(開いていない場合は0)
+	 */
+	public int getChannels() {
+		return _channels;
+	}
+	
+	/**
+	 * サンプリング周波数を取得する。
+	 * 
+	 * @return サンプリング周波数(開いていない場合は0)
+	 */
+	public int getSampleRate() {
+		return _sampleRate;
+	}
+	
+	/**
+	 * フレーム数を取得する。
+	 * 
+	 * @return フレーム数(開いていない場合は0)
+	 */
+	public int getFrameCount() {
+		return _frameCount;
+	}
+	
+	/**
+	 * ループの始端のフレームを取得する。
+	 * 
+	 * @return フレーム
+	 */
+	public int getLoopStart() {
+		return _loopStart;
+	}
+	
+	/**
+	 * ループの終端のフレームを取得する。
+	 * 
+	 * @return フレーム(このフレームは含まない)
+	 */
+	public int getLoopEnd() {
+		return _loopEnd;
+	}
+	
+	/**
+	 * マップした領域からサンプルを16bit符号付きで読み出す。<br />
+	 * 
+	 * 合成スレッドから呼び出す。8bitのサンプルは16bitに拡張する。
+	 * 
+	 * @param frame フレーム
+	 * @param channel チャンネル(モノラルの場合は0)
+	 * @return サンプル
+	 */
+	protected int getSample( int frame, int channel ) {
+		
+		int index = _dataOffset + ( frame * _channels + channel ) * _bytesPerSample;
+		
+		if ( _bytesPerSample == 2 ) {
+			return _data.getShort( index );
+		}
+		
+		return ( ( _data.get( index ) & 0xFF ) - 128 ) << 8;
+	}
+	
+	/**
+	 * 4文字のチャンクIDをリトルエンディアンで読み出した値に変換する。
+	 * 
+	 * @param id チャンクID
+	 * @return 値
+	 */
+	private static int fourCc( String id ) {
+		return id.charAt( 0 ) | ( id.charAt( 1 ) << 8 ) | ( id.charAt( 2 ) << 16 ) | ( id.charAt( 3 ) << 24 );
+	}
+}
@@ -0,0 +1,127 @@
+package h.sakai.game.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * デコード済みの音声データクラス<br />
+ * 
+ * サウンドファイルを1度だけ16bit符号付きのPCMに変換して保持する。
+ * 保持するサンプルは再生中に変更しないため、複数のボイスで同時に共有できる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class PcmData {
+	
+	/** サンプル(チャンネル順に交互に格納) */
+	private final short[] _samples;
+	
+	/** チャンネル数(1：モノラル、2：ステレオ) */
+	private final int _channels;
+	
+	/** サンプリング周波数 */
+	private final int _sampleRate;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param samples サンプル(チャンネル順に交互に格納)
+	 * @param channels チャンネル数(1：モノラル、2：ステレオ)
+	 * @param sampleRate サンプリング周波数
+	 */
+	public PcmData( short[] samples, int channels, int sampleRate ) {
+		
+		if ( channels != 1 && channels != 2 ) {
+			throw new IllegalArgumentException( "チャンネル数は1または2を指定してください。:" + channels );
+		}
+		if ( sampleRate <= 0 ) {
+			throw new IllegalArgumentException( "サンプリング周波数は1以上を指定してください。:" + sampleRate );
+		}
+		
+		_samples = samples;
+		_channels = channels;
+		_sampleRate = sampleRate;
+	}
+	
+	/**
+	 * サウンドファイルを読み込み、16bit符号付きのPCMに変換する。<br />
+	 * 
+	 * サンプリング周波数とチャンネル数は元のファイルのまま変換しない。
+	 * 
+	 * @param path サウンドファイルパス
+	 * @return 音声データ
+	 * @throws Exception 読み込みまたは変換に失敗した場合
+	 */
+	public static PcmData load( String path ) throws Exception {
+		
+		AudioInputStream source = AudioSystem.getAudioInputStream( new File( path ) );
+		
+		try {
+			AudioFormat format = source.getFormat();
+			AudioFormat pcmFormat = new AudioFormat( AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+					format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false );
+			
+			AudioInputStream pcm = AudioSystem.getAudioInputStream( pcmFormat, source );
+			
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[ 8192 ];
+			for ( int len; ( len = pcm.read( buffer ) ) > 0; ) {
+				bytes.write( buffer, 0, len );
+			}
+			
+			byte[] data = bytes.toByteArray();
+			short[] samples = new short[ data.length / 2 ];
+			for ( int i = 0; i < samples.length; i++ ) {
+				samples[ i ] = ( short ) ( ( data[ i * 2 ] & 0xFF ) | ( data[ i * 2 + 1 ] << 8 ) );
+			}
+			
+			return new PcmData( samples, format.getChannels(), Math.round( format.getSampleRate() ) );
+			
+		} finally {
+			source.close();
+		}
+	}
+	
+	/**
+	 * サンプルを取得する。<br />
+	 * 
+	 * 返却する配列の内容を変更してはならない。
+	 * 
+	 * @return サンプル(チャンネル順に交互に格納)
+	 */
+	public short[] getSamples() {
+		return _samples;
+	}
+	
+	/**
+	 * チャンネル数を取得する。
+	 * 
+	 * @return チャンネル数
+	 */
+	public int getChannels() {
+		return _channels;
+	}
+	
+	/**
+	 * サンプリング周波数を取得する。
+	 * 
+	 * @return サンプリング周波数
+	 */
+	public int getSampleRate() {
+		return _sampleRate;
+	}
+	
+	/**
+	 * フレーム数(チャンネルをまとめた1サンプルを1フレームとした数)を取得する。
+	 * 
+	 * @return フレーム数
+	 */
+	public int getFrameCount() {
+		return _samples.length / _channels;
+	}
+}
@@ -0,0 +1,163 @@
+package h.sakai.game.engine;
+
+import java.util.Arrays;
+
+/**
+ * 座標の配列クラス<br />
+ * 
+ * 座標をx, yの順にintの配列へ詰めて保持する。座標ごとのオブジェクトや数値のボクシングを伴わないため、
+ * フレームごとの座標の更新・描画ループでの参照でオブジェクトを生成しない。
+ * 容量を超えて追加した場合のみ配列を拡張するため、初期化時に必要な容量を指定すること。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class PointBuffer {
+	
+	/** 座標(x0, y0, x1, y1, ...の順) */
+	private int[] _coords;
+	
+	/** 座標数 */
+	private int _size = 0;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param capacity 初期容量(座標数)
+	 */
+	public PointBuffer( int capacity ) {
+		_coords = new int[ Math.max( capacity, 1 ) * 2 ];
+	}
+	
+	/**
+	 * 座標を末尾に追加する。
+	 * 
+	 * @param x X座標
+	 * @param y Y座標
+	 */
+	public void add( int x, int y ) {
+		
+		if ( _size * 2 == _coords.length ) {
+			_coords = Arrays.copyOf( _coords, _coords.length * 2 );
+		}
+		
+		_coords[ _size * 2 ] = x;
+		_coords[ _size * 2 + 1 ] = y;
+		_size++;
+	}
+	
+	/**
+	 * 座標を設定する。
+	 * 
+	 * @param index 座標の番号
+	 * @param x X座標
+	 * @param y Y座標
+	 */
+	public void set( int index, int x, int y ) {
+		checkIndex( index );
+		_coords[ index * 2 ] = x;
+		_coords[ index * 2 + 1 ] = y;
+	}
+	
+	/**
+	 * X座標のみを設定する。
+	 * 
+	 * @param index 座標の番号
+	 * @param x X座標
+	 */
+	public void setX( int index, int x ) {
+		checkIndex( index );
+		_coords[ index * 2 ] = x;
+	}
+	
+	/**
+	 * X座標を取得する。
+	 * 
+	 * @param index 座標の番号
+	 * @return X座標
+	 */
+	public int getX( int index ) {
+		checkIndex( index );
+		return _coords[ index * 2 ];
+	}
+	
+	/**
+	 * Y座標を取得する。
+	 * 
+	 * @param index 座標の番号
+	 * @return Y座標
+	 */
+	public int getY( int index ) {
+		checkIndex( index );
+		return _coords[ index * 2 + 1 ];
+	}
+	
+	/**
+	 * 座標数を取得する。
+	 * 
+	 * @return 座標数
+	 */
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * 全ての座標を取り除く。容量は変えない。
+	 */
+	public void clear() {
+		_size = 0;
+	}
+	
+	/**
+	 * 末尾の座標を取り除く。
+	 */
+	public void removeLast() {
+		
+		if ( _size == 0 ) {
+			throw new IllegalStateException( "座標がありません。" );
+		}
+		
+		_size--;
+	}
+	
+	/**
+	 * 他の配列の座標を全て書き写す。<br />
+	 * 
+	 * 容量が足りている場合は配列を作り直さない。
+	 * 
+	 * @param source 書き写し元
+	 */
+	public void copyFrom( PointBuffer source ) {
+		
+		if ( _coords.length < source._size * 2 ) {
+			_coords = new int[ source._coords.length ];
+		}
+		
+		System.arraycopy( source._coords, 0, _coords, 0, source._size * 2 );
+		_size = source._size;
+	}
+	
+	/**
+	 * 座標を詰めた配列を取得する。<br />
+	 * 
+	 * 番号iの座標は添字(i × 2)にX座標、(i × 2 + 1)にY座標を格納している。
+	 * 有効な範囲は{@link #size()} × 2まで。描画ループでまとめて参照する場合に使用し、書き換えないこと。
+	 * 追加で容量が拡張されると別の配列になるため、参照を保持しないこと。
+	 * 
+	 * @return 座標
+	 */
+	public int[] getCoords() {
+		return _coords;
+	}
+	
+	/**
+	 * 座標の番号が範囲内か確認する。
+	 * 
+	 * @param index 座標の番号
+	 */
+	private void checkIndex( int index ) {
+		if ( index < 0 || index >= _size ) {
+			throw new IndexOutOfBoundsException( "座標の番号が範囲外です。:" + index );
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package h.sakai.game.engine;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * 記録したキー入力の再生クラス<br />
+ * 
+ * {@link InputRecorder}で記録したファイルを読み込み、記録時と同じフレーム番号でキーイベントを供給する。
+ * 再生時は記録時の乱数の種を{@link GameRandom}に設定してからシーンを起動すること。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class ReplayInput implements InputSource {
+	
+	/** 乱数の種 */
+	private final long _seed;
+	
+	/** 総フレーム数 */
+	private final long _frameCount;
+	
+	/** イベントのフレーム番号 */
+	private final long[] _frames;
+	
+	/** イベントのキーコード(解除イベントは{@link KeyQueue#RELEASE}を付加) */
+	private final int[] _codes;
+	
+	/** 次に供給するイベントの要素番号 */
+	private int _index = 0;
+	
+	/** キーイベントのキュー */
+	private final KeyQueue _keyQueue = new KeyQueue();
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param seed 乱数の種
+	 * @param frameCount 総フレーム数
+	 * @param frames イベントのフレーム番号
+	 * @param codes イベントのキーコード
+	 */
+	private ReplayInput( long seed, long frameCount, long[] frames, int[] codes ) {
+		_seed = seed;
+		_frameCount = frameCount;
+		_frames = frames;
+		_codes = codes;
+	}
+	
+	/**
+	 * 記録ファイルを読み込む。
+	 * 
+	 * @param path 記録ファイルパス
+	 * @return 再生入力
+	 * @throws IOException 読み込みに失敗した場合、または形式が不正な場合
+	 */
+	public static ReplayInput load( String path ) throws IOException {
+		
+		ByteBuffer buffer = null;
+		FileChannel channel = new FileInputStream( path ).getChannel();
+		
+		try {
+			
+			buffer = ByteBuffer.allocate( ( int ) channel.size() );
+			
+			while ( buffer.hasRemaining() && channel.read( buffer ) >= 0 ) {
+				// 全て読み込むまで繰り返す
+			}
+			
+		} finally {
+			channel.close();
+		}
+		
+		buffer.flip();
+		buffer.order( ByteOrder.LITTLE_ENDIAN );
+		
+		try {
+			
+			if ( buffer.getInt() != InputRecorder.MAGIC || buffer.getInt() != InputRecorder.VERSION ) {
+				throw new IOException( path + " 記録ファイルの形式が不正です。" );
+			}
+			
+			long seed = buffer.getLong();
+			
+			// イベント数は残りバイト数の半分以下
+			long[] frames = new long[ buffer.remaining() / 2 ];
+			int[] codes = new int[ frames.length ];
+			int count = 0;
+			long frame = 0;
+			
+			while ( true ) {
+				
+				long value = getVarLong( buffer );
+				
+				// 終端の場合は総フレーム数が続く
+				if ( value == 0 ) {
+					return new ReplayInput( seed, getVarLong( buffer ), trim( frames, count ), trim( codes, count ) );
+				}
+				
+				value--;
+				frame += getVarLong( buffer );
+				
+				int keyCode = ( int ) ( value >>> 1 );
+				frames[ count ] = frame;
+				codes[ count ] = ( ( value & 1 ) != 0 ) ? keyCode | KeyQueue.RELEASE : keyCode;
+				count++;
+			}
+			
+		} catch (BufferUnderflowException e) {
+			throw new IOException( path + " 記録ファイルが途中で終わっています。" );
+		}
+	}
+	
+	/**
+	 * 可変長の数値を読み込む。
+	 * 
+	 * @param buffer 読み込み元
+	 * @return 数値
+	 */
+	private static long getVarLong( ByteBuffer buffer ) {
+		
+		long value = 0;
+		int shift = 0;
+		byte b;
+		
+		do {
+			b = buffer.get();
+			value |= ( long ) ( b & 0x7F ) << shift;
+			shift += 7;
+		} while ( ( b & 0x80 ) != 0 );
+		
+		return value;
+	}
+	
+	/**
+	 * 配列を指定の長さに切り詰める。
+	 * 
+	 * @param src 切り詰め元
+	 * @param length 長さ
+	 * @return 切り詰めた配列
+	 */
+	private static long[] trim( long[] src, int length ) {
+		long[] dest = new long[ length ];
+		System.arraycopy( src, 0, dest, 0, length );
+		return dest;
+	}
+	
+	/**
+	 * 配列を指定の長さに切り詰める。
+	 * 
+	 * @param src 切り詰め元
+	 * @param length 長さ
+	 * @return 切り詰めた配列
+	 */
+	private static int[] trim( int[] src, int length ) {
+		int[] dest = new int[ length ];
+		System.arraycopy( src, 0, dest, 0, length );
+		return dest;
+	}
+	
+	/**
+	 * 記録時の乱数の種を取得する。
+	 * 
+	 * @return 乱数の種
+	 */
+	public long getSeed() {
+		return _seed;
+	}
+	
+	/**
+	 * 記録時の総フレーム数を取得する。
+	 * 
+	 * @return 総フレーム数
+	 */
+	public long getFrameCount() {
+		return _frameCount;
+	}
+	
+	/**
+	 * 記録されたイベント数を取得する。
+	 * 
+	 * @return イベント数
+	 */
+	public int getEventCount() {
+		return _codes.length;
+	}
+	
+	/**
+	 * @see InputSource#poll(long)
+	 */
+	@Override
+	public void poll( long frame ) {
+		
+		long time = System.nanoTime();
+		
+		while ( _index < _frames.length && _frames[ _index ] <= frame ) {
+			
+			int code = _codes[ _index++ ];
+			
+			_keyQueue.offer( code & ~KeyQueue.RELEASE, ( code & KeyQueue.RELEASE ) == 0, time );
+		}
+	}
+	
+	/**
+	 * @see InputSource#getKeyQueue()
+	 */
+	@Override
+	public KeyQueue getKeyQueue() {
+		return _keyQueue;
+	}
+}
@@ -1,86 +1,239 @@
-package h.sakai.game.engine;
-
-import java.util.Stack;
-
-/**
- * シーンの管理クラス
- * 
- * @author H.Sakai
- * @version V1.00 2012/12/31 H.Sakai 新規作成
- */
-public final class SceneDirector {
-	
-	/** シーンのスタック */
-	private static Stack<Scene> sceneStack = new Stack<Scene>();
-	
-	/**
-	 * 引数のシーン以外を全て破棄し、引数のシーンをトップシーンとして起動する。
-	 * 
-	 * @param scene シーンクラス
-	 */
-	protected static void runScene( Scene scene ) {
-		
-		// シーンのスタックが全て無くなるまで破棄処理
-		while ( sceneStack.size() > 0 ) {
-			Scene pastScene = sceneStack.pop();
-			pastScene.dispose();
-		}
-		
-		pushScene( scene );
-	}
-	
-	/**
-	 * 一番手前のシーンを破棄し、そこに新たなシーンを挿入する。
-	 * 
-	 * @param scene シーンクラス
-	 */
-	protected static void replaceScene( Scene scene ) {
-		Scene topScene = sceneStack.pop();
-		topScene.dispose();
-		pushScene( scene );
-	}
-	
-	/**
-	 * シーンを挿入する。
-	 * 
-	 * @param scene シーンクラス
-	 */
-	protected static void pushScene( Scene scene ) {
-		
-		sceneStack.push( scene );
-		
-		scene.processInitialize();
-		scene.processBegin();
-	}
-	
-	/**
-	 * トップシーンを破棄し、一つ前のシーンを再開する。
-	 */
-	protected static void returnScene() {
-		
-		Scene topScene = sceneStack.pop();
-		topScene.dispose();
-		
-		Scene backScene = sceneStack.get( sceneStack.size() - 1 );
-		backScene.processBegin();
-	}
-	
-	/**
-	 * 実行中のシーン数を取得する。
-	 * 
-	 * @return シーン数
-	 */
-	protected static int getLength() {
-		return sceneStack.size();
-	}
-	
-	/**
-	 * 指定インデックスのシーンを取得する。
-	 * 
-	 * @param index 要素番号
-	 * @return シーンクラス
-	 */
-	protected static Scene getScene( int index ) {
-		return sceneStack.get( index );
-	}
-}
+package h.sakai.game.engine;
+
+/**
+ * シーンの管理クラス<br />
+ * 
+ * シーンのスタックは配列で保持し、変更のたびに新しい配列を公開する。
+ * 公開した配列は以後変更しないため、更新スレッド・描画スレッドともロックせずに走査できる。
+ * シーン内から要求された遷移は予約しておき、フレーム更新の終了時にまとめて反映する。
+ * 反映後に参照の無くなった素材を破棄するため、前後のシーンで共通の素材は読み込み直さずに引き継ぐ。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2012/12/31 H.Sakai 新規作成
+ */
+public final class SceneDirector {
+	
+	/** 遷移種別：全シーンを破棄して起動 */
+	protected static final byte TRANSITION_RUN     = 1;
+	
+	/** 遷移種別：トップシーンと入れ替え */
+	protected static final byte TRANSITION_REPLACE = 2;
+	
+	/** 遷移種別：サブシーンとして挿入 */
+	protected static final byte TRANSITION_PUSH    = 3;
+	
+	/** 遷移種別：一つ前のシーンに戻る */
+	protected static final byte TRANSITION_RETURN  = 4;
+	
+	/** 空のスタック */
+	private static final Scene[] EMPTY = new Scene[ 0 ];
+	
+	/** 予約できる遷移数の初期値 */
+	private static final int INITIAL_RESERVE_SIZE = 4;
+	
+	/** シーンのスタック(公開後は変更しない) */
+	private static volatile Scene[] sceneStack = EMPTY;
+	
+	/** 予約された遷移種別 */
+	private static byte[] reservedTypes = new byte[ INITIAL_RESERVE_SIZE ];
+	
+	/** 予約された遷移先シーン */
+	private static Scene[] reservedScenes = new Scene[ INITIAL_RESERVE_SIZE ];
+	
+	/** 予約された遷移数 */
+	private static int reservedCount = 0;
+	
+	/**
+	 * 引数のシーン以外を全て破棄し、引数のシーンをトップシーンとして起動する。
+	 * 
+	 * @param scene シーンクラス
+	 */
+	protected static void runScene( Scene scene ) {
+		
+		Scene[] scenes = sceneStack;
+		
+		// 公開中のスタックを空にしてから、手前のシーンから順に破棄
+		sceneStack = EMPTY;
+		
+		for ( int i = scenes.length - 1; i >= 0; i-- ) {
+			scenes[ i ].dispose();
+		}
+		
+		pushScene( scene );
+	}
+	
+	/**
+	 * 一番手前のシーンを破棄し、そこに新たなシーンを挿入する。
+	 * 
+	 * @param scene シーンクラス
+	 */
+	protected static void replaceScene( Scene scene ) {
+		
+		Scene[] scenes = sceneStack;
+		
+		if ( scenes.length == 0 ) {
+			pushScene( scene );
+			return;
+		}
+		
+		Scene topScene = scenes[ scenes.length - 1 ];
+		
+		Scene[] next = scenes.clone();
+		next[ next.length - 1 ] = scene;
+		
+		scene.processInitialize();
+		scene.processBegin();
+		
+		sceneStack = next;
+		
+		topScene.dispose();
+	}
+	
+	/**
+	 * シーンを挿入する。
+	 * 
+	 * @param scene シーンクラス
+	 */
+	protected static void pushScene( Scene scene ) {
+		
+		Scene[] scenes = sceneStack;
+		
+		Scene[] next = new Scene[ scenes.length + 1 ];
+		System.arraycopy( scenes, 0, next, 0, scenes.length );
+		next[ scenes.length ] = scene;
+		
+		// 初期化が完了してから公開する
+		scene.processInitialize();
+		scene.processBegin();
+		
+		sceneStack = next;
+	}
+	
+	/**
+	 * トップシーンを破棄し、一つ前のシーンを再開する。<br />
+	 * 
+	 * 戻り先のシーンが無い場合は何もしない。
+	 */
+	protected static void returnScene() {
+		
+		Scene[] scenes = sceneStack;
+		
+		if ( scenes.length < 2 ) {
+			return;
+		}
+		
+		Scene topScene = scenes[ scenes.length - 1 ];
+		
+		Scene[] next = new Scene[ scenes.length - 1 ];
+		System.arraycopy( scenes, 0, next, 0, next.length );
+		
+		sceneStack = next;
+		
+		topScene.dispose();
+		
+		Scene backScene = next[ next.length - 1 ];
+		backScene.processBegin();
+	}
+	
+	/**
+	 * シーンの遷移を予約する。<br />
+	 * 
+	 * 予約した遷移は{@link #commit()}の呼び出し時に予約順に反映する。
+	 * 
+	 * @param type 遷移種別
+	 * @param scene 遷移先シーン(戻る場合はnull)
+	 */
+	protected static void reserve( byte type, Scene scene ) {
+		
+		if ( reservedCount == reservedTypes.length ) {
+			
+			byte[] types = new byte[ reservedCount * 2 ];
+			Scene[] scenes = new Scene[ reservedCount * 2 ];
+			
+			System.arraycopy( reservedTypes, 0, types, 0, reservedCount );
+			System.arraycopy( reservedScenes, 0, scenes, 0, reservedCount );
+			
+			reservedTypes = types;
+			reservedScenes = scenes;
+		}
+		
+		reservedTypes[ reservedCount ] = type;
+		reservedScenes[ reservedCount ] = scene;
+		reservedCount++;
+	}
+	
+	/**
+	 * 予約されたシーンの遷移を反映する。<br />
+	 * 
+	 * フレーム更新の終了時に更新スレッドから呼び出す。
+	 */
+	protected static void commit() {
+		
+		// 遷移処理中の予約は次回に反映する
+		int count = reservedCount;
+		
+		for ( int i = 0; i < count; i++ ) {
+			
+			Scene scene = reservedScenes[ i ];
+			reservedScenes[ i ] = null;
+			
+			switch ( reservedTypes[ i ] ) {
+				
+				case TRANSITION_RUN:
+					runScene( scene );
+					break;
+				
+				case TRANSITION_REPLACE:
+					replaceScene( scene );
+					break;
+				
+				case TRANSITION_PUSH:
+					pushScene( scene );
+					break;
+				
+				case TRANSITION_RETURN:
+					returnScene();
+					break;
+			}
+		}
+		
+		int rest = reservedCount - count;
+		
+		if ( rest > 0 ) {
+			System.arraycopy( reservedTypes, count, reservedTypes, 0, rest );
+			System.arraycopy( reservedScenes, count, reservedScenes, 0, rest );
+			
+			for ( int i = rest; i < reservedCount; i++ ) {
+				reservedScenes[ i ] = null;
+			}
+		}
+		
+		reservedCount = rest;
+		
+		// 破棄したシーンのみが参照していた素材を破棄する
+		if ( count > 0 ) {
+			AssetManager.getInstance().evictUnused();
+		}
+	}
+	
+	/**
+	 * 実行中のシーンを取得する。<br />
+	 * 
+	 * 返却する配列は変更されないため、取得後はロックせずに走査できる。
+	 * 配列の内容を変更してはならない。
+	 * 
+	 * @return 奥のシーンから順に並べたシーンの配列
+	 */
+	protected static Scene[] getScenes() {
+		return sceneStack;
+	}
+	
+	/**
+	 * 実行中のシーン数を取得する。
+	 * 
+	 * @return シーン数
+	 */
+	protected static int getLength() {
+		return sceneStack.length;
+	}
+}
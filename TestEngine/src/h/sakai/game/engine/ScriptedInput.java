@@ -0,0 +1,239 @@
+package h.sakai.game.engine;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * スクリプトによるキー入力クラス<br />
+ * 
+ * フレーム番号ごとに押下・解除するキーを登録し、ヘッドレス実行時の入力として使用する。
+ * 押下したキーは解除を登録したフレームまで押下中として扱う。
+ * スクリプトファイルは1行に「フレーム番号 press|release キー名」を記述する。
+ * キー名はKeyEventのVK_を除いた名前(ENTER、LEFT等)またはキーコードの数値で指定する。
+ * 「loop フレーム数」を記述した場合は指定フレーム数ごとにスクリプトを繰り返す。
+ * 「#」以降はコメントとして扱う。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class ScriptedInput implements InputSource {
+	
+	/** 入力情報 */
+	private final List< Entry > _entries = new ArrayList< Entry >();
+	
+	/** 繰り返しフレーム数(0の場合は繰り返さない) */
+	private long _loopFrames = 0;
+	
+	/** 次に処理する入力の要素番号 */
+	private int _index = 0;
+	
+	/** 前回処理したフレーム番号 */
+	private long _lastFrame = -1;
+	
+	/** 入力の並び替えが必要か */
+	private boolean _isDirty = false;
+	
+	/** キーイベントのキュー */
+	private final KeyQueue _keyQueue = new KeyQueue();
+	
+	/** 動作：押下 */
+	private static final String ACTION_PRESS = "press";
+	
+	/** 動作：解除 */
+	private static final String ACTION_RELEASE = "release";
+	
+	/** 繰り返し指定 */
+	private static final String LOOP = "loop";
+	
+	/**
+	 * コンストラクタ
+	 */
+	public ScriptedInput() {
+	}
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param loopFrames 繰り返しフレーム数(0の場合は繰り返さない)
+	 */
+	public ScriptedInput( long loopFrames ) {
+		_loopFrames = loopFrames;
+	}
+	
+	/**
+	 * スクリプトファイルを読み込む。
+	 * 
+	 * @param path スクリプトファイルパス
+	 * @return スクリプト入力
+	 * @throws IOException 読み込みに失敗した場合、または書式が不正な場合
+	 */
+	public static ScriptedInput load( String path ) throws IOException {
+		
+		ScriptedInput input = new ScriptedInput();
+		BufferedReader reader = new BufferedReader( new InputStreamReader( new FileInputStream( path ), "UTF-8" ) );
+		
+		try {
+			
+			String line = null;
+			int lineNo = 0;
+			
+			while ( ( line = reader.readLine() ) != null ) {
+				
+				lineNo++;
+				
+				int comment = line.indexOf( '#' );
+				if ( comment >= 0 ) {
+					line = line.substring( 0, comment );
+				}
+				
+				String[] tokens = line.trim().split( "\\s+" );
+				
+				if ( tokens.length == 1 && tokens[0].length() == 0 ) {
+					continue;
+				}
+				
+				try {
+					if ( tokens.length == 2 && LOOP.equals( tokens[0] ) ) {
+						input._loopFrames = Long.parseLong( tokens[1] );
+					} else if ( tokens.length == 3 && ACTION_PRESS.equals( tokens[1] ) ) {
+						input.press( Long.parseLong( tokens[0] ), toKeyCode( tokens[2] ) );
+					} else if ( tokens.length == 3 && ACTION_RELEASE.equals( tokens[1] ) ) {
+						input.release( Long.parseLong( tokens[0] ), toKeyCode( tokens[2] ) );
+					} else {
+						throw new IOException( path + ":" + lineNo + " 書式が不正です。" );
+					}
+				} catch (NumberFormatException e) {
+					throw new IOException( path + ":" + lineNo + " 数値が不正です。" );
+				}
+			}
+			
+		} finally {
+			reader.close();
+		}
+		
+		return input;
+	}
+	
+	/**
+	 * キー名をキーコードに変換する。
+	 * 
+	 * @param name キー名またはキーコード
+	 * @return キーコード
+	 * @throws IOException キー名が存在しない場合
+	 */
+	private static int toKeyCode( String name ) throws IOException {
+		
+		if ( Character.isDigit( name.charAt( 0 ) ) ) {
+			return Integer.parseInt( name );
+		}
+		
+		try {
+			return java.awt.event.KeyEvent.class.getField( "VK_" + name ).getInt( null );
+		} catch (Exception e) {
+			throw new IOException( "キー名が不正です。:" + name );
+		}
+	}
+	
+	/**
+	 * 指定フレームでのキー押下を登録する。
+	 * 
+	 * @param frame フレーム番号
+	 * @param keyCode キーコード
+	 */
+	public void press( long frame, int keyCode ) {
+		_entries.add( new Entry( frame, true, keyCode ) );
+		_isDirty = true;
+	}
+	
+	/**
+	 * 指定フレームでのキー解除を登録する。
+	 * 
+	 * @param frame フレーム番号
+	 * @param keyCode キーコード
+	 */
+	public void release( long frame, int keyCode ) {
+		_entries.add( new Entry( frame, false, keyCode ) );
+		_isDirty = true;
+	}
+	
+	/**
+	 * @see InputSource#poll(long)
+	 */
+	@Override
+	public void poll( long frame ) {
+		
+		if ( _isDirty ) {
+			Collections.sort( _entries, new Comparator< Entry >() {
+				@Override
+				public int compare( Entry e1, Entry e2 ) {
+					return ( e1.frame < e2.frame ) ? -1 : ( ( e1.frame == e2.frame ) ? 0 : 1 );
+				}
+			} );
+			_isDirty = false;
+			_index = 0;
+			_lastFrame = -1;
+		}
+		
+		long scriptFrame = ( _loopFrames > 0 ) ? frame % _loopFrames : frame;
+		
+		// 繰り返しで先頭に戻った場合
+		if ( scriptFrame < _lastFrame ) {
+			_index = 0;
+		}
+		_lastFrame = scriptFrame;
+		
+		// 既に過ぎたフレームの入力は読み飛ばす
+		while ( _index < _entries.size() && _entries.get( _index ).frame < scriptFrame ) {
+			_index++;
+		}
+		
+		long time = System.nanoTime();
+		
+		while ( _index < _entries.size() && _entries.get( _index ).frame == scriptFrame ) {
+			Entry entry = _entries.get( _index++ );
+			_keyQueue.offer( entry.keyCode, entry.isPress, time );
+		}
+	}
+	
+	/**
+	 * @see InputSource#getKeyQueue()
+	 */
+	@Override
+	public KeyQueue getKeyQueue() {
+		return _keyQueue;
+	}
+	
+	/**
+	 * 1件分の入力情報
+	 */
+	private static final class Entry {
+		
+		/** フレーム番号 */
+		private final long frame;
+		
+		/** true:押下、false:解除 */
+		private final boolean isPress;
+		
+		/** キーコード */
+		private final int keyCode;
+		
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param frame フレーム番号
+		 * @param isPress true:押下、false:解除
+		 * @param keyCode キーコード
+		 */
+		private Entry( long frame, boolean isPress, int keyCode ) {
+			this.frame = frame;
+			this.isPress = isPress;
+			this.keyCode = keyCode;
+		}
+	}
+}
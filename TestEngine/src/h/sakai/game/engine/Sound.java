@@ -1,90 +1,141 @@
-package h.sakai.game.engine;
-
-import java.io.File;
-
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.DataLine;
-
-/**
- * サウンドファイルのラップクラス<br>
- * 
- * 再生の一時停止は後日追加予定。
- * 
- * @author H.Sakai
- * @version V1.00 2013/01/02 新規作成
- */
-public class Sound {
-	
-	/** サウンドデータ */
-	private Clip _soundClip = null;
-	
-	/** ループフラグ */
-	private boolean _isLoop = false;
-	
-	/**
-	 * コンストラクタ<br>
-	 * 
-	 * ループ再生せずに初期化
-	 * 
-	 * @param path サウンドファイルパス
-	 */
-	public Sound( String path ) {
-		initialize( path, false );
-	}
-	
-	/**
-	 * コンストラクタ<br />
-	 * 
-	 * 引数のファイルパスのサウンドデータを読み込む。
-	 * 
-	 * @param path サウンドファイルパス
-	 * @param isLoop ループ再生フラグ
-	 */
-	public Sound( String path, boolean isLoop ) {
-		initialize( path, isLoop );
-	}
-	
-	/**
-	 * 初期化処理を実行する。
-	 * 
-	 * @param path サウンドファイルパス
-	 * @param isLoop
-	 */
-	private void initialize( String path, boolean isLoop ) {
-		
-		try {
-			AudioInputStream ais = AudioSystem.getAudioInputStream( new File( path ) );
-			AudioFormat format = ais.getFormat();
-			DataLine.Info info = new DataLine.Info( Clip.class, format );
-			_soundClip = ( Clip ) AudioSystem.getLine( info );
-			_soundClip.open( ais );
-			_isLoop = isLoop;
-			ais.close();
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-	}
-	
-	/**
-	 * サウンドファイルの再生処理を実行する。
-	 */
-	public void play() {
-		if ( _isLoop ) {
-			_soundClip.loop( -1 );
-		} else {
-			
-			_soundClip.start();
-			_soundClip.setFramePosition(0);
-		}
-	}
-	
-	/**
-	 * サウンドファイルの再生を中止する。
-	 */
-	public void stop() {
-		_soundClip.stop();
-	}
-}
+package h.sakai.game.engine;
+
+/**
+ * サウンドファイルのラップクラス<br>
+ * 
+ * 読み込み時に1度だけPCMにデコードし、再生は{@link AudioMixer}のボイスで行う。
+ * 再生ごとに別のボイスを使用するため、連続で再生しても前の再生を途切れさせない。
+ * 再生の一時停止は後日追加予定。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2013/01/02 新規作成
+ */
+public class Sound {
+	
+	/** サウンドデータ */
+	private PcmData _data = null;
+	
+	/** ループフラグ */
+	private boolean _isLoop = false;
+	
+	/** 消音フラグ */
+	private static volatile boolean isMute = false;
+	
+	/**
+	 * コンストラクタ<br>
+	 * 
+	 * ループ再生せずに初期化
+	 * 
+	 * @param path サウンドファイルパス
+	 */
+	public Sound( String path ) {
+		initialize( path, false );
+	}
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 引数のファイルパスのサウンドデータを読み込む。
+	 * 
+	 * @param path サウンドファイルパス
+	 * @param isLoop ループ再生フラグ
+	 */
+	public Sound( String path, boolean isLoop ) {
+		initialize( path, isLoop );
+	}
+	
+	/**
+	 * 初期化処理を実行する。
+	 * 
+	 * @param path サウンドファイルパス
+	 * @param isLoop
+	 */
+	private void initialize( String path, boolean isLoop ) {
+		
+		if ( isMute ) {
+			return;
+		}
+		
+		try {
+			_data = PcmData.load( path );
+			_isLoop = isLoop;
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * サウンドファイルの再生処理を実行する。
+	 */
+	public void play() {
+		play( 1.0f, 1.0f );
+	}
+	
+	/**
+	 * 音量とピッチを指定してサウンドファイルの再生処理を実行する。<br />
+	 * 
+	 * ループ再生の場合は再生中の分を止めてから先頭から再生する。
+	 * 
+	 * @param gain 音量(1.0で元の音量、0～8.0)
+	 * @param pitch ピッチ(1.0で元の速度)
+	 */
+	public void play( float gain, float pitch ) {
+		
+		// 読み込みに失敗した場合は何もしない
+		PcmData data = _data;
+		if ( data == null ) {
+			return;
+		}
+		
+		AudioMixer mixer = AudioMixer.getInstance();
+		
+		if ( _isLoop ) {
+			mixer.stop( data );
+		}
+		
+		mixer.play( data, gain, pitch, _isLoop );
+	}
+	
+	/**
+	 * サウンドファイルの再生を中止する。<br />
+	 * 
+	 * このサウンドを再生中の全てのボイスを停止する。
+	 */
+	public void stop() {
+		
+		PcmData data = _data;
+		if ( data != null ) {
+			AudioMixer.getInstance().stop( data );
+		}
+	}
+	
+	/**
+	 * サウンドデータを破棄する。<br />
+	 * 
+	 * 再生を停止してデコード済みのデータを手放す。破棄後は再生しても何もしない。
+	 */
+	public void close() {
+		stop();
+		_data = null;
+	}
+	
+	/**
+	 * 消音を設定する。<br />
+	 * 
+	 * 消音中に作成したサウンドはファイルを読み込まず、再生しても何もしない。
+	 * 
+	 * @param mute true:消音する、false:消音しない
+	 */
+	public static void setMute( boolean mute ) {
+		isMute = mute;
+	}
+	
+	/**
+	 * 消音中か判定する。
+	 * 
+	 * @return true:消音中
+	 */
+	public static boolean isMute() {
+		return isMute;
+	}
+}
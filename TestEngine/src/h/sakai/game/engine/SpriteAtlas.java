@@ -0,0 +1,246 @@
+package h.sakai.game.engine;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * スプライトアトラスクラス<br />
+ * 
+ * 同じサイズのスプライトを横に並べた画像を読み込み、スプライトごとに画面と同じ形式の画像へ切り出して保持する。
+ * 描画はスプライト番号を指定した拡大縮小なしの転送のみで行い、元画像から範囲を切り出す描画を行わない。
+ * 画面と同じ形式の画像はJava2Dがビデオメモリにキャッシュするため、繰り返しの転送がアクセラレーションされる。
+ * 
+ * スプライトごとに透過の有無を調べ、不透明なスプライトは透過なしの画像に切り出して合成を省く。
+ * ヘッドレスの場合は画面出力と同じRGB形式(透過ありはARGB形式)の画像に切り出す。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class SpriteAtlas implements SpriteAtlasMBean {
+	
+	/** MBeanのドメイン */
+	private static final String DOMAIN = "h.sakai.game.engine";
+	
+	/** アトラス名 */
+	private final String _name;
+	
+	/** スプライトの幅 */
+	private final int _spriteWidth;
+	
+	/** スプライトの高さ */
+	private final int _spriteHeight;
+	
+	/** スプライト番号ごとの画像 */
+	private final BufferedImage[] _sprites;
+	
+	/** 切り出しに使用した画面の設定(ヘッドレスの場合はnull) */
+	private final GraphicsConfiguration _config;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 元画像を左から順にスプライトの幅で切り出し、0から番号を振る。
+	 * 
+	 * @param name アトラス名
+	 * @param source 元画像(読み込み済みであること)
+	 * @param spriteWidth スプライトの幅
+	 * @param spriteHeight スプライトの高さ
+	 */
+	public SpriteAtlas( String name, Image source, int spriteWidth, int spriteHeight ) {
+		
+		int count = source.getWidth( null ) / spriteWidth;
+		
+		if ( count < 1 || source.getHeight( null ) < spriteHeight ) {
+			throw new IllegalArgumentException( "スプライトを切り出せません。:" + name );
+		}
+		
+		_name = name;
+		_spriteWidth = spriteWidth;
+		_spriteHeight = spriteHeight;
+		_sprites = new BufferedImage[ count ];
+		_config = GraphicsEnvironment.isHeadless() ? null
+				: GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		
+		// 透過の有無を調べるため、元画像の画素を取り出せる形式に写す
+		BufferedImage pixels = new BufferedImage( count * spriteWidth, spriteHeight, BufferedImage.TYPE_INT_ARGB );
+		copy( source, pixels, 0 );
+		
+		for ( int i = 0; i < count; i++ ) {
+			
+			int transparency = getTransparency( pixels, i * spriteWidth, spriteWidth, spriteHeight );
+			
+			BufferedImage sprite;
+			if ( _config != null ) {
+				sprite = _config.createCompatibleImage( spriteWidth, spriteHeight, transparency );
+			} else {
+				sprite = new BufferedImage( spriteWidth, spriteHeight,
+						( transparency == Transparency.OPAQUE ) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB );
+			}
+			
+			copy( pixels, sprite, i * spriteWidth );
+			
+			_sprites[ i ] = sprite;
+		}
+	}
+	
+	/**
+	 * 元画像の指定位置から書き写し先のサイズ分を合成せずに書き写す。
+	 * 
+	 * @param source 元画像
+	 * @param dest 書き写し先
+	 * @param x 元画像の左端
+	 */
+	private static void copy( Image source, BufferedImage dest, int x ) {
+		
+		Graphics2D g = dest.createGraphics();
+		
+		try {
+			// 透過部分もそのまま写す
+			g.setComposite( AlphaComposite.Src );
+			g.drawImage( source, 0, 0, dest.getWidth(), dest.getHeight(), x, 0, x + dest.getWidth(), dest.getHeight(), null );
+		} finally {
+			g.dispose();
+		}
+	}
+	
+	/**
+	 * 指定範囲の透過の種類を調べる。
+	 * 
+	 * @param pixels 画素(ARGB形式)
+	 * @param left 範囲の左端
+	 * @param width 範囲の幅
+	 * @param height 範囲の高さ
+	 * @return 透過の種類({@link Transparency}の定数)
+	 */
+	private static int getTransparency( BufferedImage pixels, int left, int width, int height ) {
+		
+		int transparency = Transparency.OPAQUE;
+		
+		for ( int y = 0; y < height; y++ ) {
+			for ( int x = left; x < left + width; x++ ) {
+				
+				int alpha = pixels.getRGB( x, y ) >>> 24;
+				
+				if ( alpha != 0 && alpha != 0xFF ) {
+					return Transparency.TRANSLUCENT;
+				}
+				if ( alpha == 0 ) {
+					transparency = Transparency.BITMASK;
+				}
+			}
+		}
+		
+		return transparency;
+	}
+	
+	/**
+	 * スプライトを描画する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param sprite スプライト番号
+	 * @param x 描画先X座標
+	 * @param y 描画先Y座標
+	 * @param imgObserver 描画監視オブジェクト
+	 */
+	public void draw( Graphics g, int sprite, int x, int y, ImageObserver imgObserver ) {
+		g.drawImage( _sprites[ sprite ], x, y, imgObserver );
+	}
+	
+	/**
+	 * スプライトの画像を取得する。
+	 * 
+	 * @param sprite スプライト番号
+	 * @return 画像(共有のため書き換え不可)
+	 */
+	public Image getSprite( int sprite ) {
+		return _sprites[ sprite ];
+	}
+	
+	/**
+	 * スプライトの幅を取得する。
+	 * 
+	 * @return スプライトの幅
+	 */
+	public int getSpriteWidth() {
+		return _spriteWidth;
+	}
+	
+	/**
+	 * スプライトの高さを取得する。
+	 * 
+	 * @return スプライトの高さ
+	 */
+	public int getSpriteHeight() {
+		return _spriteHeight;
+	}
+	
+	/**
+	 * プラットフォームMBeanサーバーに登録する。<br />
+	 * 
+	 * 同じ名前のアトラスが登録済みの場合は置き換える。登録に失敗しても描画は継続する。
+	 */
+	public void register() {
+		
+		try {
+			
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName( DOMAIN + ":type=SpriteAtlas,name=" + _name );
+			
+			if ( server.isRegistered( objectName ) ) {
+				server.unregisterMBean( objectName );
+			}
+			server.registerMBean( this, objectName );
+			
+		} catch (Exception e) {
+			System.out.println( "スプライトアトラスの登録に失敗しました。" );
+		}
+	}
+	
+	/**
+	 * @see SpriteAtlasMBean#getName()
+	 */
+	@Override
+	public String getName() {
+		return _name;
+	}
+	
+	/**
+	 * @see SpriteAtlasMBean#getSpriteCount()
+	 */
+	@Override
+	public int getSpriteCount() {
+		return _sprites.length;
+	}
+	
+	/**
+	 * @see SpriteAtlasMBean#getAcceleratedCount()
+	 */
+	@Override
+	public int getAcceleratedCount() {
+		
+		if ( _config == null ) {
+			return 0;
+		}
+		
+		int count = 0;
+		
+		for ( int i = 0; i < _sprites.length; i++ ) {
+			if ( _sprites[ i ].getCapabilities( _config ).isAccelerated() ) {
+				count++;
+			}
+		}
+		
+		return count;
+	}
+}
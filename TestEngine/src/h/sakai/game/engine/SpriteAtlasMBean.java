@@ -0,0 +1,35 @@
+package h.sakai.game.engine;
+
+/**
+ * スプライトアトラスの管理インタフェース<br />
+ * 
+ * 切り出したスプライトが描画先の環境でアクセラレーションされているかを公開する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface SpriteAtlasMBean {
+	
+	/**
+	 * アトラス名を取得する。
+	 * 
+	 * @return アトラス名
+	 */
+	String getName();
+	
+	/**
+	 * スプライト数を取得する。
+	 * 
+	 * @return スプライト数
+	 */
+	int getSpriteCount();
+	
+	/**
+	 * 現在アクセラレーションされているスプライト数を取得する。<br />
+	 * 
+	 * 呼び出し時点の状態を調べるため、描画中にアクセラレーションが外れた場合も反映される。
+	 * 
+	 * @return スプライト数(ヘッドレスの場合は0)
+	 */
+	int getAcceleratedCount();
+}
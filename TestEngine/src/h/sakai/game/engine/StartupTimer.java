@@ -0,0 +1,93 @@
+package h.sakai.game.engine;
+
+/**
+ * 起動時間の計測クラス<br />
+ * 
+ * 起動処理の段階ごとに、前の段階の終了からの経過時間を記録する。
+ * 最後の段階を記録した時点で、各段階の時間と合計を1行で出力する。出力後の記録は無視する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class StartupTimer {
+	
+	/** 1ミリ秒のナノ秒数 */
+	private static final long NANOS_PER_MILLI = 1000000L;
+	
+	/** 計測開始時間 */
+	private final long _origin;
+	
+	/** 前の段階の終了時間 */
+	private long _last;
+	
+	/** 記録した段階の時間 */
+	private final StringBuilder _phases = new StringBuilder();
+	
+	/** 出力済みフラグ */
+	private volatile boolean _isFinished = false;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 生成した時点から計測を開始する。
+	 */
+	public StartupTimer() {
+		_origin = System.nanoTime();
+		_last = _origin;
+	}
+	
+	/**
+	 * 段階の終了を記録する。
+	 * 
+	 * @param phase 段階名
+	 */
+	public synchronized void mark( String phase ) {
+		
+		if ( _isFinished ) {
+			return;
+		}
+		
+		long now = System.nanoTime();
+		_phases.append( ' ' ).append( phase ).append( '=' ).append( toMillis( now - _last ) ).append( "ms" );
+		_last = now;
+	}
+	
+	/**
+	 * 最後の段階の終了を記録し、計測結果を出力する。
+	 * 
+	 * @param phase 段階名
+	 */
+	public synchronized void finish( String phase ) {
+		
+		if ( _isFinished ) {
+			return;
+		}
+		
+		mark( phase );
+		_isFinished = true;
+		
+		System.out.println( "startup" + _phases + " total=" + toMillis( _last - _origin ) + "ms" );
+	}
+	
+	/**
+	 * 計測結果を出力済みか判定する。
+	 * 
+	 * @return true:出力済み、false:計測中
+	 */
+	public boolean isFinished() {
+		return _isFinished;
+	}
+	
+	/**
+	 * ナノ秒をミリ秒(小数第1位まで)に変換する。
+	 * 
+	 * @param nanos ナノ秒
+	 * @return ミリ秒
+	 */
+	private static String toMillis( long nanos ) {
+		
+		long tenths = nanos / ( NANOS_PER_MILLI / 10 );
+		
+		return ( tenths / 10 ) + "." + ( tenths % 10 );
+	}
+}
@@ -1,191 +1,538 @@
-package h.sakai.game.engine;
-
-import java.io.File;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
-/**
- * 設定ファイル情報を保持するクラス<br>
- * 
- * <ul>
- * 設定ファイルのリロードはサーブレットを呼び出して下さい。
- * </ul>
- * 
- * @author Bean
- * @version V1.00 2010/06/25 Bean 新規作成
- */
-public final class SystemProperty {
-	
-	/** 過去の更新時間 */
-	private static long lastModified = 0;
-	
-	/** 本クラスのインスタンス */
-	private static SystemProperty instance = null;
-	
-	/** 設定情報 */
-	private static Map<String, List<String>> prop = null;
-	
-	/** 設定ファイルパス */
-	private static final String SYSTEM_PROP_PATH = new File("").getAbsolutePath() + "/conf/SystemProperty.xml";
-	
-	/** propertyタグ */
-	private static final String TAG_PROPERTY = "property";
-	
-	/** valueタグ */
-	private static final String TAG_VALUE = "value";
-	
-	/** id属性 */
-	private static final String ATTR_ID = "id";
-	
-	/**
-	 * コンストラクタ
-	 */
-	private SystemProperty() {
-	}
-	
-	/**
-	 * 本クラスのインスタンスを取得する。
-	 * 
-	 * @return 本クラスのインスタンス
-	 * @throws ParserConfigurationException 
-	 */
-	public static SystemProperty getInstance() throws Exception {
-		
-		synchronized (SystemProperty.class) {
-			if (instance == null) {
-				instance = new SystemProperty();
-				read();
-			}
-		}
-		
-		return instance;
-	}
-	
-	/**
-	 * 設定ファイルの読み込みを実行する。
-	 * @throws ParserConfigurationException 
-	 */
-	public static void read() throws Exception {
-		
-		synchronized (SystemProperty.class) {
-			if (instance == null) {
-				instance = new SystemProperty();
-			}
-		}
-		
-		// Map作成
-		if (prop != null) {
-			prop.clear();
-			prop = null;
-		}
-		
-		prop = new HashMap<String, List<String>>();
-		
-		// ドキュメントビルダーファクトリを生成
-		DocumentBuilderFactory dbfactory = DocumentBuilderFactory.newInstance();
-		DocumentBuilder builder = dbfactory.newDocumentBuilder();
-		
-		// 読み込み時のファイル更新時間を取得
-		File file = new File( SYSTEM_PROP_PATH );
-		lastModified = file.lastModified();
-		
-		// ドキュメント取得
-		Document doc = builder.parse(file);
-		
-		// ルート要素を取得（タグ名：properties）
-		Element root = doc.getDocumentElement();
-		
-		// properties要素のリストを取得
-		NodeList list = root.getElementsByTagName(TAG_PROPERTY);
-		
-		Element element = null;       // properties要素
-		NodeList values = null;       // value要素リスト
-		Element valueElement = null;  // value要素
-		List<String> valueList = null;// value値リスト
-		
-		// properties要素の数だけループ
-		for (int i = 0; i < list.getLength(); i++) {
-			
-			// properties要素を取得
-			element = (Element) list.item(i);
-			
-			valueList = new ArrayList<String>();
-			
-			values = element.getElementsByTagName(TAG_VALUE);
-			
-			for (int j = 0; j < values.getLength(); j++) {
-				valueElement = (Element) values.item(j);
-				if (valueElement.getFirstChild() != null) {
-					valueList.add(valueElement.getFirstChild().getNodeValue());
-				} else {
-					valueList.add(null);
-				}
-			}
-			
-			prop.put(element.getAttribute(ATTR_ID), valueList);
-		}
-		
-		valueList = null;
-	}
-	
-	/**
-	 * ファイルの更新時間を調べ、更新されていたら
-	 * 再読み込みを実行する。
-	 * 
-	 * @throws Exception 全例外
-	 */
-	private void updateFile() throws Exception {
-		
-		// 読み込み時のファイル更新時間を取得
-		File file = new File(SYSTEM_PROP_PATH);
-		
-		if (lastModified != file.lastModified()) {
-			read();
-		}
-	}
-	
-	/**
-	 * 設定ファイルのキーに一致した一つの設定情報を取得する。
-	 * 
-	 * @param propKey キー情報
-	 * @return 設定ファイル情報
-	 * @throws Exception 全例外
-	 */
-	public String getProperty(String propKey) throws Exception {
-		
-		try {
-			updateFile();
-		} catch (Exception e) {
-			throw new Exception();
-		}
-		
-		return prop.get(propKey).get(0);
-	}
-	
-	/**
-	 * 設定ファイルのキーに一致した複数の設定情報を取得する。
-	 * 
-	 * @param propKey キー情報
-	 * @return 設定ファイル情報
-	 * @throws Exception 全例外
-	 */
-	public List<String> getProperties(String propKey) throws Exception {
-		
-		try {
-			updateFile();
-		} catch (Exception e) {
-			throw new Exception();
-		}
-		
-		return prop.get(propKey);
-	}
-}
+package h.sakai.game.engine;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * 設定ファイル情報を保持するクラス<br>
+ * 
+ * <ul>
+ * 設定ファイルは読み込むたびに変更しない設定情報を作成し、volatileの参照で差し替えて公開する。
+ * 取得はロックもファイルの確認もせずに、公開中の設定情報のMapを引くのみとなる。
+ * 数値・真偽値・カンマ区切りのリストは読み込み時に変換しておき、取得のたびに変換しない。
+ * 設定ファイルの変更は監視スレッドがWatchServiceで検知して読み込み直す。
+ * XMLはStAXで読み込み、解析結果をバイナリのキャッシュに書き出す。
+ * 次回以降は設定ファイルのサイズと内容のチェックサムがキャッシュと一致すればキャッシュから読み込み、XMLを解析しない。
+ * 更新日時は同じ値のまま内容が変わる場合(短時間での再保存、更新日時を保つ複写)があるため判定に使用しない。
+ * 読み込みに失敗した場合は前回の設定情報をそのまま使用する。
+ * </ul>
+ * 
+ * @author Bean
+ * @version V1.00 2010/06/25 Bean 新規作成
+ */
+public final class SystemProperty {
+	
+	/** 本クラスのインスタンス */
+	private static final SystemProperty instance = new SystemProperty();
+	
+	/** 公開中の設定情報(読み込み前はnull、公開後は変更しない) */
+	private static volatile Map<String, Value> prop = null;
+	
+	/** 設定ファイルの監視スレッド */
+	private static Thread watchThread = null;
+	
+	/** 設定ファイルパス */
+	private static final String SYSTEM_PROP_PATH = new File("").getAbsolutePath() + "/conf/SystemProperty.xml";
+	
+	/** キャッシュファイルパス */
+	private static final String CACHE_PATH = new File("").getAbsolutePath() + "/conf/SystemProperty.cache";
+	
+	/** キャッシュの識別子("HSCP") */
+	private static final int CACHE_MAGIC = 0x48534350;
+	
+	/** キャッシュの形式のバージョン */
+	private static final int CACHE_VERSION = 2;
+	
+	/** XML読み込みファクトリ(初回の解析時に生成し、以後は使い回す) */
+	private static XMLInputFactory xmlInputFactory = null;
+	
+	/** propertyタグ */
+	private static final String TAG_PROPERTY = "property";
+	
+	/** valueタグ */
+	private static final String TAG_VALUE = "value";
+	
+	/** id属性 */
+	private static final String ATTR_ID = "id";
+	
+	/** 変更を検知してから読み込むまでの待ち時間(ミリ秒、書き込みが完了するのを待つ) */
+	private static final long RELOAD_DELAY_MILLIS = 100;
+	
+	/** リストの区切り文字 */
+	private static final String LIST_SEPARATOR = ",";
+	
+	/**
+	 * コンストラクタ
+	 */
+	private SystemProperty() {
+	}
+	
+	/**
+	 * 本クラスのインスタンスを取得する。<br />
+	 * 
+	 * 初回のみ設定ファイルを読み込み、監視を開始する。
+	 * 
+	 * @return 本クラスのインスタンス
+	 * @throws Exception 初回の読み込みに失敗した場合
+	 */
+	public static SystemProperty getInstance() throws Exception {
+		
+		if (prop == null) {
+			read();
+		}
+		
+		return instance;
+	}
+	
+	/**
+	 * 設定ファイルの読み込みを実行する。<br />
+	 * 
+	 * 読み込みが完了してから設定情報を差し替えるため、読み込み中も前回の設定情報を取得できる。
+	 * 
+	 * @throws Exception 読み込みに失敗した場合
+	 */
+	public static void read() throws Exception {
+		
+		synchronized (SystemProperty.class) {
+			
+			File cache = new File(CACHE_PATH);
+			
+			// 1度だけ読み込んだ内容でチェックサムの計算と解析を行い、キャッシュと内容を必ず一致させる
+			byte[] bytes = Files.readAllBytes(new File(SYSTEM_PROP_PATH).toPath());
+			
+			CRC32 crc = new CRC32();
+			crc.update(bytes, 0, bytes.length);
+			long checksum = crc.getValue();
+			
+			Map<String, Value> map = readCache(cache, bytes.length, checksum);
+			
+			if (map == null) {
+				map = parse(bytes);
+				writeCache(cache, map, bytes.length, checksum);
+			}
+			
+			prop = map;
+			
+			if (watchThread == null) {
+				startWatch();
+			}
+		}
+	}
+	
+	/**
+	 * 設定ファイルをStAXで解析し、変更しない設定情報を作成する。<br />
+	 * 
+	 * property要素のid属性をキー、子のvalue要素の内容を値とする。内容が空のvalue要素の値はnullとする。
+	 * 
+	 * @param bytes 設定ファイルの内容
+	 * @return 設定情報
+	 * @throws Exception 解析に失敗した場合
+	 */
+	private static Map<String, Value> parse(byte[] bytes) throws Exception {
+		
+		if (xmlInputFactory == null) {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			xmlInputFactory = factory;
+		}
+		
+		Map<String, Value> map = new HashMap<String, Value>();
+		
+		InputStream in = new ByteArrayInputStream(bytes);
+		
+		try {
+			XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+			
+			try {
+				String id = null;
+				List<String> valueList = null;
+				StringBuilder text = null;
+				
+				while (reader.hasNext()) {
+					
+					switch (reader.next()) {
+					
+					case XMLStreamConstants.START_ELEMENT:
+						
+						if (TAG_PROPERTY.equals(reader.getLocalName())) {
+							String attr = reader.getAttributeValue(null, ATTR_ID);
+							id = (attr != null) ? attr : "";
+							valueList = new ArrayList<String>();
+						} else if (TAG_VALUE.equals(reader.getLocalName()) && valueList != null) {
+							text = new StringBuilder();
+						}
+						break;
+					
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+						
+						if (text != null) {
+							text.append(reader.getText());
+						}
+						break;
+					
+					case XMLStreamConstants.END_ELEMENT:
+						
+						if (TAG_VALUE.equals(reader.getLocalName()) && text != null) {
+							valueList.add((text.length() > 0) ? text.toString() : null);
+							text = null;
+						} else if (TAG_PROPERTY.equals(reader.getLocalName()) && valueList != null) {
+							map.put(id, new Value(valueList));
+							valueList = null;
+						}
+						break;
+					
+					default:
+						break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} finally {
+			in.close();
+		}
+		
+		return Collections.unmodifiableMap(map);
+	}
+	
+	/**
+	 * キャッシュから設定情報を読み込む。<br />
+	 * 
+	 * キャッシュが無い場合、設定ファイルのサイズ・チェックサムが一致しない場合、形式が異なる場合は読み込まない。
+	 * 
+	 * @param cache キャッシュファイル
+	 * @param length 設定ファイルのサイズ
+	 * @param checksum 設定ファイルの内容のCRC32
+	 * @return 設定情報(読み込まない場合はnull)
+	 */
+	private static Map<String, Value> readCache(File cache, long length, long checksum) {
+		
+		if (!cache.isFile()) {
+			return null;
+		}
+		
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)));
+			
+			try {
+				if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION
+						|| in.readLong() != length || in.readLong() != checksum) {
+					return null;
+				}
+				
+				Map<String, Value> map = new HashMap<String, Value>();
+				
+				int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					
+					String key = in.readUTF();
+					
+					int valueCount = in.readInt();
+					List<String> valueList = new ArrayList<String>(valueCount);
+					for (int j = 0; j < valueCount; j++) {
+						valueList.add(in.readBoolean() ? in.readUTF() : null);
+					}
+					
+					map.put(key, new Value(valueList));
+				}
+				
+				return Collections.unmodifiableMap(map);
+				
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			// 壊れたキャッシュは設定ファイルから作り直す
+			return null;
+		}
+	}
+	
+	/**
+	 * 設定情報をキャッシュに書き出す。<br />
+	 * 
+	 * 一時ファイルに書き出してから置き換えるため、書き出し中のキャッシュを読み込むことは無い。
+	 * 書き出しに失敗しても設定情報はそのまま使用する。
+	 * 
+	 * @param cache キャッシュファイル
+	 * @param map 設定情報
+	 * @param length 設定ファイルのサイズ
+	 * @param checksum 設定ファイルの内容のCRC32
+	 */
+	private static void writeCache(File cache, Map<String, Value> map, long length, long checksum) {
+		
+		File temp = new File(cache.getPath() + ".tmp");
+		
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			
+			try {
+				out.writeInt(CACHE_MAGIC);
+				out.writeInt(CACHE_VERSION);
+				out.writeLong(length);
+				out.writeLong(checksum);
+				out.writeInt(map.size());
+				
+				for (Map.Entry<String, Value> entry : map.entrySet()) {
+					
+					out.writeUTF(entry.getKey());
+					
+					List<String> valueList = entry.getValue()._values;
+					out.writeInt(valueList.size());
+					for (String value : valueList) {
+						out.writeBoolean(value != null);
+						if (value != null) {
+							out.writeUTF(value);
+						}
+					}
+				}
+			} finally {
+				out.close();
+			}
+			
+			Files.move(temp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			
+		} catch (Exception e) {
+			System.out.println("設定ファイルのキャッシュの書き込みに失敗しました。");
+			temp.delete();
+		}
+	}
+	
+	/**
+	 * 設定ファイルのあるディレクトリの監視を開始する。<br />
+	 * 
+	 * 監視を開始できない場合は、以後の変更を反映しない。
+	 */
+	private static void startWatch() {
+		
+		final Path path = new File(SYSTEM_PROP_PATH).toPath();
+		final WatchService watchService;
+		
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			
+			// 保存時に一時ファイルから置き換えるエディタもあるため作成も監視する
+			path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+		} catch (Exception e) {
+			System.out.println("設定ファイルの監視の開始に失敗しました。");
+			return;
+		}
+		
+		watchThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch(watchService, path.getFileName());
+			}
+		}, "config-watch");
+		watchThread.setDaemon(true);
+		watchThread.start();
+	}
+	
+	/**
+	 * 設定ファイルの変更を待ち、変更されたら読み込み直す。<br />
+	 * 
+	 * 監視スレッドで実行する。書き込み途中で読み込みに失敗した場合は、次の変更の通知で読み込み直す。
+	 * 
+	 * @param watchService 監視サービス
+	 * @param fileName 設定ファイル名
+	 */
+	private static void watch(WatchService watchService, Path fileName) {
+		
+		while (true) {
+			
+			WatchKey key;
+			try {
+				key = watchService.take();
+				
+				// 書き込み中の通知はまとめて1回で読み込む
+				Thread.sleep(RELOAD_DELAY_MILLIS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			
+			boolean isChanged = false;
+			for (WatchEvent<?> event : key.pollEvents()) {
+				
+				// 通知が溢れた場合は変更の有無が分からないため読み込み直す
+				if (event.kind() == OVERFLOW || fileName.equals(event.context())) {
+					isChanged = true;
+				}
+			}
+			
+			boolean isValid = key.reset();
+			
+			if (isChanged) {
+				try {
+					read();
+				} catch (Exception e) {
+					System.out.println("設定ファイルの再読み込みに失敗しました。");
+				}
+			}
+			
+			// ディレクトリが削除された場合は監視を終了
+			if (!isValid) {
+				System.out.println("設定ファイルの監視を終了しました。");
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * 設定ファイルのキーに一致した一つの設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @return 設定ファイル情報
+	 * @throws Exception キーが無い場合、値が無い場合
+	 */
+	public String getProperty(String propKey) throws Exception {
+		
+		Value value = prop.get(propKey);
+		
+		if (value == null || value._values.isEmpty()) {
+			throw new Exception("設定がありません。:" + propKey);
+		}
+		
+		return value._values.get(0);
+	}
+	
+	/**
+	 * 設定ファイルのキーに一致した複数の設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @return 設定ファイル情報(変更不可、キーが無い場合はnull)
+	 * @throws Exception 全例外
+	 */
+	public List<String> getProperties(String propKey) throws Exception {
+		
+		Value value = prop.get(propKey);
+		
+		return (value != null) ? value._values : null;
+	}
+	
+	/**
+	 * 数値の設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @param defaultValue 設定が無い場合・数値でない場合の値
+	 * @return 設定値
+	 */
+	public int getInt(String propKey, int defaultValue) {
+		
+		Value value = prop.get(propKey);
+		
+		return (value != null && value._isInt) ? value._int : defaultValue;
+	}
+	
+	/**
+	 * 真偽値の設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @param defaultValue 設定が無い場合の値
+	 * @return 設定値(trueの大文字・小文字を区別せずtrue、それ以外はfalse)
+	 */
+	public boolean getBoolean(String propKey, boolean defaultValue) {
+		
+		Value value = prop.get(propKey);
+		
+		return (value != null && !value._values.isEmpty()) ? value._boolean : defaultValue;
+	}
+	
+	/**
+	 * カンマ区切りの設定情報を取得する。
+	 * 
+	 * @param propKey キー情報
+	 * @return 前後の空白を除いた要素のリスト(変更不可、設定が無い場合は空のリスト)
+	 */
+	public List<String> getList(String propKey) {
+		
+		Value value = prop.get(propKey);
+		
+		return (value != null) ? value._list : Collections.<String>emptyList();
+	}
+	
+	/**
+	 * 1キー分の設定情報<br />
+	 * 
+	 * 読み込み時に1つ目の値を数値・真偽値・リストに変換して保持する。
+	 */
+	private static final class Value {
+		
+		/** 値のリスト(変更不可) */
+		private final List<String> _values;
+		
+		/** 数値フラグ */
+		private final boolean _isInt;
+		
+		/** 数値(数値でない場合は0) */
+		private final int _int;
+		
+		/** 真偽値 */
+		private final boolean _boolean;
+		
+		/** カンマ区切りのリスト(変更不可) */
+		private final List<String> _list;
+		
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param values 値のリスト
+		 */
+		private Value(List<String> values) {
+			
+			_values = Collections.unmodifiableList(values);
+			
+			String first = values.isEmpty() ? null : values.get(0);
+			
+			boolean isInt = false;
+			int intValue = 0;
+			try {
+				intValue = Integer.parseInt(first);
+				isInt = true;
+			} catch (NumberFormatException e) {
+				isInt = false;
+			}
+			_isInt = isInt;
+			_int = intValue;
+			
+			_boolean = Boolean.parseBoolean(first);
+			
+			List<String> list = new ArrayList<String>();
+			if (first != null) {
+				for (String element : first.split(LIST_SEPARATOR)) {
+					list.add(element.trim());
+				}
+			}
+			_list = Collections.unmodifiableList(list);
+		}
+	}
+}
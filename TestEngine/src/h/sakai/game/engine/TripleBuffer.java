@@ -0,0 +1,80 @@
+package h.sakai.game.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 更新スレッドから描画スレッドへデータを受け渡すトリプルバッファ<br />
+ * 
+ * 書き込み用・受け渡し用・読み込み用の3つのバッファを入れ替えて使用する。
+ * 書き込み側と読み込み側はそれぞれ1スレッドとし、互いにロックせずに
+ * 最新の書き込み完了済みバッファを受け渡す。バッファは使い回すため、入れ替え時に
+ * オブジェクトを生成しない。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ * @param <T> バッファの型
+ */
+public final class TripleBuffer< T > {
+	
+	/** 要素番号のマスク */
+	private static final int INDEX_MASK = 0x3;
+	
+	/** 受け渡し用バッファが未読であることを示すフラグ */
+	private static final int FRESH = 0x4;
+	
+	/** バッファ */
+	private final T[] _buffers;
+	
+	/** 受け渡し用バッファの要素番号と未読フラグ */
+	private final AtomicInteger _middle = new AtomicInteger( 1 );
+	
+	/** 書き込み用バッファの要素番号(書き込みスレッド専用) */
+	private int _write = 0;
+	
+	/** 読み込み用バッファの要素番号(読み込みスレッド専用) */
+	private int _read = 2;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param buffer1 バッファ1
+	 * @param buffer2 バッファ2
+	 * @param buffer3 バッファ3
+	 */
+	@SuppressWarnings( "unchecked" )
+	public TripleBuffer( T buffer1, T buffer2, T buffer3 ) {
+		_buffers = ( T[] ) new Object[] { buffer1, buffer2, buffer3 };
+	}
+	
+	/**
+	 * 書き込み用バッファを取得する。(書き込みスレッド用)
+	 * 
+	 * @return 書き込み用バッファ
+	 */
+	public T getWriteBuffer() {
+		return _buffers[ _write ];
+	}
+	
+	/**
+	 * 書き込みが完了したバッファを公開し、次の書き込み用バッファに切り替える。(書き込みスレッド用)
+	 */
+	public void publish() {
+		_write = _middle.getAndSet( _write | FRESH ) & INDEX_MASK;
+	}
+	
+	/**
+	 * 最新の公開済みバッファを取得する。(読み込みスレッド用)<br />
+	 * 
+	 * 前回の取得以降に公開されていない場合は前回と同じバッファを返す。
+	 * 
+	 * @return 読み込み用バッファ
+	 */
+	public T acquire() {
+		
+		if ( ( _middle.get() & FRESH ) != 0 ) {
+			_read = _middle.getAndSet( _read ) & INDEX_MASK;
+		}
+		
+		return _buffers[ _read ];
+	}
+}
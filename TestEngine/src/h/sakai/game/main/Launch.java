@@ -1,19 +1,202 @@
-package h.sakai.game.main;
-
-import h.sakai.game.engine.Engine;
-
-/**
- * 起動クラス
- * 
- * @author H.Sakai
- * @version V1.00 2012/12/28 H.Sakai 新規作成
- */
-public class Launch {
-	
-	public static void main( String... args ) {
-		
-		// ゲームの起動
-		Engine gameEngine = new Engine();
-		gameEngine.launch();
-	}
-}
+package h.sakai.game.main;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import h.sakai.game.engine.Engine;
+import h.sakai.game.engine.GameRandom;
+import h.sakai.game.engine.InputRecorder;
+import h.sakai.game.engine.InputSource;
+import h.sakai.game.engine.ReplayInput;
+import h.sakai.game.engine.ScriptedInput;
+import h.sakai.game.main.scene.game.BatchSimulation;
+import h.sakai.game.main.scene.game.Board;
+
+/**
+ * 起動クラス
+ * 
+ * @author H.Sakai
+ * @version V1.00 2012/12/28 H.Sakai 新規作成
+ */
+public class Launch {
+	
+	/** 起動引数：描画なし */
+	private static final String NO_RENDER = "-norender";
+	
+	/** 起動引数：ヘッドレス起動 */
+	private static final String HEADLESS = "-headless";
+	
+	/** 起動引数：記録の再生 */
+	private static final String REPLAY = "-replay";
+	
+	/** 起動引数：入力の記録 */
+	private static final String RECORD = "-record";
+	
+	/** 起動引数：乱数の種 */
+	private static final String SEED = "-seed";
+	
+	/** 起動引数：一括シミュレーションの盤面のサイズ */
+	private static final String BOARD = "-board";
+	
+	/** 起動引数：一括シミュレーション */
+	private static final String SIMULATE = "-simulate";
+	
+	/** 一括シミュレーションの1ゲームの最大ブロック数(初期値) */
+	private static final int DEFAULT_MAX_PIECES = 1000;
+	
+	public static void main( String... args ) throws Exception {
+		
+		// 共通オプション：[-seed 乱数の種] [-record 記録ファイル]
+		List< String > argList = new ArrayList< String >( Arrays.asList( args ) );
+		String seed = takeOption( argList, SEED );
+		String recordPath = takeOption( argList, RECORD );
+		
+		if ( seed != null ) {
+			GameRandom.setSeed( Long.parseLong( seed ) );
+		}
+		
+		String mode = ( argList.size() > 0 ) ? argList.get( 0 ) : "";
+		
+		if ( SIMULATE.equals( mode ) ) {
+			
+			// 一括シミュレーション：-simulate ゲーム数 [スレッド数] [最大ブロック数] [-board 幅x高さ]
+			String board = takeOption( argList, BOARD );
+			int games = Integer.parseInt( argList.get( 1 ) );
+			int threads = ( argList.size() > 2 ) ? Integer.parseInt( argList.get( 2 ) ) : Runtime.getRuntime().availableProcessors();
+			int maxPieces = ( argList.size() > 3 ) ? Integer.parseInt( argList.get( 3 ) ) : DEFAULT_MAX_PIECES;
+			
+			BatchSimulation simulation = new BatchSimulation( games, threads, GameRandom.getSeed(), maxPieces, null );
+			
+			if ( board != null ) {
+				int[] size = parseBoardSize( board );
+				if ( size != null ) {
+					simulation.setBoardSize( size[ 0 ], size[ 1 ] );
+				} else {
+					System.out.println( "盤面のサイズが不正です。初期値で実行します。:" + board );
+				}
+			}
+			
+			System.out.println( "seed=" + GameRandom.getSeed() + " " + simulation.run() );
+			return;
+		}
+		
+		Engine gameEngine = new Engine();
+		
+		boolean isRender = !NO_RENDER.equals( ( argList.size() > 0 ) ? argList.get( argList.size() - 1 ) : "" );
+		
+		InputSource input = null;
+		long frames = 0;
+		
+		if ( REPLAY.equals( mode ) ) {
+			
+			// 記録の再生：-replay 記録ファイル [-norender]
+			ReplayInput replay = ReplayInput.load( argList.get( 1 ) );
+			GameRandom.setSeed( replay.getSeed() );
+			
+			input = replay;
+			frames = replay.getFrameCount();
+			
+		} else if ( HEADLESS.equals( mode ) ) {
+			
+			// ヘッドレス起動：-headless フレーム数 [入力スクリプト] [-norender]
+			frames = ( argList.size() > 1 ) ? Long.parseLong( argList.get( 1 ) ) : 0;
+			input = ( argList.size() > 2 && !NO_RENDER.equals( argList.get( 2 ) ) ) ? ScriptedInput.load( argList.get( 2 ) ) : new ScriptedInput();
+		}
+		
+		if ( recordPath != null ) {
+			gameEngine.setRecorder( new InputRecorder( recordPath, GameRandom.getSeed() ) );
+		}
+		
+		if ( input != null ) {
+			
+			BufferedImage screen = gameEngine.launchHeadless( input, frames, isRender );
+			
+			// 記録と再生の結果を比較できるよう、最終フレームの画面のチェックサムを出力
+			if ( screen != null ) {
+				System.out.println( "seed=" + GameRandom.getSeed() + " screen crc=" + Long.toHexString( checksum( screen ) ) );
+			}
+			return;
+		}
+		
+		// ゲームの起動
+		gameEngine.launch();
+	}
+	
+	/**
+	 * 値付きの起動引数を取り出し、引数リストから取り除く。
+	 * 
+	 * @param argList 起動引数
+	 * @param name 引数名
+	 * @return 引数の値(指定されていない場合はnull)
+	 */
+	private static String takeOption( List< String > argList, String name ) {
+		
+		int index = argList.indexOf( name );
+		if ( index < 0 || index + 1 >= argList.size() ) {
+			return null;
+		}
+		
+		String value = argList.get( index + 1 );
+		argList.remove( index + 1 );
+		argList.remove( index );
+		
+		return value;
+	}
+	
+	/**
+	 * 「幅x高さ」形式の盤面のサイズを解析する。
+	 * 
+	 * @param board 盤面のサイズ
+	 * @return 幅・高さ(形式が不正な場合、盤面を作成できないサイズの場合はnull)
+	 */
+	private static int[] parseBoardSize( String board ) {
+		
+		String[] size = board.split( "x" );
+		if ( size.length != 2 ) {
+			return null;
+		}
+		
+		int width;
+		int height;
+		try {
+			width = Integer.parseInt( size[ 0 ] );
+			height = Integer.parseInt( size[ 1 ] );
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		
+		return Board.isValidSize( width, height ) ? new int[] { width, height } : null;
+	}
+	
+	/**
+	 * 画像のチェックサムを計算する。
+	 * 
+	 * @param image 画像
+	 * @return チェックサム
+	 */
+	private static long checksum( BufferedImage image ) {
+		
+		CRC32 crc = new CRC32();
+		int[] row = new int[ image.getWidth() ];
+		byte[] bytes = new byte[ row.length * 4 ];
+		
+		for ( int y = 0; y < image.getHeight(); y++ ) {
+			
+			image.getRGB( 0, y, row.length, 1, row, 0, row.length );
+			
+			for ( int x = 0; x < row.length; x++ ) {
+				bytes[ x * 4 ] = ( byte ) ( row[ x ] >>> 24 );
+				bytes[ x * 4 + 1 ] = ( byte ) ( row[ x ] >>> 16 );
+				bytes[ x * 4 + 2 ] = ( byte ) ( row[ x ] >>> 8 );
+				bytes[ x * 4 + 3 ] = ( byte ) row[ x ];
+			}
+			
+			crc.update( bytes, 0, bytes.length );
+		}
+		
+		return crc.getValue();
+	}
+}
@@ -1,13 +1,13 @@
-package h.sakai.game.main.common;
-
-/**
- * 本アプリケーションの定数クラス
- * 
- * @author Hiroyuki Sakai
- * @version V1.00 2012/12/31 新規作成
- */
-public class AppConst {
-
-	/* *********** シーケンス番号 *********** */
-	public static final int SCENE_GAME = 2;
-}
+package h.sakai.game.main.common;
+
+/**
+ * 本アプリケーションの定数クラス
+ * 
+ * @author Hiroyuki Sakai
+ * @version V1.00 2012/12/31 新規作成
+ */
+public class AppConst {
+
+	/* *********** シーケンス番号 *********** */
+	public static final int SCENE_GAME = 2;
+}
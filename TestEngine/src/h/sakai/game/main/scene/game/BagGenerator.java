@@ -0,0 +1,103 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * 7種1巡(7-bag)によるブロックの出現順の生成クラス<br />
+ * 
+ * 7種類のブロックを1つずつ袋に入れて混ぜ、袋が空になるまで順に取り出す。
+ * 同じブロックが続くのは袋の境目の最大2回まで、同じブロックの間隔は最大12個となり、
+ * 一様乱数のような長い偏りが起きない。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class BagGenerator implements PieceGenerator {
+	
+	/** 1種類の書き出しビット数 */
+	private static final int KIND_BITS = 3;
+	
+	/** 袋を混ぜる乱数 */
+	private final UniformGenerator _random;
+	
+	/** 袋 */
+	private final int[] _bag = new int[ BlockShape.KIND_COUNT ];
+	
+	/** 次に取り出す要素番号 */
+	private int _index = BlockShape.KIND_COUNT;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param seed 乱数の種
+	 */
+	public BagGenerator( long seed ) {
+		_random = new UniformGenerator( seed );
+	}
+	
+	/**
+	 * @see PieceGenerator#next()
+	 */
+	@Override
+	public int next() {
+		
+		// 袋が空なら7種類を入れ直して混ぜる
+		if ( _index == _bag.length ) {
+			
+			for ( int i = 0; i < _bag.length; i++ ) {
+				_bag[ i ] = i;
+			}
+			
+			for ( int i = _bag.length - 1; i > 0; i-- ) {
+				int j = _random.nextInt( i + 1 );
+				int kind = _bag[ i ];
+				_bag[ i ] = _bag[ j ];
+				_bag[ j ] = kind;
+			}
+			
+			_index = 0;
+		}
+		
+		return _bag[ _index++ ];
+	}
+	
+	/**
+	 * @see PieceGenerator#getStateSize()
+	 */
+	@Override
+	public int getStateSize() {
+		return _random.getStateSize() + 1;
+	}
+	
+	/**
+	 * @see PieceGenerator#saveState(long[], int)
+	 */
+	@Override
+	public void saveState( long[] state, int offset ) {
+		
+		_random.saveState( state, offset );
+		
+		// 袋の中身と取り出し位置を1つのlongに詰める
+		long packed = _index;
+		for ( int i = 0; i < _bag.length; i++ ) {
+			packed |= ( long ) _bag[ i ] << ( KIND_BITS * ( i + 1 ) );
+		}
+		
+		state[ offset + _random.getStateSize() ] = packed;
+	}
+	
+	/**
+	 * @see PieceGenerator#restoreState(long[], int)
+	 */
+	@Override
+	public void restoreState( long[] state, int offset ) {
+		
+		_random.restoreState( state, offset );
+		
+		long packed = state[ offset + _random.getStateSize() ];
+		int mask = ( 1 << KIND_BITS ) - 1;
+		
+		_index = ( int ) ( packed & mask );
+		for ( int i = 0; i < _bag.length; i++ ) {
+			_bag[ i ] = ( int ) ( packed >>> ( KIND_BITS * ( i + 1 ) ) ) & mask;
+		}
+	}
+}
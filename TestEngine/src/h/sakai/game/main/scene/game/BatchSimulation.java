@@ -0,0 +1,175 @@
+package h.sakai.game.main.scene.game;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * テトリスの一括シミュレーションクラス<br />
+ * 
+ * 画像・音声・設定ファイルを読み込まない盤面のみのモデルを、固定数のワーカースレッドで並列に実行する。
+ * ゲームごとに乱数の種(基準の種 + ゲーム番号)と操作を割り当て、
+ * 固定したブロック数・削除した行数・ゲームの長さ・処理速度を集計する。
+ * 
+ * モデルの自然落下は実時間で判定するため使用せず、
+ * {@link #GRAVITY_FRAMES}フレームごとに落下を入力して同じ種から同じ結果を再現する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class BatchSimulation {
+	
+	/** 自然落下の間隔(60FPSでブロックの移動時間に相当するフレーム数) */
+	protected static final int GRAVITY_FRAMES = 30;
+	
+	/** ゲーム数 */
+	private final int _games;
+	
+	/** ワーカースレッド数 */
+	private final int _threads;
+	
+	/** 基準の乱数の種 */
+	private final long _seed;
+	
+	/** 1ゲームの最大ブロック数(ゲームオーバーにならない場合の打ち切り) */
+	private final int _maxPieces;
+	
+	/** 固定のキー入力(nullの場合は自動操作) */
+	private final int[] _script;
+	
+	/** 盤面の幅 */
+	private int _boardWidth = Game.DEFAULT_GRID_X;
+	
+	/** 盤面の高さ */
+	private int _boardHeight = Game.DEFAULT_GRID_Y;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param games ゲーム数
+	 * @param threads ワーカースレッド数
+	 * @param seed 基準の乱数の種
+	 * @param maxPieces 1ゲームの最大ブロック数
+	 * @param script 固定のキー入力(nullの場合は自動操作)
+	 */
+	public BatchSimulation( int games, int threads, long seed, int maxPieces, int[] script ) {
+		
+		if ( games < 1 || threads < 1 || maxPieces < 1 ) {
+			throw new IllegalArgumentException( "シミュレーションの設定が不正です。:games=" + games + " threads=" + threads + " maxPieces=" + maxPieces );
+		}
+		
+		_games = games;
+		_threads = threads;
+		_seed = seed;
+		_maxPieces = maxPieces;
+		_script = ( script != null ) ? script.clone() : null;
+	}
+	
+	/**
+	 * 盤面のサイズを設定する。{@link #run()}の前に設定すること。
+	 * 
+	 * @param width 盤面の幅
+	 * @param height 盤面の高さ
+	 */
+	public void setBoardSize( int width, int height ) {
+		
+		if ( !Board.isValidSize( width, height ) ) {
+			throw new IllegalArgumentException( "盤面のサイズが不正です。:" + width + "x" + height );
+		}
+		
+		_boardWidth = width;
+		_boardHeight = height;
+	}
+	
+	/**
+	 * 全ゲームを実行し、結果を集計する。
+	 * 
+	 * @return 集計結果
+	 * @throws InterruptedException 実行中に割り込まれた場合
+	 * @throws ExecutionException ゲームの実行中に例外が発生した場合
+	 */
+	public SimulationResult run() throws InterruptedException, ExecutionException {
+		
+		ExecutorService executor = Executors.newFixedThreadPool( _threads );
+		
+		try {
+			
+			long start = System.nanoTime();
+			
+			List< Future< SimulationResult > > futures = new ArrayList< Future< SimulationResult > >( _games );
+			
+			for ( int i = 0; i < _games; i++ ) {
+				
+				final long seed = _seed + i;
+				
+				futures.add( executor.submit( new Callable< SimulationResult >() {
+					@Override
+					public SimulationResult call() {
+						return play( seed );
+					}
+				} ) );
+			}
+			
+			SimulationResult total = new SimulationResult();
+			
+			for ( Future< SimulationResult > future : futures ) {
+				total.add( future.get() );
+			}
+			
+			total.setRun( System.nanoTime() - start, _threads );
+			
+			return total;
+			
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * 1ゲームを実行する。
+	 * 
+	 * @param seed 乱数の種
+	 * @return 1ゲームの結果
+	 */
+	protected SimulationResult play( long seed ) {
+		
+		Game game = new Game( new BagGenerator( seed ), _boardWidth, _boardHeight );
+		game.init();
+		game.startTetris();
+		
+		TetrisPlayer player = createPlayer();
+		long frames = 0;
+		
+		while ( game.getSqNo() == SceneGame.SQ_TETRIS && game.getFixCount() < _maxPieces ) {
+			
+			int keyCode = player.nextKey( game );
+			if ( keyCode != 0 ) {
+				game.onUpdateTetris( keyCode );
+			}
+			
+			frames++;
+			
+			if ( frames % GRAVITY_FRAMES == 0 && game.getSqNo() == SceneGame.SQ_TETRIS ) {
+				game.onUpdateTetris( KeyEvent.VK_DOWN );
+			}
+		}
+		
+		return new SimulationResult( game.getFixCount(), game.getLineCount(), frames, game.getSqNo() == SceneGame.SQ_GAMEOVER );
+	}
+	
+	/**
+	 * 1ゲーム分の操作を作成する。<br />
+	 * 
+	 * 並列実行はゲーム単位で行うため、自動操作の探索は呼び出し元のスレッドで行う。
+	 * 
+	 * @return 操作
+	 */
+	protected TetrisPlayer createPlayer() {
+		return ( _script != null ) ? new ScriptedPlayer( _script ) : new TetrisBot( null );
+	}
+}
@@ -1,213 +1,219 @@
-package h.sakai.game.main.scene.game;
-
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
-/**
- * ブロック構成クラス
- * 
- * @author Hiroyuki Sakai
- * @version V1.00 2013/01/03 新規作成
- */
-public class Block {
-	
-	/** 色番号 */
-	private byte _imageNo = 0;
-	
-	/** ブロック構成情報 */
-	private short[][] _block;
-	
-	/** 座標情報 */
-	private Point _pos;
-	
-	/** ゲームモデル */
-	private final Game _game;
-	
-	/** ブロックサイズ：X方向 */
-	protected static final byte MAX_X = 4;
-	
-	/** ブロックサイズ：Y方向 */
-	protected static final byte MAX_Y = 4;
-	
-	/** 移動方向：左 */
-	protected static final byte LEFT  = 0;
-	
-	/** 移動方向：右 */
-	protected static final byte RIGHT = 1;
-	
-	/** 移動方向：下 */
-	protected static final byte DOWN  = 2;
-	
-	/** 移動方向：回転 */
-	protected static final byte TURN  = 3;
-	
-	/** ブロックの構成情報 */
-	private static final List< short[][] > BLOCK_INFO = new ArrayList<short[][]>(); {
-		
-		// 縦棒ブロック
-		short[][] barBlock = new short[ MAX_Y ][ MAX_X ];
-		barBlock[0][1] = 1;
-		barBlock[1][1] = 1;
-		barBlock[2][1] = 1;
-		barBlock[3][1] = 1;
-		
-		BLOCK_INFO.add( barBlock );
-		
-		// Z型ブロック
-		short[][] zShapeBlock = new short[ MAX_Y ][ MAX_X ];
-		zShapeBlock[1][2] = 1;
-		zShapeBlock[2][1] = 1;
-		zShapeBlock[2][2] = 1;
-		zShapeBlock[3][1] = 1;
-		
-		BLOCK_INFO.add( zShapeBlock );
-		
-		// 四角ブロック
-		short[][] squareBlock = new short[ MAX_Y ][ MAX_X ];
-		squareBlock[1][1] = 1;
-		squareBlock[1][2] = 1;
-		squareBlock[2][1] = 1;
-		squareBlock[2][2] = 1;
-		
-		BLOCK_INFO.add( squareBlock );
-		
-		// L型ブロック
-		short[][] lShapeBlock = new short[ MAX_Y ][ MAX_X ];
-		lShapeBlock[1][1] = 1;
-		lShapeBlock[1][2] = 1;
-		lShapeBlock[2][2] = 1;
-		lShapeBlock[3][2] = 1;
-		
-		BLOCK_INFO.add( lShapeBlock );
-		
-		// 逆Z型ブロック
-		short[][] reverseZShapeBlock = new short[ MAX_Y ][ MAX_X ];
-		reverseZShapeBlock[1][1] = 1;
-		reverseZShapeBlock[2][1] = 1;
-		reverseZShapeBlock[2][2] = 1;
-		reverseZShapeBlock[3][2] = 1;
-		
-		BLOCK_INFO.add( reverseZShapeBlock );
-		
-		// T型ブロック
-		short[][] tShapeBlock = new short[ MAX_Y ][ MAX_X ];
-		tShapeBlock[1][1] = 1;
-		tShapeBlock[2][1] = 1;
-		tShapeBlock[2][2] = 1;
-		tShapeBlock[3][1] = 1;
-		
-		BLOCK_INFO.add( tShapeBlock );
-		
-		// 逆L型ブロック
-		short[][] reverseLShapeBlock = new short[ MAX_Y ][ MAX_X ];
-		reverseLShapeBlock[1][1] = 1;
-		reverseLShapeBlock[1][2] = 1;
-		reverseLShapeBlock[2][1] = 1;
-		reverseLShapeBlock[3][1] = 1;
-		
-		BLOCK_INFO.add( reverseLShapeBlock );
-	}
-	
-	/**
-	 * コンストラクタ<br>
-	 * 
-	 * ブロックの初期化処理を実行する。
-	 * 
-	 * @param game ゲームモデル
-	 */
-	public Block( Game game ) {
-		Random random = new Random();
-		int blockNo = random.nextInt( 7 );
-		_block = BLOCK_INFO.get( blockNo );
-		_imageNo = ( byte ) blockNo;
-		_pos = new Point( 4, -4 );
-		_game = game;
-	}
-	
-	/**
-	 * 引数のdirの方向にブロックを移動。
-	 * 
-	 * @param dir 方向
-	 * @param game ゲームモデル
-	 * @return ブロックが固定されたらtrue
-	 */
-	public boolean move( int dir, Game game ) {
-		
-		switch (dir) {
-			case LEFT:
-				Point newPos = new Point( _pos.x - 1, _pos.y );
-				if (_game.isMovable( newPos, _block ) ) {
-					_pos = newPos;
-				}
-				break;
-			case RIGHT:
-				newPos = new Point(_pos.x+1, _pos.y);
-				if (_game.isMovable( newPos, _block ) ) {
-					_pos = newPos;
-				}
-				break;
-			case DOWN:
-				newPos = new Point( _pos.x, _pos.y + 1 );
-				if ( _game.isMovable( newPos, _block ) ) {
-					_pos = newPos;
-				} else {
-					// ブロックをボードに固定する
-					_game.fixBlock( _pos, _block, _imageNo );
-					// 固定されたらtrueを返す
-					return true;
-				}
-				break;
-		}
-		
-		return false;
-	}
-	
-	/**
-	 * ブロックの回転処理を実行する。
-	 */
-	protected void turn() {
-		
-		short[][] turnedBlock = new short[ MAX_Y ][ MAX_X ];
-		
-		// 回転したブロック
-		for ( int y = 0; y < MAX_Y; y++ ) {
-			for ( int x = 0; x < MAX_X; x++ ) {
-				turnedBlock[ x ][ MAX_Y - 1 - y ] = _block[ y ][ x ];
-			}
-		}
-		
-		// 回転可能な場合、ブロックの入れ替え
-		if ( _game.isMovable( _pos, turnedBlock ) ) {
-			_block = turnedBlock;
-		}
-	}
-	
-	/**
-	 * ブロックの構成情報を取得する。
-	 * 
-	 * @return ブロックの構成情報
-	 */
-	protected short[][] getBlock() {
-		return _block;
-	}
-	
-	/**
-	 * ブロックの座標を取得する。
-	 * 
-	 * @return ブロック座標
-	 */
-	protected Point getPos() {
-		return _pos;
-	}
-	
-	/**
-	 * 色番号を取得する。
-	 * 
-	 * @return
-	 */
-	protected int getImageNo() {
-		return _imageNo;
-	}
-}
+package h.sakai.game.main.scene.game;
+
+/**
+ * ブロック構成クラス
+ * 
+ * @author Hiroyuki Sakai
+ * @version V1.00 2013/01/03 新規作成
+ */
+public class Block {
+	
+	/** 色番号 */
+	private byte _imageNo = 0;
+	
+	/** ブロックの種類 */
+	private int _kind = 0;
+	
+	/** 回転番号 */
+	private int _rotation = 0;
+	
+	/** X座標 */
+	private int _x = 0;
+	
+	/** Y座標 */
+	private int _y = 0;
+	
+	/** ゲームモデル */
+	private final Game _game;
+	
+	/** ブロックサイズ：X方向 */
+	protected static final byte MAX_X = 4;
+	
+	/** ブロックサイズ：Y方向 */
+	protected static final byte MAX_Y = 4;
+	
+	/** 移動方向：左 */
+	protected static final byte LEFT  = 0;
+	
+	/** 移動方向：右 */
+	protected static final byte RIGHT = 1;
+	
+	/** 移動方向：下 */
+	protected static final byte DOWN  = 2;
+	
+	/** 移動方向：回転 */
+	protected static final byte TURN  = 3;
+	
+	/** 出現位置：Y座標 */
+	protected static final int START_Y = -4;
+	
+	/**
+	 * コンストラクタ<br>
+	 * 
+	 * ブロックの初期化処理を実行する。
+	 * 
+	 * @param game ゲームモデル
+	 */
+	public Block( Game game ) {
+		_game = game;
+		reset();
+	}
+	
+	/**
+	 * 出現位置のX座標を求める。<br />
+	 * 
+	 * 盤面の中央(幅が奇数の場合は左寄り)の2列にブロックの中央の2列が重なる位置とする。
+	 * 
+	 * @param width 盤面の幅
+	 * @return X座標
+	 */
+	protected static int getStartX( int width ) {
+		return width / 2 - 1;
+	}
+	
+	/**
+	 * 次のブロックとして初期化する。<br />
+	 * 
+	 * 先読みキューから次の種類を取り出し、出現位置・回転なしの状態に戻す。
+	 * ブロックが固定されるたびにオブジェクトを作り直さないよう、同じオブジェクトを使い回す。
+	 */
+	protected void reset() {
+		_kind = _game.getPieceQueue().next();
+		_imageNo = ( byte ) _kind;
+		_rotation = 0;
+		_x = getStartX( _game.getBoard().getWidth() );
+		_y = START_Y;
+	}
+	
+	/**
+	 * 引数のdirの方向にブロックを移動。
+	 * 
+	 * @param dir 方向
+	 * @param game ゲームモデル
+	 * @return ブロックが固定されたらtrue
+	 */
+	public boolean move( int dir, Game game ) {
+		
+		int[] rowMasks = getRowMasks();
+		
+		switch (dir) {
+			case LEFT:
+				if ( _game.isMovable( _x - 1, _y, rowMasks ) ) {
+					_x--;
+				}
+				break;
+			case RIGHT:
+				if ( _game.isMovable( _x + 1, _y, rowMasks ) ) {
+					_x++;
+				}
+				break;
+			case DOWN:
+				if ( _game.isMovable( _x, _y + 1, rowMasks ) ) {
+					_y++;
+				} else {
+					// ブロックをボードに固定する
+					_game.fixBlock( _x, _y, rowMasks, _imageNo );
+					// 固定されたらtrueを返す
+					return true;
+				}
+				break;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * ブロックの回転処理を実行する。<br />
+	 * 
+	 * その場で回転できない場合は壁蹴りの補正値の順に左右へずらして試す。
+	 * 外接矩形が盤面からはみ出す位置は衝突判定をせずに飛ばす。
+	 */
+	protected void turn() {
+		
+		int next = BlockShape.next( _rotation );
+		int[] rowMasks = BlockShape.getRowMasks( _kind, next );
+		int[] kicks = BlockShape.getKicks( _kind );
+		int left = BlockShape.getLeft( _kind, next );
+		int right = BlockShape.getRight( _kind, next );
+		int width = _game.getBoard().getWidth();
+		
+		for ( int i = 0; i < kicks.length; i++ ) {
+			
+			int x = _x + kicks[ i ];
+			
+			if ( x + left < 0 || x + right >= width ) {
+				continue;
+			}
+			
+			// 回転可能な場合、回転番号と位置を更新
+			if ( _game.isMovable( x, _y, rowMasks ) ) {
+				_x = x;
+				_rotation = next;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * ブロックの構成情報を取得する。
+	 * 
+	 * @return ブロックの構成情報
+	 */
+	protected short[][] getBlock() {
+		return BlockShape.getCells( _kind, _rotation );
+	}
+	
+	/**
+	 * ブロックの行ごとのビットマスクを取得する。
+	 * 
+	 * @return 行ごとのビットマスク(ビットxが列xに対応)
+	 */
+	protected int[] getRowMasks() {
+		return BlockShape.getRowMasks( _kind, _rotation );
+	}
+	
+	/**
+	 * ブロックのX座標を取得する。
+	 * 
+	 * @return X座標
+	 */
+	protected int getX() {
+		return _x;
+	}
+	
+	/**
+	 * ブロックのY座標を取得する。
+	 * 
+	 * @return Y座標
+	 */
+	protected int getY() {
+		return _y;
+	}
+	
+	/**
+	 * ブロックの種類を取得する。
+	 * 
+	 * @return ブロックの種類
+	 */
+	protected int getKind() {
+		return _kind;
+	}
+	
+	/**
+	 * 回転番号を取得する。
+	 * 
+	 * @return 回転番号
+	 */
+	protected int getRotation() {
+		return _rotation;
+	}
+	
+	/**
+	 * 色番号を取得する。
+	 * 
+	 * @return
+	 */
+	protected int getImageNo() {
+		return _imageNo;
+	}
+}
@@ -0,0 +1,267 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * ブロックの形状テーブルクラス<br />
+ * 
+ * 7種類のブロックについて、4方向の回転後の構成情報・行ごとのビットマスク・外接矩形を
+ * クラスの初期化時に1度だけ作成して保持する。
+ * ブロックの回転は回転番号の変更のみで行い、構成情報を作り直さない。
+ * 取得した配列は全てのブロックで共有するため、書き換えないこと。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class BlockShape {
+	
+	/** ブロックの種類数 */
+	protected static final int KIND_COUNT = 7;
+	
+	/** 回転方向の数 */
+	protected static final int ROTATION_COUNT = 4;
+	
+	/** ブロックの種類：縦棒ブロック */
+	protected static final int BAR = 0;
+	
+	/** ブロックの種類：四角ブロック */
+	protected static final int SQUARE = 2;
+	
+	/** 壁蹴りのX方向の補正値：縦棒ブロック */
+	private static final int[] BAR_KICKS = { 0, -1, 1, -2, 2 };
+	
+	/** 壁蹴りのX方向の補正値：四角ブロック(回転しても形が変わらない) */
+	private static final int[] SQUARE_KICKS = { 0 };
+	
+	/** 壁蹴りのX方向の補正値：その他のブロック */
+	private static final int[] DEFAULT_KICKS = { 0, -1, 1 };
+	
+	/** 構成情報 [種類][回転][y][x] */
+	private static final short[][][][] CELLS = new short[ KIND_COUNT ][ ROTATION_COUNT ][][];
+	
+	/** 行ごとのビットマスク [種類][回転][y] */
+	private static final int[][][] ROW_MASKS = new int[ KIND_COUNT ][ ROTATION_COUNT ][];
+	
+	/** 外接矩形の左端 [種類][回転] */
+	private static final byte[][] LEFT = new byte[ KIND_COUNT ][ ROTATION_COUNT ];
+	
+	/** 外接矩形の右端 [種類][回転] */
+	private static final byte[][] RIGHT = new byte[ KIND_COUNT ][ ROTATION_COUNT ];
+	
+	/** 外接矩形の上端 [種類][回転] */
+	private static final byte[][] TOP = new byte[ KIND_COUNT ][ ROTATION_COUNT ];
+	
+	/** 外接矩形の下端 [種類][回転] */
+	private static final byte[][] BOTTOM = new byte[ KIND_COUNT ][ ROTATION_COUNT ];
+	
+	static {
+		
+		// 回転前の構成情報(種類の順番は色番号と同じ)
+		short[][][] base = new short[ KIND_COUNT ][][];
+		
+		// 縦棒ブロック
+		base[ 0 ] = new short[][] {
+			{ 0, 1, 0, 0 },
+			{ 0, 1, 0, 0 },
+			{ 0, 1, 0, 0 },
+			{ 0, 1, 0, 0 } };
+		
+		// Z型ブロック
+		base[ 1 ] = new short[][] {
+			{ 0, 0, 0, 0 },
+			{ 0, 0, 1, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 1, 0, 0 } };
+		
+		// 四角ブロック
+		base[ 2 ] = new short[][] {
+			{ 0, 0, 0, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 0, 0, 0 } };
+		
+		// L型ブロック
+		base[ 3 ] = new short[][] {
+			{ 0, 0, 0, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 0, 1, 0 },
+			{ 0, 0, 1, 0 } };
+		
+		// 逆Z型ブロック
+		base[ 4 ] = new short[][] {
+			{ 0, 0, 0, 0 },
+			{ 0, 1, 0, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 0, 1, 0 } };
+		
+		// T型ブロック
+		base[ 5 ] = new short[][] {
+			{ 0, 0, 0, 0 },
+			{ 0, 1, 0, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 1, 0, 0 } };
+		
+		// 逆L型ブロック
+		base[ 6 ] = new short[][] {
+			{ 0, 0, 0, 0 },
+			{ 0, 1, 1, 0 },
+			{ 0, 1, 0, 0 },
+			{ 0, 1, 0, 0 } };
+		
+		for ( int kind = 0; kind < KIND_COUNT; kind++ ) {
+			
+			short[][] cells = base[ kind ];
+			
+			for ( int rotation = 0; rotation < ROTATION_COUNT; rotation++ ) {
+				
+				CELLS[ kind ][ rotation ] = cells;
+				ROW_MASKS[ kind ][ rotation ] = new int[ Block.MAX_Y ];
+				
+				int left = Block.MAX_X;
+				int right = -1;
+				int top = Block.MAX_Y;
+				int bottom = -1;
+				
+				for ( int y = 0; y < Block.MAX_Y; y++ ) {
+					
+					ROW_MASKS[ kind ][ rotation ][ y ] = Board.toRowMask( cells[ y ] );
+					
+					for ( int x = 0; x < Block.MAX_X; x++ ) {
+						if ( cells[ y ][ x ] == 1 ) {
+							left = Math.min( left, x );
+							right = Math.max( right, x );
+							top = Math.min( top, y );
+							bottom = Math.max( bottom, y );
+						}
+					}
+				}
+				
+				LEFT[ kind ][ rotation ] = ( byte ) left;
+				RIGHT[ kind ][ rotation ] = ( byte ) right;
+				TOP[ kind ][ rotation ] = ( byte ) top;
+				BOTTOM[ kind ][ rotation ] = ( byte ) bottom;
+				
+				cells = rotate( cells );
+			}
+		}
+	}
+	
+	/**
+	 * コンストラクタ
+	 */
+	private BlockShape() {
+	}
+	
+	/**
+	 * 構成情報を右に90度回転する。
+	 * 
+	 * @param cells 構成情報
+	 * @return 回転した構成情報
+	 */
+	private static short[][] rotate( short[][] cells ) {
+		
+		short[][] turned = new short[ Block.MAX_Y ][ Block.MAX_X ];
+		
+		for ( int y = 0; y < Block.MAX_Y; y++ ) {
+			for ( int x = 0; x < Block.MAX_X; x++ ) {
+				turned[ x ][ Block.MAX_Y - 1 - y ] = cells[ y ][ x ];
+			}
+		}
+		
+		return turned;
+	}
+	
+	/**
+	 * 右に90度回転した後の回転番号を取得する。
+	 * 
+	 * @param rotation 回転番号
+	 * @return 回転後の回転番号
+	 */
+	protected static int next( int rotation ) {
+		return ( rotation + 1 ) & ( ROTATION_COUNT - 1 );
+	}
+	
+	/**
+	 * 構成情報を取得する。
+	 * 
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @return 構成情報(共有のため書き換え不可)
+	 */
+	protected static short[][] getCells( int kind, int rotation ) {
+		return CELLS[ kind ][ rotation ];
+	}
+	
+	/**
+	 * 行ごとのビットマスクを取得する。
+	 * 
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @return 行ごとのビットマスク(ビットxが列xに対応、共有のため書き換え不可)
+	 */
+	protected static int[] getRowMasks( int kind, int rotation ) {
+		return ROW_MASKS[ kind ][ rotation ];
+	}
+	
+	/**
+	 * 外接矩形の左端を取得する。
+	 * 
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @return ブロック内の左端の列
+	 */
+	protected static int getLeft( int kind, int rotation ) {
+		return LEFT[ kind ][ rotation ];
+	}
+	
+	/**
+	 * 外接矩形の右端を取得する。
+	 * 
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @return ブロック内の右端の列
+	 */
+	protected static int getRight( int kind, int rotation ) {
+		return RIGHT[ kind ][ rotation ];
+	}
+	
+	/**
+	 * 外接矩形の上端を取得する。
+	 * 
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @return ブロック内の上端の行
+	 */
+	protected static int getTop( int kind, int rotation ) {
+		return TOP[ kind ][ rotation ];
+	}
+	
+	/**
+	 * 外接矩形の下端を取得する。
+	 * 
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @return ブロック内の下端の行
+	 */
+	protected static int getBottom( int kind, int rotation ) {
+		return BOTTOM[ kind ][ rotation ];
+	}
+	
+	/**
+	 * 回転時に試す壁蹴りのX方向の補正値を取得する。<br />
+	 * 
+	 * 先頭から順に試し、最初に置ける位置へ回転する。先頭は補正なし(0)。
+	 * 
+	 * @param kind ブロックの種類
+	 * @return 補正値(共有のため書き換え不可)
+	 */
+	protected static int[] getKicks( int kind ) {
+		
+		switch ( kind ) {
+			case BAR:
+				return BAR_KICKS;
+			case SQUARE:
+				return SQUARE_KICKS;
+			default:
+				return DEFAULT_KICKS;
+		}
+	}
+}
@@ -0,0 +1,489 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * テトリスの盤面クラス<br />
+ * 
+ * 盤面の各行をlongのビットマスクの並び(1ワード64列)で保持し、任意の幅・高さを扱う。
+ * ブロックも行ごとのビットマスクとして扱うため、衝突判定はシフトとAND、固定はORで行う。
+ * 行ごとに埋まっているマス数を保持し、行がそろったかの判定は数の比較で行う。
+ * ブロックの色は1マス4ビットで行ごとにlongに詰めて別に保持する。
+ * 
+ * 行のデータは行番号から格納位置への対応表を介して参照し、行の削除時は対応表のみを詰める。
+ * また、ブロックが置かれている最上行を保持し、それより上の空の行は削除・複写の対象にしない。
+ * これにより行の削除・盤面の複写の処理量は盤面の高さではなく積み上がった行数に比例する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class Board {
+	
+	/** 1ワードの列数 */
+	private static final int WORD_BITS = 64;
+	
+	/** 1マスの色のビット数 */
+	private static final int COLOR_BITS = 4;
+	
+	/** 1ワードに詰める色の数 */
+	private static final int COLORS_PER_WORD = WORD_BITS / COLOR_BITS;
+	
+	/** 1マスの色のマスク */
+	private static final long COLOR_MASK = ( 1L << COLOR_BITS ) - 1;
+	
+	/** 盤面の幅 */
+	private final int _width;
+	
+	/** 盤面の高さ */
+	private final int _height;
+	
+	/** 1行のマスのワード数 */
+	private final int _words;
+	
+	/** 1行の色のワード数 */
+	private final int _colorWords;
+	
+	/** 行番号ごとの格納位置 */
+	private final int[] _slots;
+	
+	/** 格納位置ごとのマス */
+	private final long[] _cells;
+	
+	/** 格納位置ごとのブロックの色 */
+	private final long[] _colors;
+	
+	/** 格納位置ごとの埋まっているマス数 */
+	private final int[] _counts;
+	
+	/** 行の削除時に取り除いた格納位置の作業領域 */
+	private final int[] _removed;
+	
+	/** ブロックが置かれている可能性のある最上行(これより上の行は全て空) */
+	private int _top;
+	
+	/**
+	 * 盤面を作成できるサイズか判定する。
+	 * 
+	 * @param width 盤面の幅
+	 * @param height 盤面の高さ
+	 * @return true:幅・高さともにブロックの大きさ以上、false:作成できない
+	 */
+	public static boolean isValidSize( int width, int height ) {
+		return width >= Block.MAX_X && height >= Block.MAX_Y;
+	}
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param width 盤面の幅(ブロックの幅以上)
+	 * @param height 盤面の高さ(ブロックの高さ以上)
+	 */
+	public Board( int width, int height ) {
+		
+		if ( !isValidSize( width, height ) ) {
+			throw new IllegalArgumentException( "盤面のサイズが不正です。:" + width + "x" + height );
+		}
+		
+		_width = width;
+		_height = height;
+		_words = ( width + WORD_BITS - 1 ) / WORD_BITS;
+		_colorWords = ( width + COLORS_PER_WORD - 1 ) / COLORS_PER_WORD;
+		_slots = new int[ height ];
+		_cells = new long[ height * _words ];
+		_colors = new long[ height * _colorWords ];
+		_counts = new int[ height ];
+		_removed = new int[ height ];
+		
+		for ( int y = 0; y < height; y++ ) {
+			_slots[ y ] = y;
+		}
+		_top = height;
+	}
+	
+	/**
+	 * 盤面を空にする。
+	 */
+	public void clear() {
+		
+		for ( int y = _top; y < _height; y++ ) {
+			clearSlot( _slots[ y ] );
+		}
+		_top = _height;
+	}
+	
+	/**
+	 * 格納位置の行を空にする。
+	 * 
+	 * @param slot 格納位置
+	 */
+	private void clearSlot( int slot ) {
+		
+		for ( int w = 0, base = slot * _words; w < _words; w++ ) {
+			_cells[ base + w ] = 0;
+		}
+		for ( int w = 0, base = slot * _colorWords; w < _colorWords; w++ ) {
+			_colors[ base + w ] = 0;
+		}
+		_counts[ slot ] = 0;
+	}
+	
+	/**
+	 * ブロックの構成情報の1行をビットマスクに変換する。
+	 * 
+	 * @param line ブロックの構成情報の1行
+	 * @return ビットマスク(ビットxが列xに対応)
+	 */
+	protected static int toRowMask( short[] line ) {
+		
+		int mask = 0;
+		
+		for ( int x = 0; x < line.length; x++ ) {
+			if ( line[ x ] == 1 ) {
+				mask |= 1 << x;
+			}
+		}
+		
+		return mask;
+	}
+	
+	/**
+	 * 行ごとのビットマスクで表したブロックを指定位置に置けるか判定する。<br />
+	 * 
+	 * 盤面より上のマスは左右の壁の内側であれば空いているものとし、盤面より下には置けない。
+	 * 
+	 * @param x ブロックのX座標
+	 * @param y ブロックのY座標
+	 * @param rowMasks ブロックの行ごとのビットマスク(ビットxが列xに対応)
+	 * @return true:置ける、false:壁・床・他のブロックと重なる
+	 */
+	public boolean isMovable( int x, int y, int[] rowMasks ) {
+		
+		for ( int by = 0; by < rowMasks.length; by++ ) {
+			
+			int mask = rowMasks[ by ];
+			
+			if ( mask == 0 ) {
+				continue;
+			}
+			
+			// 左右の壁
+			if ( x + Integer.numberOfTrailingZeros( mask ) < 0 || x + 31 - Integer.numberOfLeadingZeros( mask ) >= _width ) {
+				return false;
+			}
+			
+			int row = y + by;
+			
+			if ( row >= _height ) {
+				return false;
+			}
+			
+			// 積み上がった行より上は空いている
+			if ( row < _top ) {
+				continue;
+			}
+			
+			if ( intersects( _slots[ row ], x, mask ) ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 格納位置の行とブロックの1行が重なるか判定する。
+	 * 
+	 * @param slot 格納位置
+	 * @param x ブロックのX座標
+	 * @param mask ブロックの1行のビットマスク(盤面の範囲内であること)
+	 * @return true:重なる
+	 */
+	private boolean intersects( int slot, int x, int mask ) {
+		
+		// 左端より左の列は空のため、マスクを左端にそろえる
+		long bits = ( x < 0 ) ? ( mask >>> -x ) : mask;
+		int column = Math.max( x, 0 );
+		int word = slot * _words + column / WORD_BITS;
+		int shift = column % WORD_BITS;
+		
+		if ( ( _cells[ word ] & ( bits << shift ) ) != 0 ) {
+			return true;
+		}
+		
+		// 次のワードにまたがる部分
+		long spill = ( shift == 0 ) ? 0 : ( bits >>> ( WORD_BITS - shift ) );
+		
+		return spill != 0 && ( _cells[ word + 1 ] & spill ) != 0;
+	}
+	
+	/**
+	 * 行ごとのビットマスクで表したブロックを盤面に固定する。<br />
+	 * 
+	 * 盤面より上にはみ出した部分は無視する。
+	 * 
+	 * @param x ブロックのX座標
+	 * @param y ブロックのY座標
+	 * @param rowMasks ブロックの行ごとのビットマスク(ビットxが列xに対応)
+	 * @param color ブロックの色
+	 */
+	public void fix( int x, int y, int[] rowMasks, int color ) {
+		
+		for ( int by = 0; by < rowMasks.length; by++ ) {
+			
+			int row = y + by;
+			int mask = rowMasks[ by ];
+			
+			if ( row < 0 || row >= _height || mask == 0 ) {
+				continue;
+			}
+			
+			for ( int bx = 0; mask >>> bx != 0; bx++ ) {
+				if ( ( mask & ( 1 << bx ) ) != 0 && x + bx >= 0 && x + bx < _width ) {
+					setCell( x + bx, row, color );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 指定の行が全て埋まっているか判定する。
+	 * 
+	 * @param y 行
+	 * @return true:埋まっている
+	 */
+	public boolean isFull( int y ) {
+		return _counts[ _slots[ y ] ] == _width;
+	}
+	
+	/**
+	 * 指定の行の埋まっているマス数を取得する。
+	 * 
+	 * @param y 行
+	 * @return マス数
+	 */
+	public int getFillCount( int y ) {
+		return _counts[ _slots[ y ] ];
+	}
+	
+	/**
+	 * 指定範囲の行のうち、そろった行を取り除く。<br />
+	 * 
+	 * ブロックを固定した行の範囲を指定する。範囲外の行はそろっていても判定しない。
+	 * 残す行は行番号ごとの格納位置のみを1回の走査で下へ詰め、取り除いた行は空にして上へ回す。
+	 * 走査は積み上がった最上行までとし、それより上の空の行は動かさない。
+	 * 
+	 * @param top 判定する最上行(盤面外は切り詰める)
+	 * @param bottom 判定する最下行(盤面外は切り詰める)
+	 * @return 取り除いた行数
+	 */
+	public int clearFullRows( int top, int bottom ) {
+		
+		top = Math.max( top, _top );
+		bottom = Math.min( bottom, _height - 1 );
+		
+		int cleared = 0;
+		
+		// 下から詰める。書き込み先は常に読み込み元以下のため上書き前に読み込める
+		int dest = bottom;
+		
+		for ( int y = bottom; y >= _top; y-- ) {
+			
+			int slot = _slots[ y ];
+			
+			if ( y >= top && _counts[ slot ] == _width ) {
+				clearSlot( slot );
+				_removed[ cleared++ ] = slot;
+				continue;
+			}
+			
+			// 取り除く行が無い間は位置が変わらないため書き込まない
+			if ( cleared == 0 ) {
+				if ( y < top ) {
+					return 0;
+				}
+			} else {
+				_slots[ dest ] = slot;
+			}
+			dest--;
+		}
+		
+		for ( int i = 0; i < cleared; i++ ) {
+			_slots[ dest-- ] = _removed[ i ];
+		}
+		
+		_top += cleared;
+		
+		return cleared;
+	}
+	
+	/**
+	 * 指定のマスにブロックがあるか判定する。
+	 * 
+	 * @param x 列
+	 * @param y 行
+	 * @return true:ブロックがある
+	 */
+	public boolean isFilled( int x, int y ) {
+		return ( _cells[ _slots[ y ] * _words + x / WORD_BITS ] & ( 1L << x ) ) != 0;
+	}
+	
+	/**
+	 * 指定のマスのブロックの色を取得する。
+	 * 
+	 * @param x 列
+	 * @param y 行
+	 * @return ブロックの色
+	 */
+	public int getColor( int x, int y ) {
+		long colors = _colors[ _slots[ y ] * _colorWords + x / COLORS_PER_WORD ];
+		return ( int ) ( ( colors >>> ( ( x % COLORS_PER_WORD ) * COLOR_BITS ) ) & COLOR_MASK );
+	}
+	
+	/**
+	 * 指定のマスにブロックを置く。
+	 * 
+	 * @param x 列
+	 * @param y 行
+	 * @param color ブロックの色
+	 */
+	public void setCell( int x, int y, int color ) {
+		
+		int slot = _slots[ y ];
+		
+		if ( !isFilled( x, y ) ) {
+			_cells[ slot * _words + x / WORD_BITS ] |= 1L << x;
+			_counts[ slot ]++;
+		}
+		setColor( slot, x, color );
+		
+		_top = Math.min( _top, y );
+	}
+	
+	/**
+	 * 指定のマスを空にする。
+	 * 
+	 * @param x 列
+	 * @param y 行
+	 */
+	public void clearCell( int x, int y ) {
+		
+		int slot = _slots[ y ];
+		
+		if ( isFilled( x, y ) ) {
+			_cells[ slot * _words + x / WORD_BITS ] &= ~( 1L << x );
+			_counts[ slot ]--;
+		}
+		setColor( slot, x, 0 );
+	}
+	
+	/**
+	 * 指定のマスの色を設定する。
+	 * 
+	 * @param slot 格納位置
+	 * @param x 列
+	 * @param color ブロックの色
+	 */
+	private void setColor( int slot, int x, int color ) {
+		int index = slot * _colorWords + x / COLORS_PER_WORD;
+		int shift = ( x % COLORS_PER_WORD ) * COLOR_BITS;
+		_colors[ index ] = ( _colors[ index ] & ~( COLOR_MASK << shift ) ) | ( ( color & COLOR_MASK ) << shift );
+	}
+	
+	/**
+	 * 指定範囲のマスを1マス1バイトで書き写す。<br />
+	 * 
+	 * 空のマスは0、ブロックのあるマスは色 + 1とする。描画用に表示範囲のみを書き写す場合に使用する。
+	 * 
+	 * @param left 範囲の左端の列
+	 * @param top 範囲の最上行
+	 * @param cols 範囲の列数
+	 * @param rows 範囲の行数
+	 * @param dest 書き写し先(列数 × 行数以上の長さ、行ごとに詰めて格納)
+	 */
+	public void copyTo( int left, int top, int cols, int rows, byte[] dest ) {
+		
+		for ( int vy = 0; vy < rows; vy++ ) {
+			
+			int y = top + vy;
+			int offset = vy * cols;
+			
+			for ( int vx = 0; vx < cols; vx++ ) {
+				int x = left + vx;
+				dest[ offset + vx ] = ( byte ) ( ( y >= _top && isFilled( x, y ) ) ? getColor( x, y ) + 1 : 0 );
+			}
+		}
+	}
+	
+	/**
+	 * 同じサイズの盤面の状態を書き写す。<br />
+	 * 
+	 * 書き写し元・先のどちらかで積み上がっている行のみを書き写す。
+	 * 
+	 * @param board 書き写し元の盤面
+	 */
+	public void copyFrom( Board board ) {
+		
+		if ( board._width != _width || board._height != _height ) {
+			throw new IllegalArgumentException( "盤面のサイズが異なります。" );
+		}
+		
+		for ( int y = Math.min( _top, board._top ); y < _height; y++ ) {
+			
+			int src = board._slots[ y ];
+			int dest = _slots[ y ];
+			
+			System.arraycopy( board._cells, src * _words, _cells, dest * _words, _words );
+			System.arraycopy( board._colors, src * _colorWords, _colors, dest * _colorWords, _colorWords );
+			_counts[ dest ] = board._counts[ src ];
+		}
+		
+		_top = board._top;
+	}
+	
+	/**
+	 * ブロックが置かれている可能性のある最上行を取得する。<br />
+	 * 
+	 * これより上の行は全て空である。ブロックが無い場合は盤面の高さを返す。
+	 * 
+	 * @return 行
+	 */
+	public int getTop() {
+		return _top;
+	}
+	
+	/**
+	 * 1行のマスのワード数を取得する。
+	 * 
+	 * @return ワード数
+	 */
+	public int getWordCount() {
+		return _words;
+	}
+	
+	/**
+	 * 指定の行のマスを1ワード分取得する。
+	 * 
+	 * @param y 行
+	 * @param word ワード番号
+	 * @return マス(ビットxが列(ワード番号 × 64 + x)に対応)
+	 */
+	public long getRowWord( int y, int word ) {
+		return _cells[ _slots[ y ] * _words + word ];
+	}
+	
+	/**
+	 * 盤面の幅を取得する。
+	 * 
+	 * @return 盤面の幅
+	 */
+	public int getWidth() {
+		return _width;
+	}
+	
+	/**
+	 * 盤面の高さを取得する。
+	 * 
+	 * @return 盤面の高さ
+	 */
+	public int getHeight() {
+		return _height;
+	}
+}
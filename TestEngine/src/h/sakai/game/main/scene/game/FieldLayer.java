@@ -0,0 +1,224 @@
+package h.sakai.game.main.scene.game;
+
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+import h.sakai.game.engine.SpriteAtlas;
+
+/**
+ * テトリスの盤面の描画キャッシュクラス<br />
+ * 
+ * 背景画像・背景ブロック・壁ブロックの変化しない部分を静的レイヤとして1度だけ画像に描画し、
+ * その上に固定済みのブロックを重ねた画像を保持する。
+ * 固定済みのブロックは前回描画した表示範囲のマスと比較し、変化した行のみを静的レイヤから描き直す。
+ * これにより変化の無いフレームの描画は画像1枚の転送のみとなる。
+ * 
+ * 画像は画面の環境に合わせた形式で作成し、転送の高速化をJava2Dに任せる。
+ * 静的レイヤは素材または表示範囲のサイズが変わった場合のみ作り直す。
+ * 描画スレッドからのみ使用すること。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class FieldLayer {
+	
+	/** 静的レイヤ(背景画像・背景ブロック・壁ブロック) */
+	private BufferedImage _staticImage = null;
+	
+	/** 静的レイヤに固定済みのブロックを重ねた画像 */
+	private BufferedImage _fieldImage = null;
+	
+	/** 静的レイヤの作成に使用した背景画像 */
+	private Image _bgImg = null;
+	
+	/** 静的レイヤの作成に使用したブロック画像 */
+	private SpriteAtlas _blockAtlas = null;
+	
+	/** 表示範囲の列数 */
+	private int _cols = -1;
+	
+	/** 表示範囲の行数 */
+	private int _rows = -1;
+	
+	/** 画像に描画済みの表示範囲のマス(空は0、ブロックは色 + 1) */
+	private byte[] _cells = new byte[ 0 ];
+	
+	/**
+	 * 静的レイヤのみを描画する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視オブジェクト
+	 * @param model ゲームモデル
+	 * @param snapshot 描画用スナップショット
+	 */
+	protected void drawStatic( Graphics g, ImageObserver imgObserver, Game model, GameSnapshot snapshot ) {
+		prepare( model, snapshot );
+		g.drawImage( _staticImage, 0, 0, imgObserver );
+	}
+	
+	/**
+	 * 静的レイヤと固定済みのブロックを描画する。<br />
+	 * 
+	 * 前回の描画から変化した行のみを描き直してから転送する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視オブジェクト
+	 * @param model ゲームモデル
+	 * @param snapshot 描画用スナップショット
+	 */
+	protected void drawField( Graphics g, ImageObserver imgObserver, Game model, GameSnapshot snapshot ) {
+		
+		prepare( model, snapshot );
+		
+		byte[] cells = snapshot.getCells();
+		
+		Graphics fieldG = null;
+		
+		try {
+			for ( int y = 0; y < _rows; y++ ) {
+				
+				if ( isSameRow( cells, y ) ) {
+					continue;
+				}
+				
+				if ( fieldG == null ) {
+					fieldG = _fieldImage.createGraphics();
+				}
+				
+				drawRow( fieldG, cells, y );
+				System.arraycopy( cells, y * _cols, _cells, y * _cols, _cols );
+			}
+		} finally {
+			if ( fieldG != null ) {
+				fieldG.dispose();
+			}
+		}
+		
+		g.drawImage( _fieldImage, 0, 0, imgObserver );
+	}
+	
+	/**
+	 * 素材と表示範囲のサイズが前回と異なる場合は静的レイヤを作り直す。
+	 * 
+	 * @param model ゲームモデル
+	 * @param snapshot 描画用スナップショット
+	 */
+	private void prepare( Game model, GameSnapshot snapshot ) {
+		
+		if ( _staticImage != null
+				&& _bgImg == model.getBg()
+				&& _blockAtlas == model.getBlockAtlas()
+				&& _cols == snapshot.getViewCols()
+				&& _rows == snapshot.getViewRows() ) {
+			return;
+		}
+		
+		_bgImg = model.getBg();
+		_blockAtlas = model.getBlockAtlas();
+		_cols = snapshot.getViewCols();
+		_rows = snapshot.getViewRows();
+		
+		_staticImage = createImage( model.getDisplayWidth(), model.getDisplayHeight() );
+		
+		Graphics g = _staticImage.createGraphics();
+		
+		try {
+			// 背景画像
+			g.drawImage( _bgImg, 0, 0, null );
+			
+			// 背景ブロック
+			int[] bgBlockPos = model.getBgBlockPos().getCoords();
+			for ( int i = 0, len = model.getBgBlockPos().size() * 2; i < len; i += 2 ) {
+				g.drawImage( model.getBgBlock(), bgBlockPos[ i ], bgBlockPos[ i + 1 ], null );
+			}
+			
+			// 壁ブロック
+			int[] wallBlockPos = model.getWallBlockPos().getCoords();
+			for ( int i = 0, len = model.getWallBlockPos().size() * 2; i < len; i += 2 ) {
+				_blockAtlas.draw( g, Game.WALL_SPRITE, wallBlockPos[ i ], wallBlockPos[ i + 1 ], null );
+			}
+		} finally {
+			g.dispose();
+		}
+		
+		// 固定済みのブロックの無い状態から始める
+		_fieldImage = createImage( _staticImage.getWidth(), _staticImage.getHeight() );
+		
+		g = _fieldImage.createGraphics();
+		try {
+			g.drawImage( _staticImage, 0, 0, null );
+		} finally {
+			g.dispose();
+		}
+		
+		_cells = new byte[ _cols * _rows ];
+	}
+	
+	/**
+	 * 描画済みの行と表示範囲の行が同じか判定する。
+	 * 
+	 * @param cells 表示範囲のマス
+	 * @param y 行
+	 * @return true:同じ
+	 */
+	private boolean isSameRow( byte[] cells, int y ) {
+		
+		for ( int i = y * _cols, end = i + _cols; i < end; i++ ) {
+			if ( cells[ i ] != _cells[ i ] ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 1行分を静的レイヤから描き直し、固定済みのブロックを重ねる。
+	 * 
+	 * @param g 描画先のグラフィックオブジェクト
+	 * @param cells 表示範囲のマス
+	 * @param y 行
+	 */
+	private void drawRow( Graphics g, byte[] cells, int y ) {
+		
+		int left = Game.BLOCK_SIZE;
+		int right = ( _cols + 1 ) * Game.BLOCK_SIZE;
+		int top = y * Game.BLOCK_SIZE;
+		int bottom = top + Game.BLOCK_SIZE;
+		
+		g.drawImage( _staticImage, left, top, right, bottom, left, top, right, bottom, null );
+		
+		for ( int x = 0; x < _cols; x++ ) {
+			
+			int cell = cells[ y * _cols + x ];
+			
+			// 色番号のスプライトを描画
+			if ( cell != 0 ) {
+				_blockAtlas.draw( g, cell - 1, ( x + 1 ) * Game.BLOCK_SIZE, top, null );
+			}
+		}
+	}
+	
+	/**
+	 * 描画用の不透明な画像を作成する。<br />
+	 * 
+	 * 画面がある場合は画面と同じ形式で作成し、ヘッドレスの場合は画面出力と同じ形式で作成する。
+	 * 
+	 * @param width 幅
+	 * @param height 高さ
+	 * @return 画像
+	 */
+	private static BufferedImage createImage( int width, int height ) {
+		
+		if ( GraphicsEnvironment.isHeadless() ) {
+			return new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB );
+		}
+		
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage( width, height, Transparency.OPAQUE );
+	}
+}
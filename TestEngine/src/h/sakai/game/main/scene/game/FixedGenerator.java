@@ -0,0 +1,74 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * 固定順によるブロックの出現順の生成クラス<br />
+ * 
+ * 指定した順番を繰り返す。動作確認やベンチマークで出現順を固定する場合に使用する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class FixedGenerator implements PieceGenerator {
+	
+	/** 出現順 */
+	private final int[] _sequence;
+	
+	/** 次に取り出す要素番号 */
+	private int _index = 0;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param sequence 出現順(ブロックの種類)
+	 */
+	public FixedGenerator( int... sequence ) {
+		
+		if ( sequence.length == 0 ) {
+			throw new IllegalArgumentException( "出現順が指定されていません。" );
+		}
+		
+		for ( int kind : sequence ) {
+			if ( kind < 0 || kind >= BlockShape.KIND_COUNT ) {
+				throw new IllegalArgumentException( "ブロックの種類が不正です。:" + kind );
+			}
+		}
+		
+		_sequence = sequence.clone();
+	}
+	
+	/**
+	 * @see PieceGenerator#next()
+	 */
+	@Override
+	public int next() {
+		
+		int kind = _sequence[ _index ];
+		_index = ( _index + 1 ) % _sequence.length;
+		
+		return kind;
+	}
+	
+	/**
+	 * @see PieceGenerator#getStateSize()
+	 */
+	@Override
+	public int getStateSize() {
+		return 1;
+	}
+	
+	/**
+	 * @see PieceGenerator#saveState(long[], int)
+	 */
+	@Override
+	public void saveState( long[] state, int offset ) {
+		state[ offset ] = _index;
+	}
+	
+	/**
+	 * @see PieceGenerator#restoreState(long[], int)
+	 */
+	@Override
+	public void restoreState( long[] state, int offset ) {
+		_index = ( int ) state[ offset ];
+	}
+}
@@ -1,713 +1,1005 @@
-package h.sakai.game.main.scene.game;
-
-import java.awt.AlphaComposite;
-import java.awt.Image;
-import java.awt.Point;
-import java.awt.event.KeyEvent;
-import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
-
-import javax.swing.ImageIcon;
-
-import h.sakai.game.engine.Sound;
-import h.sakai.game.engine.SystemProperty;
-import h.sakai.game.engine.scene.AbstractModel;
-
-/**
- * ゲームのモデルクラス(暫定でテトリス)
- * 
- * @author H.Sakai
- * @version V1.00 2012/12/31 新規作成
- */
-public class Game extends AbstractModel {
-	
-	/** 画面幅 */
-	private int _displayWidth = 0;
-	
-	/** 画面高さ */
-	private int _displayHeight = 0;
-	
-	/** 背景画像 */
-	private Image _bgImg = null;
-	
-	/** 背景ブロック画像 */
-	private Image _bgBlockImg = null;
-	
-	/** ブロック画像 */
-	private Image _blockImg = null;
-	
-	/** Press Enter画像 */
-	private Image _pressEnterImg = null;
-	
-	/** Ready画像 */
-	private Image _readyImg = null;
-	
-	/** GO!!!画像 */
-	private Image _goImg = null;
-	
-	/** 背景ブロック座標 */
-	private List< List< Integer > > _bgBlockPos = new ArrayList< List< Integer > >();
-	
-	/** 壁ブロック座標 */
-	private List< List< Integer > > _wallBlockPos = new ArrayList< List< Integer > >();
-	
-	/** Press Enter座標 */
-	private List< Integer > _pressEnterPos = new ArrayList< Integer >();
-	
-	/** Press Enter画像のα値 */
-	private AlphaComposite _pressEnterAlpha = null;
-	
-	/** ReadyGo座標 */
-	private List< Integer > _readyGoPos = new ArrayList< Integer >();
-	
-	/** ゲームオーバー座標 */
-	private List< List< Integer > > _gameOverPos = new ArrayList< List< Integer > >();
-	
-	/** Press Enter描画開始時間 */
-	private long _pressEnterStart = 0;
-	
-	/** Ready Go!!!描画開始時間 */
-	private long _readyGoStart = 0;
-	
-	/** GO!!!画像描画フラグ */
-	private boolean _isGo = false;
-	
-	/** ReadyGO!!!の描画制御シーケンス */
-	private int _animationSq = 0;
-	
-	/** ゲームBGM */
-	private Sound _bgm = null;
-	
-	/** ブロック固定SE */
-	private Sound _fixSe = null;
-	
-	/** ブロック削除SE */
-	private Sound _deleteSe = null;
-	
-	/** グリッド */
-	private short[][] _grid = null;
-	
-	/** グリッドのブロックカラー */
-	private short[][] _gridColor = null;
-	
-	/** ブロックオブジェクト */
-	private Block _block = null;
-	
-	/** テトリス開始時間 */
-	private long _tetrisStart = 0;
-	
-	/** ゲームオーバー開始時間 */
-	private long _gameOverStart = 0;
-	
-	/** ゲームオーバーの描画逆再生フラグ */
-	private boolean _isGameOverRev = false;
-	
-	/** ブロックの大きさ */
-	protected static final byte BLOCK_SIZE = 24;
-	
-	/** 壁ブロックの抜き取り位置 */
-	protected static final short WALL_BLOCK_POS = ( short ) ( 24 * 7 );
-	
-	/** グリッドサイズ：X方向 */
-	protected static final byte GRID_X = 10;
-	
-	/** グリッドサイズ：Y方向 */
-	protected static final byte GRID_Y = 16;
-	
-	/** Press Enterのα点滅時間 */
-	private static final short PRESS_ENTER_DRAW_TIME = 1000;
-	
-	/** Ready GO!!!のアニメーション時間 */
-	private static final short READY_GO_DRAW_TIME = 300;
-	
-	/** ブロックの移動時間 */
-	private static final short BLOCK_MOVE_TIME = 500;
-	
-	/** ゲームオーバーの詰み上がり時間 */
-	private static final short GAME_OVER_DRAW_TIME = 100;
-	
-	/**
-	 * コンストラクタ
-	 * 
-	 * @param startSqNo 開始シーン番号
-	 */
-	public Game(int startSqNo) {
-		super( startSqNo );
-		try {
-			_displayWidth = Integer.parseInt( SystemProperty.getInstance().getProperty( "width" ) );
-			_displayHeight = Integer.parseInt( SystemProperty.getInstance().getProperty( "height" ) );
-		} catch (Exception e) {
-			System.out.println( "設定ファイルの読み込みに失敗しました。" );
-		}
-	}
-	
-	/**
-	 * @see h.sakai.game.engine.scene.AbstractModel#init()
-	 */
-	@Override
-	public void init() {
-		
-		// グリッド初期化
-		_grid = new short[ GRID_Y ][ GRID_X ];
-		_gridColor = new short[ GRID_Y ][ GRID_X ];
-		
-		// ファイルパスルート
-		String filePathRoot = new File( "" ).getAbsolutePath();
-		
-		// 背景読み込み
-		ImageIcon bgIcon = new ImageIcon( filePathRoot + "/res/image/bg.png" );
-		_bgImg = bgIcon.getImage();
-		
-		// 背景ブロック読み込み
-		ImageIcon bgBlockIcon = new ImageIcon( filePathRoot + "/res/image/bgBlock.png" );
-		_bgBlockImg = bgBlockIcon.getImage();
-		
-		// 背景ブロック座標設定
-		for ( int i = 0, y = 0; i < 16; i++, y += 24 ) {
-			for ( int j = 0, x = 24; j < 10; j++, x += 24 ) {
-				List< Integer > pos = new ArrayList<Integer>();
-				pos.add( x );
-				pos.add( y );
-				_bgBlockPos.add( pos );
-			}
-		}
-		
-		// ブロック画像読み込み
-		ImageIcon blockIcon = new ImageIcon( filePathRoot + "/res/image/block.png" );
-		_blockImg = blockIcon.getImage();
-		
-		// 壁ブロック座標設定
-		for ( int i = 0, y = 0; i < 17; i++, y+= 24 ) {
-			for ( int j = 0, x = 0; j < 12; j++, x += 24 ) {
-				
-				// 最終行以外は両端のみ
-				if ( j > 0
-						&& j < 11
-						&& i < 16 ) {
-					continue;
-				}
-				
-				List< Integer > pos = new ArrayList<Integer>();
-				pos.add( x );
-				pos.add( y );
-				_wallBlockPos.add( pos );
-			}
-		}
-		
-		// Press Enter画像読み込み
-		ImageIcon pressEnterIcon = new ImageIcon( filePathRoot + "/res/image/press.png" );
-		_pressEnterImg = pressEnterIcon.getImage();
-		_pressEnterStart = System.currentTimeMillis();
-		_pressEnterPos.add( ( _displayWidth - _pressEnterImg.getWidth( null ) ) >> 1 );
-		_pressEnterPos.add( ( _displayHeight - _pressEnterImg.getHeight( null ) ) >> 1 );
-		
-		// Ready画像読み込み
-		ImageIcon readyIcon = new ImageIcon( filePathRoot + "/res/image/ready.png" );
-		_readyImg = readyIcon.getImage();
-		
-		// GO!!!画像読み込み
-		ImageIcon goIcon = new ImageIcon( filePathRoot + "/res/image/go.png" );
-		_goImg = goIcon.getImage();
-		
-		// BGM読み込み
-		_bgm = new Sound( filePathRoot + "/res/sound/bgm/Galaxy_loop.wav", true );
-		
-		// SE読み込み
-		_fixSe = new Sound( filePathRoot + "/res/sound/se/kachi.wav" );
-		_deleteSe = new Sound( filePathRoot + "/res/sound/se/delete.wav" );
-	}
-	
-	/**
-	 * スタートシーケンスのフレーム更新処理を実行する。
-	 * 
-	 * @param isPressEnter エンターキー押下フラグ
-	 */
-	protected void onUpdateStart( boolean isPressEnter ) {
-		
-		if ( !isPressEnter ) {
-			
-			long time = System.currentTimeMillis();
-			long lap = time - _pressEnterStart;
-			if ( lap > PRESS_ENTER_DRAW_TIME ) {
-				_pressEnterStart = time;
-				_pressEnterAlpha = AlphaComposite.getInstance( AlphaComposite.SRC_OVER, 1.0f );
-			} else {
-				int rate = 100 - ( int ) lap * 100 / PRESS_ENTER_DRAW_TIME;
-				float alpha = rate / 100.0f;
-				_pressEnterAlpha = AlphaComposite.getInstance( AlphaComposite.SRC_OVER, alpha );
-			}
-			
-		} else {
-			
-			moveSq( SceneGame.SQ_READY_GO );
-			
-			// アニメーション初期化
-			_readyGoPos.removeAll( _readyGoPos );
-			_readyGoPos.add( -_readyImg.getWidth( null ) );
-			_readyGoPos.add( ( _displayHeight - _readyImg.getHeight( null ) ) >> 1 );
-			_readyGoPos.add( -_goImg.getWidth( null ) );
-			_readyGoPos.add( ( _displayHeight - _goImg.getHeight( null ) ) >> 1 );
-			
-			_readyGoStart = System.currentTimeMillis();
-			
-			_animationSq = 0;
-			_isGo = false;
-		}
-	}
-	
-	/**
-	 * テトリス準備シーケンスのフレーム更新処理を実行する。
-	 */
-	protected void onUpdateReadyGo() {
-		
-		long time = System.currentTimeMillis();
-		long lap = time - _readyGoStart;
-		
-		if ( lap > READY_GO_DRAW_TIME + ( ( _animationSq == 1 ) ? 700 : 0 ) ) {
-			
-			_readyGoStart = time;
-			
-			if ( !_isGo ) {
-				
-				if ( _animationSq == 0 ) {
-					_animationSq = 1;
-				} else if ( _animationSq == 1 ) {
-					_animationSq = 2;
-				} else {
-					_isGo = true;
-					_animationSq = 0;
-				}
-				
-			} else {
-				
-				if ( _animationSq == 0 ) {
-					_animationSq = 1;
-				} else if ( _animationSq == 1 ) {
-					_animationSq = 2;
-				} else {
-					
-					moveSq( SceneGame.SQ_TETRIS );
-					
-					// テトリス画面の初期化
-					_bgm.play();
-					_block = new Block( this );
-					_tetrisStart = System.currentTimeMillis();
-				}
-			}
-			
-		} else {
-			
-			int rate = ( int ) lap * 100 / READY_GO_DRAW_TIME;
-			
-			Image img = ( _isGo ) ? _goImg : _readyImg;
-			int xIdx = ( _isGo ) ? 2 : 0;
-			
-			if ( _animationSq == 0 ) {
-				
-				int startPos = -img.getWidth( null );
-				int endPos = ( _displayWidth - img.getWidth( null ) ) >> 1;
-				
-				int x = ( endPos - startPos ) * rate / 100 + startPos;
-				_readyGoPos.set( xIdx, x );
-				
-			} else if ( _animationSq == 2 ) {
-				
-				int startPos = ( _displayWidth - img.getWidth( null ) ) >> 1;
-				int endPos = _displayWidth;
-				
-				int x = ( endPos - startPos ) * rate / 100 + startPos;
-				_readyGoPos.set( xIdx, x );
-			}
-		}
-	}
-	
-	/**
-	 * テトリスのフレーム更新処理を実行する。
-	 * 
-	 * @param keyCode キーコード
-	 */
-	protected void onUpdateTetris( int keyCode ) {
-		
-		long time = System.currentTimeMillis();
-		
-		if ( keyCode != 0 ) {
-			
-			int dir = Block.DOWN;
-			switch ( keyCode ) {
-				case KeyEvent.VK_LEFT:
-					dir = Block.LEFT;
-					break;
-				case KeyEvent.VK_RIGHT:
-					dir = Block.RIGHT;
-					break;
-				case KeyEvent.VK_DOWN:
-					dir = Block.DOWN;
-					break;
-				case KeyEvent.VK_SPACE:
-					dir = Block.TURN;
-					break;
-			}
-			
-			execTetris( dir );
-			
-		} else {
-			if ( time - _tetrisStart > BLOCK_MOVE_TIME ) {
-				execTetris( Block.DOWN );
-				_tetrisStart = time;
-			}
-		}
-	}
-	
-	/**
-	 * テトリスのゲーム実行処理。
-	 * 
-	 * @param dir 移動方向
-	 */
-	private void execTetris( int dir ) {
-		
-		if ( dir == Block.TURN ) {
-			_block.turn();
-		} else {
-			
-			boolean isFixed = _block.move( dir, this );
-			
-			if ( isFixed ) {
-				
-				// ブロック固定SE再生
-				_fixSe.play();
-				
-				// 次のブロックへ
-				_block = new Block( this );
-			}
-			
-			// そろった行があれば削除
-			deleteLine();
-			
-			// 積みあがり判定⇒ゲームオーバーかどうか
-			if ( isStacked() ) {
-				// ゲームオーバーシーケンスへ
-				moveSq( SceneGame.SQ_GAMEOVER );
-				_gameOverStart = System.currentTimeMillis();
-				_gameOverPos.removeAll( _gameOverPos );
-				_isGameOverRev = false;
-			}
-		}
-	}
-	
-	/**
-	 * ゲームオーバーシーケンスのフレーム更新処理を実行する。
-	 */
-	protected void onUpdateGameOver() {
-		
-		long time = System.currentTimeMillis();
-		int lap = ( int ) ( time - _gameOverStart );
-		
-		if ( lap > GAME_OVER_DRAW_TIME ) {
-			
-			if ( !_isGameOverRev ) {
-				
-				if ( _gameOverPos.size() == GRID_Y ) {
-					_isGameOverRev = true;
-					_grid = new short[ GRID_Y ][ GRID_X ];
-					_gridColor = new short[ GRID_Y ][ GRID_X ];
-				} else {
-					List< Integer > pos = new ArrayList<Integer>();
-					for ( int i = 0; i < GRID_X; i++ ) {
-						pos.add( i );
-					}
-					_gameOverPos.add( pos );
-				}
-				
-			} else {
-				
-				if ( _gameOverPos.size() == 0 ) {
-					moveSq( SceneGame.SQ_START );
-					_pressEnterStart = System.currentTimeMillis();
-				} else {
-					_gameOverPos.remove( _gameOverPos.size() - 1 );
-				}
-			}
-			
-			_gameOverStart = time;
-		}
-	}
-	
-	/**
-	 * ブロックを移動できるか調べる
-	 * 
-	 * @param newPos ブロックの移動先座標
-	 * @param block ブロック
-	 * @return 移動できたらtrue
-	 */
-	public boolean isMovable( Point newPos, short[][] block ) {
-		
-		for ( int y = 0; y < Block.MAX_Y; y++ ) {
-			
-			for ( int x = 0; x < Block.MAX_X; x++ ) {
-				
-				// ブロックは4x4の配列で構成されているため、構成部分を調べる
-				if ( block[y][x] == 1 ) {
-					
-					// そのマスが画面の上端外のとき
-					if ( newPos.y + y < 0 ) {
-						
-						// ブロックのあるマスが壁のある0列目以下または
-						// MAX_X-1列目以上に移動しようとしてる場合は移動できない
-						if ( !( newPos.x + x > -1 && newPos.x + x < GRID_X ) ) {
-							return false;
-						}
-						
-					} else if (newPos.y + y < GRID_Y
-							&& newPos.x + x > -1
-							&& newPos.x + x < GRID_X
-							&& _grid[ newPos.y + y ][ newPos.x + x ] == 1 ) {
-						// 移動先にすでにブロックがある場合は移動できない
-						return false;
-					} else if ( !( newPos.x + x > -1 && newPos.x + x < GRID_X ) ) {
-						return false;
-					} else if ( newPos.y + y > GRID_Y - 1 ) {
-						return false;
-					}
-				}
-			}
-		}
-		
-		return true;
-	}
-	
-	/**
-	 * 落ちきったブロックをグリッドに固定する
-	 * 
-	 * @param pos ブロックの位置
-	 * @param block ブロック
-	 * @param color ブロックの色
-	 */
-	protected void fixBlock( Point pos, short[][] block, byte imageNo ) {
-		
-		for ( int y = 0; y < Block.MAX_Y; y++ ) {
-			
-			for ( int x = 0; x < Block.MAX_X; x++ ) {
-				
-				if ( block[ y ][ x ] == 1 ) {
-					
-					if ( pos.y + y < 0 ) {
-						continue;
-					}
-					
-					_grid[ pos.y + y ][ pos.x + x ] = 1;
-					_gridColor[ pos.y + y ][ pos.x + x ] = imageNo;
-				}
-			}
-		}
-	}
-	
-	/**
-	 * 行が揃ったら揃った分だけ削除する。
-	 */
-	protected void deleteLine() {
-		
-		boolean isDelete = false;
-		
-		for ( int y = 0; y < GRID_Y; y++ ) {
-			
-			int count = 0;
-			for ( int x = 0; x < GRID_X; x++ ) {
-				// ブロックがある列を数える
-				if (_grid[ y ][ x ] == 1)
-					count++;
-			}
-			
-			// そろった行が見つかった
-			if ( count == GRID_X ) {
-				
-				// その行を消去
-				for ( int x = 1; x < GRID_X; x++ ) {
-					_grid[ y ][ x ] = 0;
-					if ( !isDelete ) {
-						isDelete = true;
-					}
-				}
-				
-				// それより上の行を落とす
-				for ( int ty = y; ty > 0; ty-- ) {
-					for (int tx = 0; tx < GRID_X; tx++ ) {
-						_grid[ ty ][ tx ] = _grid[ ty - 1 ][ tx ];
-						_gridColor[ ty ][tx] = _gridColor[ ty - 1 ][ tx ];
-					}
-				}
-			}
-		}
-		
-		if ( isDelete ) {
-			_deleteSe.play();
-		}
-	}
-	
-	/**
-	 * ブロックが積み上がってるか
-	 * 
-	 * @return 最上行まで積み上がってたらtrue
-	 */
-	protected boolean isStacked() {
-		
-		boolean isStack = _grid[ 0 ][ 4 ] == 1;
-		if ( !isStack ) {
-			isStack = _grid[ 0 ][ 5 ] == 1;
-		}
-		
-		return isStack;
-	}
-	
-	/**
-	 * @see h.sakai.game.engine.scene.AbstractModel#updateAnimation()
-	 */
-	@Override
-	public void updateAnimation() {
-		
-	}
-	
-	/**
-	 * 背景画像を取得する。
-	 * 
-	 * @return 背景画像
-	 */
-	protected Image getBg() {
-		return _bgImg;
-	}
-	
-	/**
-	 * 背景ブロック画像を取得する。
-	 * 
-	 * @return 背景ブロック画像
-	 */
-	protected Image getBgBlock() {
-		return _bgBlockImg;
-	}
-	
-	/**
-	 * ブロック画像を取得する。
-	 * 
-	 * @return ブロック画像
-	 */
-	protected Image getBlock() {
-		return _blockImg;
-	}
-	
-	/**
-	 * Press Enter画像を取得する。
-	 * 
-	 * @return Press Enter画像
-	 */
-	protected Image getPressEnter() {
-		return _pressEnterImg;
-	}
-	
-	/**
-	 * Ready画像を取得する。
-	 * 
-	 * @return Ready画像
-	 */
-	protected Image getReady() {
-		return _readyImg;
-	}
-	
-	/**
-	 * GO!!!画像を取得する。
-	 * 
-	 * @return GO!!!画像
-	 */
-	protected Image getGo() {
-		return _goImg;
-	}
-	
-	/**
-	 * Press Enter画像のα値を取得する。
-	 * 
-	 * @return Press Enter画像のα値
-	 */
-	protected AlphaComposite getPressEnterAlpha() {
-		return _pressEnterAlpha;
-	}
-	
-	/**
-	 * 背景ブロック座標を取得する。
-	 * 
-	 * @return 背景ブロック座標
-	 */
-	protected List< List< Integer > > getBgBlockPos() {
-		return _bgBlockPos;
-	}
-	
-	/**
-	 * 壁ブロック座標を取得する。
-	 * 
-	 * @return 壁ブロック座標
-	 */
-	protected List< List< Integer > > getWallBlockPos() {
-		return _wallBlockPos;
-	}
-	
-	/**
-	 * Press Enter座標を取得する。
-	 * 
-	 * @return Press Enter座標
-	 */
-	protected List< Integer > getPressEnterPos() {
-		return _pressEnterPos;
-	}
-	
-	/**
-	 * Ready GO!!!画像座標を取得する。
-	 * 
-	 * @return Ready GO!!!画像座標
-	 */
-	protected List< Integer > getReadyGoPos() {
-		return _readyGoPos;
-	}
-	
-	/**
-	 * ゲームオーバー座標を取得する。
-	 * 
-	 * @return ゲームオーバー座標
-	 */
-	protected List< List< Integer > > getGameOverPos() {
-		return _gameOverPos;
-	}
-	
-	/**
-	 * グリッドを取得する。
-	 * 
-	 * @return グリッド
-	 */
-	protected short[][] getGrid() {
-		return _grid;
-	}
-	
-	/**
-	 * グリッドの色を取得する。
-	 * 
-	 * @return グリッド色
-	 */
-	protected short[][] getGridColor() {
-		return _gridColor;
-	}
-	
-	/**
-	 * GO!!!画像描画フラグを取得する。
-	 * 
-	 * @return GO!!!画像描画フラグ
-	 */
-	protected boolean isGo() {
-		return _isGo;
-	}
-	
-	/**
-	 * ブロックオブジェクトを取得する。
-	 * 
-	 * @return ブロックオブジェクト
-	 */
-	protected Block getBlockObj() {
-		return _block;
-	}
-}
+package h.sakai.game.main.scene.game;
+
+import java.awt.AlphaComposite;
+import java.awt.Image;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Future;
+
+import h.sakai.game.engine.AssetManager;
+import h.sakai.game.engine.GameClock;
+import h.sakai.game.engine.GameRandom;
+import h.sakai.game.engine.Music;
+import h.sakai.game.engine.PointBuffer;
+import h.sakai.game.engine.Sound;
+import h.sakai.game.engine.SpriteAtlas;
+import h.sakai.game.engine.SystemProperty;
+import h.sakai.game.engine.scene.AbstractModel;
+
+/**
+ * ゲームのモデルクラス(暫定でテトリス)
+ * 
+ * @author H.Sakai
+ * @version V1.00 2012/12/31 新規作成
+ */
+public class Game extends AbstractModel {
+	
+	/** 画面幅 */
+	private int _displayWidth = 0;
+	
+	/** 画面高さ */
+	private int _displayHeight = 0;
+	
+	/** 背景画像 */
+	private Image _bgImg = null;
+	
+	/** 背景ブロック画像 */
+	private Image _bgBlockImg = null;
+	
+	/** ブロック画像(色ごと・壁のスプライト) */
+	private SpriteAtlas _blockAtlas = null;
+	
+	/** Press Enter画像 */
+	private Image _pressEnterImg = null;
+	
+	/** Ready画像 */
+	private Image _readyImg = null;
+	
+	/** GO!!!画像 */
+	private Image _goImg = null;
+	
+	/** 背景ブロック座標 */
+	private final PointBuffer _bgBlockPos = new PointBuffer( DEFAULT_GRID_X * DEFAULT_GRID_Y );
+	
+	/** 壁ブロック座標 */
+	private final PointBuffer _wallBlockPos = new PointBuffer( DEFAULT_GRID_Y * 2 + DEFAULT_GRID_X + 2 );
+	
+	/** Press Enter座標 */
+	private final PointBuffer _pressEnterPos = new PointBuffer( 1 );
+	
+	/** Press Enter画像のα値 */
+	private AlphaComposite _pressEnterAlpha = null;
+	
+	/** ReadyGo座標(Ready、GO!!!の順) */
+	private final PointBuffer _readyGoPos = new PointBuffer( 2 );
+	
+	/** ゲームオーバー座標(埋めた行ごとの左端の列と行) */
+	private final PointBuffer _gameOverPos = new PointBuffer( DEFAULT_GRID_Y );
+	
+	/** Press Enter描画開始時間 */
+	private long _pressEnterStart = 0;
+	
+	/** Ready Go!!!描画開始時間 */
+	private long _readyGoStart = 0;
+	
+	/** GO!!!画像描画フラグ */
+	private boolean _isGo = false;
+	
+	/** ReadyGO!!!の描画制御シーケンス */
+	private int _animationSq = 0;
+	
+	/** ゲームBGM */
+	private Music _bgm = null;
+	
+	/** ブロック固定SE */
+	private Sound _fixSe = null;
+	
+	/** ブロック削除SE */
+	private Sound _deleteSe = null;
+	
+	/** 素材(画像・音声)の読み込み有無 */
+	private final boolean _isLoadAssets;
+	
+	/** 盤面 */
+	private Board _board = null;
+	
+	/** ブロックの出現順の生成方法 */
+	private String _pieceGeneratorName = PIECE_GENERATOR_BAG;
+	
+	/** ブロックの出現順の生成(未設定の場合は初期化時に生成方法から作成) */
+	private PieceGenerator _pieceGenerator = null;
+	
+	/** ブロックの出現順の先読みキュー */
+	private PieceQueue _pieceQueue = null;
+	
+	/** ブロックオブジェクト */
+	private Block _block = null;
+	
+	/** グリッドサイズ：X方向 */
+	private int _gridX = DEFAULT_GRID_X;
+	
+	/** グリッドサイズ：Y方向 */
+	private int _gridY = DEFAULT_GRID_Y;
+	
+	/** 画面に表示する列数 */
+	private int _viewCols = DEFAULT_GRID_X;
+	
+	/** 画面に表示する行数 */
+	private int _viewRows = DEFAULT_GRID_Y;
+	
+	/** 固定したブロック数 */
+	private int _fixCount = 0;
+	
+	/** 削除した行数 */
+	private int _lineCount = 0;
+	
+	/** テトリス開始時間 */
+	private long _tetrisStart = 0;
+	
+	/** ゲームオーバー開始時間 */
+	private long _gameOverStart = 0;
+	
+	/** ゲームオーバーの描画逆再生フラグ */
+	private boolean _isGameOverRev = false;
+	
+	/** ブロックの大きさ */
+	protected static final byte BLOCK_SIZE = 24;
+	
+	/** 壁ブロックのスプライト番号 */
+	protected static final int WALL_SPRITE = 7;
+	
+	/** グリッドサイズ：X方向(初期値) */
+	protected static final int DEFAULT_GRID_X = 10;
+	
+	/** グリッドサイズ：Y方向(初期値) */
+	protected static final int DEFAULT_GRID_Y = 16;
+	
+	/** ブロックの先読み数 */
+	protected static final int PREVIEW_COUNT = 3;
+	
+	/** ブロックの出現順の生成方法：7種1巡 */
+	private static final String PIECE_GENERATOR_BAG = "bag";
+	
+	/** ブロックの出現順の生成方法：一様乱数 */
+	private static final String PIECE_GENERATOR_UNIFORM = "uniform";
+	
+	/** Press Enterのα点滅時間 */
+	private static final short PRESS_ENTER_DRAW_TIME = 1000;
+	
+	/** Ready GO!!!のアニメーション時間 */
+	private static final short READY_GO_DRAW_TIME = 300;
+	
+	/** ブロックの移動時間 */
+	private static final short BLOCK_MOVE_TIME = 500;
+	
+	/** ゲームオーバーの詰み上がり時間 */
+	private static final short GAME_OVER_DRAW_TIME = 100;
+	
+	/** 素材ファイルパス：背景画像 */
+	private static final String BG_IMAGE_PATH = "res/image/bg.png";
+	
+	/** 素材ファイルパス：背景ブロック画像 */
+	private static final String BG_BLOCK_IMAGE_PATH = "res/image/bgBlock.png";
+	
+	/** 素材ファイルパス：ブロック画像 */
+	private static final String BLOCK_IMAGE_PATH = "res/image/block.png";
+	
+	/** 素材ファイルパス：Press Enter画像 */
+	private static final String PRESS_ENTER_IMAGE_PATH = "res/image/press.png";
+	
+	/** 素材ファイルパス：Ready画像 */
+	private static final String READY_IMAGE_PATH = "res/image/ready.png";
+	
+	/** 素材ファイルパス：GO!!!画像 */
+	private static final String GO_IMAGE_PATH = "res/image/go.png";
+	
+	/** 素材ファイルパス：ゲームBGM */
+	private static final String BGM_PATH = "res/sound/bgm/Galaxy_loop.wav";
+	
+	/** BGMのフェード時間(ミリ秒) */
+	private static final int BGM_FADE_MILLIS = 500;
+	
+	/** 素材ファイルパス：ブロック固定SE */
+	private static final String FIX_SE_PATH = "res/sound/se/kachi.wav";
+	
+	/** 素材ファイルパス：ブロック削除SE */
+	private static final String DELETE_SE_PATH = "res/sound/se/delete.wav";
+	
+	/** ゲームシーンのプリロード定義ファイルパス */
+	public static final String PRELOAD_MANIFEST_PATH = "res/manifest/game.txt";
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param startSqNo 開始シーン番号
+	 */
+	public Game(int startSqNo) {
+		super( startSqNo );
+		_isLoadAssets = true;
+		try {
+			_displayWidth = SystemProperty.getInstance().getInt( "width", _displayWidth );
+			_displayHeight = SystemProperty.getInstance().getInt( "height", _displayHeight );
+		} catch (Exception e) {
+			System.out.println( "設定ファイルの読み込みに失敗しました。" );
+		}
+		
+		// 未設定の場合は7種1巡
+		try {
+			_pieceGeneratorName = SystemProperty.getInstance().getProperty( "pieceGenerator" );
+		} catch (Exception e) {
+			_pieceGeneratorName = PIECE_GENERATOR_BAG;
+		}
+		
+		// 未設定の場合は10×16
+		try {
+			_gridX = SystemProperty.getInstance().getInt( "boardWidth", DEFAULT_GRID_X );
+			_gridY = SystemProperty.getInstance().getInt( "boardHeight", DEFAULT_GRID_Y );
+		} catch (Exception e) {
+			_gridX = DEFAULT_GRID_X;
+			_gridY = DEFAULT_GRID_Y;
+		}
+		
+		if ( !Board.isValidSize( _gridX, _gridY ) ) {
+			System.out.println( "盤面のサイズが不正です。" + DEFAULT_GRID_X + "×" + DEFAULT_GRID_Y + "で作成します。:" + _gridX + "x" + _gridY );
+			_gridX = DEFAULT_GRID_X;
+			_gridY = DEFAULT_GRID_Y;
+		}
+	}
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 設定ファイルと素材を読み込まない、盤面のみのモデルを作成する。
+	 * 描画・音声を伴わない一括シミュレーションで使用し、{@link #startTetris()}からテトリスシーケンスのみを実行する。
+	 * 
+	 * @param pieceGenerator ブロックの出現順の生成
+	 */
+	protected Game( PieceGenerator pieceGenerator ) {
+		this( pieceGenerator, DEFAULT_GRID_X, DEFAULT_GRID_Y );
+	}
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 設定ファイルと素材を読み込まない、指定サイズの盤面のみのモデルを作成する。
+	 * 
+	 * @param pieceGenerator ブロックの出現順の生成
+	 * @param gridX グリッドサイズ：X方向
+	 * @param gridY グリッドサイズ：Y方向
+	 */
+	protected Game( PieceGenerator pieceGenerator, int gridX, int gridY ) {
+		super( SceneGame.SQ_START );
+		_isLoadAssets = false;
+		_pieceGenerator = pieceGenerator;
+		_gridX = gridX;
+		_gridY = gridY;
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.scene.AbstractModel#init()
+	 */
+	@Override
+	public void init() {
+		
+		// 盤面初期化
+		_board = new Board( _gridX, _gridY );
+		_viewCols = _gridX;
+		_viewRows = _gridY;
+		
+		// 記録・再生で同じブロック順になるよう、エンジンの乱数の種から生成
+		if ( _pieceGenerator == null ) {
+			_pieceGenerator = createPieceGenerator( _pieceGeneratorName, GameRandom.getSeed() );
+		}
+		_pieceQueue = new PieceQueue( _pieceGenerator, PREVIEW_COUNT );
+		
+		// 盤面のみのモデルは素材を読み込まない
+		if ( !_isLoadAssets ) {
+			return;
+		}
+		
+		// 全ての素材の読み込みを要求してから完了を待つ(プリロード済みの場合は待たない)
+		AssetManager assets = AssetManager.getInstance();
+		Future< Image > bgFuture = assets.loadImage( BG_IMAGE_PATH );
+		Future< Image > bgBlockFuture = assets.loadImage( BG_BLOCK_IMAGE_PATH );
+		Future< Image > blockFuture = assets.loadImage( BLOCK_IMAGE_PATH );
+		Future< Image > pressEnterFuture = assets.loadImage( PRESS_ENTER_IMAGE_PATH );
+		Future< Image > readyFuture = assets.loadImage( READY_IMAGE_PATH );
+		Future< Image > goFuture = assets.loadImage( GO_IMAGE_PATH );
+		Future< Sound > fixSeFuture = assets.loadSound( FIX_SE_PATH, false );
+		Future< Sound > deleteSeFuture = assets.loadSound( DELETE_SE_PATH, false );
+		
+		// 背景読み込み
+		_bgImg = awaitImage( bgFuture, BG_IMAGE_PATH, 1, 1 );
+		
+		// 背景ブロック読み込み
+		_bgBlockImg = awaitImage( bgBlockFuture, BG_BLOCK_IMAGE_PATH, 1, 1 );
+		
+		// 画面に収まらない盤面は操作中のブロック付近のみ表示
+		_viewCols = Math.min( _gridX, _displayWidth / BLOCK_SIZE - 2 );
+		_viewRows = Math.min( _gridY, _displayHeight / BLOCK_SIZE - 1 );
+		
+		// 背景ブロック座標設定
+		for ( int i = 0, y = 0; i < _viewRows; i++, y += 24 ) {
+			for ( int j = 0, x = 24; j < _viewCols; j++, x += 24 ) {
+				_bgBlockPos.add( x, y );
+			}
+		}
+		
+		// ブロック画像読み込み(切り出せない場合は全スプライトを透明で作成)
+		Image blockImg = awaitImage( blockFuture, BLOCK_IMAGE_PATH, ( WALL_SPRITE + 1 ) * BLOCK_SIZE, BLOCK_SIZE );
+		try {
+			_blockAtlas = new SpriteAtlas( "block", blockImg, BLOCK_SIZE, BLOCK_SIZE );
+		} catch (IllegalArgumentException e) {
+			System.out.println( e.getMessage() );
+			_blockAtlas = new SpriteAtlas( "block", createBlankImage( BLOCK_IMAGE_PATH, ( WALL_SPRITE + 1 ) * BLOCK_SIZE, BLOCK_SIZE ),
+					BLOCK_SIZE, BLOCK_SIZE );
+		}
+		
+		// 未設定の場合は登録する
+		boolean isJmx = true;
+		try {
+			isJmx = SystemProperty.getInstance().getBoolean( "jmx", true );
+		} catch (Exception e) {
+			isJmx = true;
+		}
+		if ( isJmx ) {
+			_blockAtlas.register();
+		}
+		
+		// 壁ブロック座標設定
+		for ( int i = 0, y = 0; i < _viewRows + 1; i++, y+= 24 ) {
+			for ( int j = 0, x = 0; j < _viewCols + 2; j++, x += 24 ) {
+				
+				// 最終行以外は両端のみ
+				if ( j > 0
+						&& j < _viewCols + 1
+						&& i < _viewRows ) {
+					continue;
+				}
+				
+				_wallBlockPos.add( x, y );
+			}
+		}
+		
+		// Press Enter画像読み込み
+		_pressEnterImg = awaitImage( pressEnterFuture, PRESS_ENTER_IMAGE_PATH, 1, 1 );
+		_pressEnterStart = GameClock.currentTimeMillis();
+		_pressEnterAlpha = AlphaComposite.getInstance( AlphaComposite.SRC_OVER, 1.0f );
+		_pressEnterPos.add( ( _displayWidth - _pressEnterImg.getWidth( null ) ) >> 1, ( _displayHeight - _pressEnterImg.getHeight( null ) ) >> 1 );
+		
+		// Ready画像読み込み
+		_readyImg = awaitImage( readyFuture, READY_IMAGE_PATH, 1, 1 );
+		
+		// GO!!!画像読み込み
+		_goImg = awaitImage( goFuture, GO_IMAGE_PATH, 1, 1 );
+		
+		// BGMはメモリマップして再生時に読み出すため、読み込みを待たない
+		// ループ区間は未設定の場合はファイルのsmplチャンクまたは曲全体
+		int loopStart = 0;
+		int loopEnd = 0;
+		try {
+			loopStart = SystemProperty.getInstance().getInt( "bgmLoopStart", 0 );
+			loopEnd = SystemProperty.getInstance().getInt( "bgmLoopEnd", 0 );
+		} catch (Exception e) {
+			loopStart = 0;
+			loopEnd = 0;
+		}
+		_bgm = new Music( BGM_PATH, loopStart, loopEnd );
+		
+		// SE読み込み
+		_fixSe = AssetManager.await( fixSeFuture );
+		_deleteSe = AssetManager.await( deleteSeFuture );
+	}
+	
+	/**
+	 * 素材の参照を解放する。<br />
+	 * 
+	 * BGMをフェードアウトし、読み込んだ素材の参照を素材の管理クラスに返す。
+	 * 次のシーンがBGMを再生した場合はクロスフェードになる。
+	 * 素材を読み込まないモデルの場合は何もしない。
+	 */
+	public void dispose() {
+		
+		if ( !_isLoadAssets || _board == null ) {
+			return;
+		}
+		
+		if ( _bgm != null ) {
+			_bgm.stop( BGM_FADE_MILLIS );
+		}
+		
+		AssetManager assets = AssetManager.getInstance();
+		assets.release( BG_IMAGE_PATH );
+		assets.release( BG_BLOCK_IMAGE_PATH );
+		assets.release( BLOCK_IMAGE_PATH );
+		assets.release( PRESS_ENTER_IMAGE_PATH );
+		assets.release( READY_IMAGE_PATH );
+		assets.release( GO_IMAGE_PATH );
+		assets.release( FIX_SE_PATH );
+		assets.release( DELETE_SE_PATH );
+	}
+	
+	/**
+	 * スタートシーケンスのフレーム更新処理を実行する。
+	 * 
+	 * @param isPressEnter エンターキー押下フラグ
+	 */
+	protected void onUpdateStart( boolean isPressEnter ) {
+		
+		if ( !isPressEnter ) {
+			
+			long time = GameClock.currentTimeMillis();
+			long lap = time - _pressEnterStart;
+			if ( lap > PRESS_ENTER_DRAW_TIME ) {
+				_pressEnterStart = time;
+				_pressEnterAlpha = AlphaComposite.getInstance( AlphaComposite.SRC_OVER, 1.0f );
+			} else {
+				int rate = 100 - ( int ) lap * 100 / PRESS_ENTER_DRAW_TIME;
+				float alpha = rate / 100.0f;
+				_pressEnterAlpha = AlphaComposite.getInstance( AlphaComposite.SRC_OVER, alpha );
+			}
+			
+		} else {
+			
+			moveSq( SceneGame.SQ_READY_GO );
+			
+			// アニメーション初期化
+			_readyGoPos.clear();
+			_readyGoPos.add( -_readyImg.getWidth( null ), ( _displayHeight - _readyImg.getHeight( null ) ) >> 1 );
+			_readyGoPos.add( -_goImg.getWidth( null ), ( _displayHeight - _goImg.getHeight( null ) ) >> 1 );
+			
+			_readyGoStart = GameClock.currentTimeMillis();
+			
+			_animationSq = 0;
+			_isGo = false;
+		}
+	}
+	
+	/**
+	 * テトリス準備シーケンスのフレーム更新処理を実行する。
+	 */
+	protected void onUpdateReadyGo() {
+		
+		long time = GameClock.currentTimeMillis();
+		long lap = time - _readyGoStart;
+		
+		if ( lap > READY_GO_DRAW_TIME + ( ( _animationSq == 1 ) ? 700 : 0 ) ) {
+			
+			_readyGoStart = time;
+			
+			if ( !_isGo ) {
+				
+				if ( _animationSq == 0 ) {
+					_animationSq = 1;
+				} else if ( _animationSq == 1 ) {
+					_animationSq = 2;
+				} else {
+					_isGo = true;
+					_animationSq = 0;
+				}
+				
+			} else {
+				
+				if ( _animationSq == 0 ) {
+					_animationSq = 1;
+				} else if ( _animationSq == 1 ) {
+					_animationSq = 2;
+				} else {
+					
+					startTetris();
+				}
+			}
+			
+		} else {
+			
+			int rate = ( int ) lap * 100 / READY_GO_DRAW_TIME;
+			
+			Image img = ( _isGo ) ? _goImg : _readyImg;
+			int index = ( _isGo ) ? 1 : 0;
+			
+			if ( _animationSq == 0 ) {
+				
+				int startPos = -img.getWidth( null );
+				int endPos = ( _displayWidth - img.getWidth( null ) ) >> 1;
+				
+				int x = ( endPos - startPos ) * rate / 100 + startPos;
+				_readyGoPos.setX( index, x );
+				
+			} else if ( _animationSq == 2 ) {
+				
+				int startPos = ( _displayWidth - img.getWidth( null ) ) >> 1;
+				int endPos = _displayWidth;
+				
+				int x = ( endPos - startPos ) * rate / 100 + startPos;
+				_readyGoPos.setX( index, x );
+			}
+		}
+	}
+	
+	/**
+	 * テトリスシーケンスを開始する。
+	 */
+	protected void startTetris() {
+		
+		moveSq( SceneGame.SQ_TETRIS );
+		
+		// テトリス画面の初期化
+		if ( _bgm != null ) {
+			_bgm.play( BGM_FADE_MILLIS );
+		}
+		_block = new Block( this );
+		_fixCount = 0;
+		_lineCount = 0;
+		_tetrisStart = GameClock.currentTimeMillis();
+	}
+	
+	/**
+	 * テトリスのフレーム更新処理を実行する。
+	 * 
+	 * @param keyCode キーコード
+	 */
+	protected void onUpdateTetris( int keyCode ) {
+		
+		long time = GameClock.currentTimeMillis();
+		
+		if ( keyCode != 0 ) {
+			
+			int dir = Block.DOWN;
+			switch ( keyCode ) {
+				case KeyEvent.VK_LEFT:
+					dir = Block.LEFT;
+					break;
+				case KeyEvent.VK_RIGHT:
+					dir = Block.RIGHT;
+					break;
+				case KeyEvent.VK_DOWN:
+					dir = Block.DOWN;
+					break;
+				case KeyEvent.VK_SPACE:
+					dir = Block.TURN;
+					break;
+			}
+			
+			execTetris( dir );
+			
+		} else {
+			if ( time - _tetrisStart > BLOCK_MOVE_TIME ) {
+				execTetris( Block.DOWN );
+				_tetrisStart = time;
+			}
+		}
+	}
+	
+	/**
+	 * テトリスのゲーム実行処理。
+	 * 
+	 * @param dir 移動方向
+	 */
+	private void execTetris( int dir ) {
+		
+		if ( dir == Block.TURN ) {
+			_block.turn();
+		} else {
+			
+			boolean isFixed = _block.move( dir, this );
+			
+			// 盤面はブロックの固定時のみ変化するため、固定しなければ判定不要
+			if ( !isFixed ) {
+				return;
+			}
+			
+			// ブロック固定SE再生
+			play( _fixSe );
+			
+			// 固定した行のうちそろった行があれば削除
+			int top = _block.getY();
+			_lineCount += deleteLine( top, top + Block.MAX_Y - 1 );
+			_fixCount++;
+			
+			// 次のブロックへ
+			_block.reset();
+			
+			// 積みあがり判定⇒ゲームオーバーかどうか
+			if ( isStacked() ) {
+				// ゲームオーバーシーケンスへ
+				moveSq( SceneGame.SQ_GAMEOVER );
+				_gameOverStart = GameClock.currentTimeMillis();
+				_gameOverPos.clear();
+				_isGameOverRev = false;
+			}
+		}
+	}
+	
+	/**
+	 * ゲームオーバーシーケンスのフレーム更新処理を実行する。
+	 */
+	protected void onUpdateGameOver() {
+		
+		long time = GameClock.currentTimeMillis();
+		int lap = ( int ) ( time - _gameOverStart );
+		
+		if ( lap > GAME_OVER_DRAW_TIME ) {
+			
+			if ( !_isGameOverRev ) {
+				
+				if ( _gameOverPos.size() == _viewRows ) {
+					_isGameOverRev = true;
+					_board.clear();
+				} else {
+					// 下の行から埋める
+					_gameOverPos.add( 0, _viewRows - 1 - _gameOverPos.size() );
+				}
+				
+			} else {
+				
+				if ( _gameOverPos.size() == 0 ) {
+					moveSq( SceneGame.SQ_START );
+					_pressEnterStart = GameClock.currentTimeMillis();
+				} else {
+					_gameOverPos.removeLast();
+				}
+			}
+			
+			_gameOverStart = time;
+		}
+	}
+	
+	/**
+	 * ブロックを移動できるか調べる
+	 * 
+	 * @param x ブロックの移動先X座標
+	 * @param y ブロックの移動先Y座標
+	 * @param rowMasks ブロックの行ごとのビットマスク
+	 * @return 移動できたらtrue
+	 */
+	public boolean isMovable( int x, int y, int[] rowMasks ) {
+		return _board.isMovable( x, y, rowMasks );
+	}
+	
+	/**
+	 * 落ちきったブロックをグリッドに固定する
+	 * 
+	 * @param x ブロックのX座標
+	 * @param y ブロックのY座標
+	 * @param rowMasks ブロックの行ごとのビットマスク
+	 * @param imageNo ブロックの色
+	 */
+	protected void fixBlock( int x, int y, int[] rowMasks, byte imageNo ) {
+		_board.fix( x, y, rowMasks, imageNo );
+	}
+	
+	/**
+	 * 行が揃ったら揃った分だけ削除する。<br />
+	 * 
+	 * ブロックを固定した行の範囲のみ判定する。
+	 * 
+	 * @param top 判定する最上行
+	 * @param bottom 判定する最下行
+	 * @return 削除した行数
+	 */
+	protected int deleteLine( int top, int bottom ) {
+		
+		int cleared = _board.clearFullRows( top, bottom );
+		
+		if ( cleared > 0 ) {
+			play( _deleteSe );
+		}
+		
+		return cleared;
+	}
+	
+	/**
+	 * ブロックが積み上がってるか
+	 * 
+	 * @return 最上行まで積み上がってたらtrue
+	 */
+	protected boolean isStacked() {
+		return isStacked( _board );
+	}
+	
+	/**
+	 * 盤面が最上行まで積み上がってるか
+	 * 
+	 * @param board 盤面
+	 * @return 最上行まで積み上がってたらtrue
+	 */
+	protected static boolean isStacked( Board board ) {
+		int x = Block.getStartX( board.getWidth() );
+		return board.isFilled( x, 0 ) || board.isFilled( x + 1, 0 );
+	}
+	
+	/**
+	 * 音声を再生する。
+	 * 
+	 * @param sound 音声(素材を読み込まないモデルの場合はnull)
+	 */
+	private static void play( Sound sound ) {
+		if ( sound != null ) {
+			sound.play();
+		}
+	}
+	
+	/**
+	 * 画像の読み込みを待つ。<br />
+	 * 
+	 * 読み込みに失敗した場合は、描画しても何も表示されない透明の画像で代用する。
+	 * 
+	 * @param future 読み込み結果
+	 * @param path 画像ファイルパス
+	 * @param width 代用する画像の幅
+	 * @param height 代用する画像の高さ
+	 * @return 画像
+	 */
+	private static Image awaitImage( Future< Image > future, String path, int width, int height ) {
+		
+		Image image = AssetManager.await( future );
+		
+		return ( image != null ) ? image : createBlankImage( path, width, height );
+	}
+	
+	/**
+	 * 読み込めなかった画像の代わりに透明の画像を作成する。
+	 * 
+	 * @param path 代用する画像ファイルパス
+	 * @param width 幅
+	 * @param height 高さ
+	 * @return 透明の画像
+	 */
+	private static Image createBlankImage( String path, int width, int height ) {
+		System.out.println( "画像を読み込めないため、透明の画像で代用します。:" + path );
+		return new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+	}
+	
+	/**
+	 * 生成方法の名称からブロックの出現順の生成を作成する。
+	 * 
+	 * @param name 生成方法(bag：7種1巡、uniform：一様乱数)
+	 * @param seed 乱数の種
+	 * @return ブロックの出現順の生成
+	 */
+	private static PieceGenerator createPieceGenerator( String name, long seed ) {
+		
+		if ( PIECE_GENERATOR_UNIFORM.equals( name ) ) {
+			return new UniformGenerator( seed );
+		}
+		
+		if ( !PIECE_GENERATOR_BAG.equals( name ) ) {
+			System.out.println( "ブロックの出現順の生成方法が不正です。7種1巡で生成します。:" + name );
+		}
+		
+		return new BagGenerator( seed );
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.scene.AbstractModel#updateAnimation()
+	 */
+	@Override
+	public void updateAnimation() {
+		
+	}
+	
+	/**
+	 * 背景画像を取得する。
+	 * 
+	 * @return 背景画像
+	 */
+	protected Image getBg() {
+		return _bgImg;
+	}
+	
+	/**
+	 * 背景ブロック画像を取得する。
+	 * 
+	 * @return 背景ブロック画像
+	 */
+	protected Image getBgBlock() {
+		return _bgBlockImg;
+	}
+	
+	/**
+	 * ブロック画像を取得する。<br />
+	 * 
+	 * スプライト番号は色番号、壁ブロックは{@link #WALL_SPRITE}。
+	 * 
+	 * @return ブロック画像
+	 */
+	protected SpriteAtlas getBlockAtlas() {
+		return _blockAtlas;
+	}
+	
+	/**
+	 * Press Enter画像を取得する。
+	 * 
+	 * @return Press Enter画像
+	 */
+	protected Image getPressEnter() {
+		return _pressEnterImg;
+	}
+	
+	/**
+	 * Ready画像を取得する。
+	 * 
+	 * @return Ready画像
+	 */
+	protected Image getReady() {
+		return _readyImg;
+	}
+	
+	/**
+	 * GO!!!画像を取得する。
+	 * 
+	 * @return GO!!!画像
+	 */
+	protected Image getGo() {
+		return _goImg;
+	}
+	
+	/**
+	 * Press Enter画像のα値を取得する。
+	 * 
+	 * @return Press Enter画像のα値
+	 */
+	protected AlphaComposite getPressEnterAlpha() {
+		return _pressEnterAlpha;
+	}
+	
+	/**
+	 * 背景ブロック座標を取得する。
+	 * 
+	 * @return 背景ブロック座標
+	 */
+	protected PointBuffer getBgBlockPos() {
+		return _bgBlockPos;
+	}
+	
+	/**
+	 * 壁ブロック座標を取得する。
+	 * 
+	 * @return 壁ブロック座標
+	 */
+	protected PointBuffer getWallBlockPos() {
+		return _wallBlockPos;
+	}
+	
+	/**
+	 * Press Enter座標を取得する。
+	 * 
+	 * @return Press Enter座標
+	 */
+	protected PointBuffer getPressEnterPos() {
+		return _pressEnterPos;
+	}
+	
+	/**
+	 * Ready GO!!!画像座標を取得する。
+	 * 
+	 * @return Ready GO!!!画像座標
+	 */
+	protected PointBuffer getReadyGoPos() {
+		return _readyGoPos;
+	}
+	
+	/**
+	 * ゲームオーバー座標を取得する。
+	 * 
+	 * @return ゲームオーバー座標
+	 */
+	protected PointBuffer getGameOverPos() {
+		return _gameOverPos;
+	}
+	
+	/**
+	 * 画面の幅を取得する。
+	 * 
+	 * @return 画面の幅
+	 */
+	protected int getDisplayWidth() {
+		return _displayWidth;
+	}
+	
+	/**
+	 * 画面の高さを取得する。
+	 * 
+	 * @return 画面の高さ
+	 */
+	protected int getDisplayHeight() {
+		return _displayHeight;
+	}
+	
+	/**
+	 * 画面に表示する列数を取得する。
+	 * 
+	 * @return 列数(グリッドサイズ：X方向以下)
+	 */
+	protected int getViewCols() {
+		return _viewCols;
+	}
+	
+	/**
+	 * 画面に表示する行数を取得する。
+	 * 
+	 * @return 行数(グリッドサイズ：Y方向以下)
+	 */
+	protected int getViewRows() {
+		return _viewRows;
+	}
+	
+	/**
+	 * 画面に表示する範囲の左端の列を取得する。<br />
+	 * 
+	 * 操作中のブロックが中央に来るよう、盤面からはみ出さない範囲で表示範囲を動かす。
+	 * 
+	 * @return 列
+	 */
+	protected int getViewLeft() {
+		int center = ( _block != null ) ? _block.getX() + Block.MAX_X / 2 : _gridX / 2;
+		return Math.max( 0, Math.min( center - _viewCols / 2, _gridX - _viewCols ) );
+	}
+	
+	/**
+	 * 画面に表示する範囲の最上行を取得する。<br />
+	 * 
+	 * 操作中のブロックが中央に来るよう、盤面からはみ出さない範囲で表示範囲を動かす。
+	 * 
+	 * @return 行
+	 */
+	protected int getViewTop() {
+		int center = ( _block != null ) ? _block.getY() + Block.MAX_Y / 2 : 0;
+		return Math.max( 0, Math.min( center - _viewRows / 2, _gridY - _viewRows ) );
+	}
+	
+	/**
+	 * 盤面を取得する。
+	 * 
+	 * @return 盤面
+	 */
+	protected Board getBoard() {
+		return _board;
+	}
+	
+	/**
+	 * GO!!!画像描画フラグを取得する。
+	 * 
+	 * @return GO!!!画像描画フラグ
+	 */
+	protected boolean isGo() {
+		return _isGo;
+	}
+	
+	/**
+	 * ブロックの出現順の生成を設定する。<br />
+	 * 
+	 * 設定ファイルの生成方法に代えて使用する。{@link #init()}の前に設定すること。
+	 * 
+	 * @param pieceGenerator ブロックの出現順の生成
+	 */
+	public void setPieceGenerator( PieceGenerator pieceGenerator ) {
+		_pieceGenerator = pieceGenerator;
+	}
+	
+	/**
+	 * ブロックの出現順の先読みキューを取得する。
+	 * 
+	 * @return 先読みキュー
+	 */
+	protected PieceQueue getPieceQueue() {
+		return _pieceQueue;
+	}
+	
+	/**
+	 * テトリス開始から固定したブロック数を取得する。
+	 * 
+	 * @return 固定したブロック数
+	 */
+	protected int getFixCount() {
+		return _fixCount;
+	}
+	
+	/**
+	 * テトリス開始から削除した行数を取得する。
+	 * 
+	 * @return 削除した行数
+	 */
+	protected int getLineCount() {
+		return _lineCount;
+	}
+	
+	/**
+	 * ブロックオブジェクトを取得する。
+	 * 
+	 * @return ブロックオブジェクト
+	 */
+	protected Block getBlockObj() {
+		return _block;
+	}
+}
@@ -0,0 +1,285 @@
+package h.sakai.game.main.scene.game;
+
+import java.awt.AlphaComposite;
+
+import h.sakai.game.engine.PointBuffer;
+
+/**
+ * ゲームモデルの描画用スナップショット<br />
+ * 
+ * 更新スレッドがフレーム更新ごとにモデルの描画に必要な状態を書き写し、
+ * 描画スレッドはこのスナップショットのみを参照して描画する。
+ * インスタンスは使い回すため、書き写し時にオブジェクトを生成しない。
+ * 盤面は画面に表示する範囲のみを書き写すため、盤面のサイズによらず書き写す量は一定となる。
+ * 画像や背景座標など初期化後に変化しない情報はモデルから直接参照する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class GameSnapshot {
+	
+	/** 書き写し済みフラグ */
+	private boolean _isValid = false;
+	
+	/** シーケンス番号 */
+	private int _sqNo = 0;
+	
+	/** 表示範囲のマス(空は0、ブロックは色 + 1、行ごとに詰めて格納) */
+	private byte[] _cells = new byte[ 0 ];
+	
+	/** 表示範囲の左端の列 */
+	private int _viewLeft = 0;
+	
+	/** 表示範囲の最上行 */
+	private int _viewTop = 0;
+	
+	/** 表示範囲の列数 */
+	private int _viewCols = 0;
+	
+	/** 表示範囲の行数 */
+	private int _viewRows = 0;
+	
+	/** 操作中ブロックの有無 */
+	private boolean _hasBlock = false;
+	
+	/** 操作中ブロックの構成情報 */
+	private short[][] _block = null;
+	
+	/** 操作中ブロックのX座標 */
+	private int _blockX = 0;
+	
+	/** 操作中ブロックのY座標 */
+	private int _blockY = 0;
+	
+	/** 操作中ブロックの色番号 */
+	private int _blockImageNo = 0;
+	
+	/** Press Enter画像のα値 */
+	private AlphaComposite _pressEnterAlpha = null;
+	
+	/** Press EnterのX座標 */
+	private int _pressEnterX = 0;
+	
+	/** Press EnterのY座標 */
+	private int _pressEnterY = 0;
+	
+	/** Ready GO!!!画像座標(Ready、GO!!!の順) */
+	private final PointBuffer _readyGoPos = new PointBuffer( 2 );
+	
+	/** GO!!!画像描画フラグ */
+	private boolean _isGo = false;
+	
+	/** ゲームオーバーで埋めた行数 */
+	private int _gameOverRows = 0;
+	
+	/**
+	 * モデルの状態を書き写す。
+	 * 
+	 * @param game ゲームモデル
+	 */
+	protected void copyFrom( Game game ) {
+		
+		_sqNo = game.getSqNo();
+		
+		_viewLeft = game.getViewLeft();
+		_viewTop = game.getViewTop();
+		_viewCols = game.getViewCols();
+		_viewRows = game.getViewRows();
+		
+		// 表示範囲のサイズは初期化後に変わらないため、初回のみ作成
+		if ( _cells.length != _viewCols * _viewRows ) {
+			_cells = new byte[ _viewCols * _viewRows ];
+		}
+		game.getBoard().copyTo( _viewLeft, _viewTop, _viewCols, _viewRows, _cells );
+		
+		Block block = game.getBlockObj();
+		_hasBlock = ( block != null );
+		
+		if ( _hasBlock ) {
+			// ブロックの構成情報は形状テーブルの共有配列で書き換えられることはないため参照のみ保持する
+			_block = block.getBlock();
+			_blockX = block.getX();
+			_blockY = block.getY();
+			_blockImageNo = block.getImageNo();
+		}
+		
+		_pressEnterAlpha = game.getPressEnterAlpha();
+		
+		PointBuffer pressEnterPos = game.getPressEnterPos();
+		if ( pressEnterPos.size() > 0 ) {
+			_pressEnterX = pressEnterPos.getX( 0 );
+			_pressEnterY = pressEnterPos.getY( 0 );
+		}
+		
+		_readyGoPos.copyFrom( game.getReadyGoPos() );
+		
+		_isGo = game.isGo();
+		_gameOverRows = game.getGameOverPos().size();
+		
+		_isValid = true;
+	}
+	
+	/**
+	 * 書き写し済みか判定する。
+	 * 
+	 * @return true:書き写し済み、false:未作成
+	 */
+	protected boolean isValid() {
+		return _isValid;
+	}
+	
+	/**
+	 * シーケンス番号を取得する。
+	 * 
+	 * @return シーケンス番号
+	 */
+	protected int getSqNo() {
+		return _sqNo;
+	}
+	
+	/**
+	 * 表示範囲のマスを取得する。<br />
+	 * 
+	 * 表示範囲内の(列, 行)のマスは添字(行 × 列数 + 列)に格納し、空は0、ブロックは色 + 1とする。
+	 * 
+	 * @return 表示範囲のマス
+	 */
+	protected byte[] getCells() {
+		return _cells;
+	}
+	
+	/**
+	 * 表示範囲の左端の列を取得する。
+	 * 
+	 * @return 列
+	 */
+	protected int getViewLeft() {
+		return _viewLeft;
+	}
+	
+	/**
+	 * 表示範囲の最上行を取得する。
+	 * 
+	 * @return 行
+	 */
+	protected int getViewTop() {
+		return _viewTop;
+	}
+	
+	/**
+	 * 表示範囲の列数を取得する。
+	 * 
+	 * @return 列数
+	 */
+	protected int getViewCols() {
+		return _viewCols;
+	}
+	
+	/**
+	 * 表示範囲の行数を取得する。
+	 * 
+	 * @return 行数
+	 */
+	protected int getViewRows() {
+		return _viewRows;
+	}
+	
+	/**
+	 * 操作中ブロックの有無を取得する。
+	 * 
+	 * @return true:操作中ブロックあり
+	 */
+	protected boolean hasBlock() {
+		return _hasBlock;
+	}
+	
+	/**
+	 * 操作中ブロックの構成情報を取得する。
+	 * 
+	 * @return ブロックの構成情報
+	 */
+	protected short[][] getBlock() {
+		return _block;
+	}
+	
+	/**
+	 * 操作中ブロックのX座標を取得する。
+	 * 
+	 * @return X座標
+	 */
+	protected int getBlockX() {
+		return _blockX;
+	}
+	
+	/**
+	 * 操作中ブロックのY座標を取得する。
+	 * 
+	 * @return Y座標
+	 */
+	protected int getBlockY() {
+		return _blockY;
+	}
+	
+	/**
+	 * 操作中ブロックの色番号を取得する。
+	 * 
+	 * @return 色番号
+	 */
+	protected int getBlockImageNo() {
+		return _blockImageNo;
+	}
+	
+	/**
+	 * Press Enter画像のα値を取得する。
+	 * 
+	 * @return Press Enter画像のα値
+	 */
+	protected AlphaComposite getPressEnterAlpha() {
+		return _pressEnterAlpha;
+	}
+	
+	/**
+	 * Press EnterのX座標を取得する。
+	 * 
+	 * @return X座標
+	 */
+	protected int getPressEnterX() {
+		return _pressEnterX;
+	}
+	
+	/**
+	 * Press EnterのY座標を取得する。
+	 * 
+	 * @return Y座標
+	 */
+	protected int getPressEnterY() {
+		return _pressEnterY;
+	}
+	
+	/**
+	 * Ready GO!!!画像座標を取得する。
+	 * 
+	 * @return Ready、GO!!!の順の座標
+	 */
+	protected PointBuffer getReadyGoPos() {
+		return _readyGoPos;
+	}
+	
+	/**
+	 * GO!!!画像描画フラグを取得する。
+	 * 
+	 * @return GO!!!画像描画フラグ
+	 */
+	protected boolean isGo() {
+		return _isGo;
+	}
+	
+	/**
+	 * ゲームオーバーで埋めた行数を取得する。
+	 * 
+	 * @return 行数
+	 */
+	protected int getGameOverRows() {
+		return _gameOverRows;
+	}
+}
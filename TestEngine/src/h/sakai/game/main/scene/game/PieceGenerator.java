@@ -0,0 +1,44 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * ブロックの出現順の生成インタフェース<br />
+ * 
+ * ゲームモデルが保持し、ブロックが固定されるたびに次のブロックの種類を取り出す。
+ * 生成状態はlong配列に書き出して復元できるため、シミュレーションや再生で
+ * オブジェクトを生成せずに出現順を分岐・巻き戻しできる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface PieceGenerator {
+	
+	/**
+	 * 次のブロックの種類を生成する。
+	 * 
+	 * @return ブロックの種類(0～{@link BlockShape#KIND_COUNT} - 1)
+	 */
+	int next();
+	
+	/**
+	 * 生成状態の書き出しに必要な要素数を取得する。
+	 * 
+	 * @return 要素数
+	 */
+	int getStateSize();
+	
+	/**
+	 * 生成状態を書き出す。
+	 * 
+	 * @param state 書き出し先
+	 * @param offset 書き出し開始位置
+	 */
+	void saveState( long[] state, int offset );
+	
+	/**
+	 * {@link #saveState(long[], int)}で書き出した生成状態に戻す。
+	 * 
+	 * @param state 読み込み元
+	 * @param offset 読み込み開始位置
+	 */
+	void restoreState( long[] state, int offset );
+}
@@ -0,0 +1,128 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * ブロックの出現順の先読みキュー<br />
+ * 
+ * 生成した出現順を指定数だけ先読みして保持し、次のブロックの表示や思考に使えるようにする。
+ * 生成状態と先読み中のブロックをまとめて書き出し・復元できる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class PieceQueue {
+	
+	/** 先読み数の上限(先読み中のブロックを1つのlongに詰められる数) */
+	protected static final int MAX_SIZE = 16;
+	
+	/** 1種類の書き出しビット数 */
+	private static final int KIND_BITS = 4;
+	
+	/** 出現順の生成 */
+	private final PieceGenerator _generator;
+	
+	/** 先読み中のブロック(リングバッファ) */
+	private final int[] _queue;
+	
+	/** 先頭の要素番号 */
+	private int _head = 0;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param generator 出現順の生成
+	 * @param size 先読み数
+	 */
+	public PieceQueue( PieceGenerator generator, int size ) {
+		
+		if ( size < 1 || size > MAX_SIZE ) {
+			throw new IllegalArgumentException( "先読み数が不正です。:" + size );
+		}
+		
+		_generator = generator;
+		_queue = new int[ size ];
+		
+		for ( int i = 0; i < size; i++ ) {
+			_queue[ i ] = generator.next();
+		}
+	}
+	
+	/**
+	 * 先頭のブロックを取り出し、末尾を補充する。
+	 * 
+	 * @return ブロックの種類
+	 */
+	public int next() {
+		
+		int kind = _queue[ _head ];
+		_queue[ _head ] = _generator.next();
+		_head = ( _head + 1 ) % _queue.length;
+		
+		return kind;
+	}
+	
+	/**
+	 * 先読み中のブロックを取り出さずに参照する。
+	 * 
+	 * @param index 先頭からの位置(0が次に取り出すブロック)
+	 * @return ブロックの種類
+	 */
+	public int peek( int index ) {
+		return _queue[ ( _head + index ) % _queue.length ];
+	}
+	
+	/**
+	 * 先読み数を取得する。
+	 * 
+	 * @return 先読み数
+	 */
+	public int getSize() {
+		return _queue.length;
+	}
+	
+	/**
+	 * 状態の書き出しに必要な要素数を取得する。
+	 * 
+	 * @return 要素数
+	 */
+	public int getStateSize() {
+		return _generator.getStateSize() + 1;
+	}
+	
+	/**
+	 * 生成状態と先読み中のブロックを書き出す。
+	 * 
+	 * @param state 書き出し先
+	 * @param offset 書き出し開始位置
+	 */
+	public void saveState( long[] state, int offset ) {
+		
+		_generator.saveState( state, offset );
+		
+		// 先頭から順に詰めるため先頭位置は書き出さない
+		long packed = 0;
+		for ( int i = 0; i < _queue.length; i++ ) {
+			packed |= ( long ) peek( i ) << ( KIND_BITS * i );
+		}
+		
+		state[ offset + _generator.getStateSize() ] = packed;
+	}
+	
+	/**
+	 * {@link #saveState(long[], int)}で書き出した状態に戻す。
+	 * 
+	 * @param state 読み込み元
+	 * @param offset 読み込み開始位置
+	 */
+	public void restoreState( long[] state, int offset ) {
+		
+		_generator.restoreState( state, offset );
+		
+		long packed = state[ offset + _generator.getStateSize() ];
+		int mask = ( 1 << KIND_BITS ) - 1;
+		
+		_head = 0;
+		for ( int i = 0; i < _queue.length; i++ ) {
+			_queue[ i ] = ( int ) ( packed >>> ( KIND_BITS * i ) ) & mask;
+		}
+	}
+}
@@ -1,210 +1,345 @@
-package h.sakai.game.main.scene.game;
-
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Image;
-import java.awt.event.KeyEvent;
-import java.awt.image.ImageObserver;
-import java.util.List;
-
-import h.sakai.game.engine.Scene;
-
-/**
- * ゲームシーンクラス(暫定でテトリス)
- * 
- * @author H.Sakai
- * @version V1.00 2012/12/31 新規作成
- */
-public class SceneGame extends Scene {
-	
-	/** 本シーンのモデルクラス */
-	private Game _model = null;
-	
-	/** シーケンス番号：スタートシーケンス */
-	protected static final byte SQ_START    = 1;
-	
-	/** シーケンス番号：テトリス準備シーケンス */
-	protected static final byte SQ_READY_GO = 2;
-	
-	/** シーケンス番号：テトリスシーケンス */
-	protected static final byte SQ_TETRIS   = 3;
-	
-	/** シーケンス番号：ゲームオーバーシーケンス */
-	protected static final byte SQ_GAMEOVER = 4;
-	
-	/**
-	 * コンストラクタ<br />
-	 * 
-	 * モデルのインスタンス作成
-	 */
-	public SceneGame() {
-		_model = new Game( SQ_START );
-	}
-	
-	/**
-	 * @see h.sakai.game.engine.Scene#processInitialize()
-	 */
-	@Override
-	public void processInitialize() {
-		_model.init();
-	}
-	
-	/**
-	 * @see h.sakai.game.engine.Scene#processUpdaste(boolean)
-	 */
-	@Override
-	public void processUpdaste( boolean isEnterSub ) {
-		
-		switch ( _model.getSqNo() ) {
-			case SQ_START:
-				_model.onUpdateStart( isPressKey( KeyEvent.VK_ENTER ) );
-				break;
-			case SQ_READY_GO:
-				_model.onUpdateReadyGo();
-				break;
-			case SQ_TETRIS:
-				
-				int keyCode = 0;
-				
-				if ( isPressKey( KeyEvent.VK_LEFT ) ) {
-					keyCode = KeyEvent.VK_LEFT;
-				} else if ( isPressKey( KeyEvent.VK_RIGHT ) ) {
-					keyCode = KeyEvent.VK_RIGHT;
-				} else if ( isPressKey( KeyEvent.VK_DOWN ) ) {
-					keyCode = KeyEvent.VK_DOWN;
-				} else if ( isPressKey( KeyEvent.VK_SPACE ) ) {
-					keyCode = KeyEvent.VK_SPACE;
-				}
-				
-				_model.onUpdateTetris( keyCode );
-				break;
-			case SQ_GAMEOVER:
-				_model.onUpdateGameOver();
-				break;
-		}
-	}
-	
-	/**
-	 * @see h.sakai.game.engine.Scene#processDraw(Graphics, boolean)
-	 */
-	@Override
-	public void processDraw(Graphics g, ImageObserver imgObserver, boolean isEnterSub) {
-		
-		// 背景画像
-		g.drawImage( _model.getBg(), 0, 0, imgObserver );
-		
-		// 背景ブロック描画
-		for ( int i = 0, len = _model.getBgBlockPos().size(); i < len; i++ ) {
-			List< Integer > pos = _model.getBgBlockPos().get( i );
-			g.drawImage( _model.getBgBlock(), pos.get( 0 ), pos.get( 1 ), imgObserver );
-		}
-		
-		// 壁ブロック描画
-		for ( int i = 0, len = _model.getWallBlockPos().size(); i < len; i++ ) {
-			List< Integer > pos = _model.getWallBlockPos().get( i );
-			int x = pos.get( 0 );
-			int y = pos.get( 1 );
-			g.drawImage( _model.getBlock(), x, y , x + Game.BLOCK_SIZE, y + Game.BLOCK_SIZE,
-					Game.WALL_BLOCK_POS, 0, Game.WALL_BLOCK_POS + Game.BLOCK_SIZE, Game.BLOCK_SIZE, imgObserver );
-		}
-		
-		if ( _model.getSqNo() == SQ_START ) {
-			drawEnterKey( g, imgObserver );
-		} else if ( _model.getSqNo() == SQ_READY_GO ) {
-			drawReadyGo( g, imgObserver );
-		} else if ( _model.getSqNo() == SQ_TETRIS ) {
-			drawTetris( g, imgObserver );
-		} else if ( _model.getSqNo() == SQ_GAMEOVER ) {
-			drawTetris( g, imgObserver );
-			drawGameOver( g, imgObserver );
-		}
-	}
-	
-	/**
-	 * PressKeyEnter画像の描画を実行する。
-	 * 
-	 * @param g グラフィックオブジェクト
-	 * @param imgObserver 描画監視オブジェクト
-	 */
-	private void drawEnterKey( Graphics g, ImageObserver imgObserver ) {
-		Graphics2D g2d = (Graphics2D) g;
-		g2d.setComposite( _model.getPressEnterAlpha() );
-		g.drawImage( _model.getPressEnter(), _model.getPressEnterPos().get( 0 ), _model.getPressEnterPos().get( 1 ), imgObserver );
-	}
-	
-	/**
-	 * Ready⇒GO!!!の描画を実行する。
-	 * 
-	 * @param g グラフィックオブジェクト
-	 * @param imgObserver 描画監視オブジェクト
-	 */
-	private void drawReadyGo( Graphics g, ImageObserver imgObserver ) {
-		
-		List< Integer > pos = _model.getReadyGoPos();
-		
-		int x = ( _model.isGo() ) ? pos.get( 2 ) : pos.get( 0 );
-		int y = ( _model.isGo() ) ? pos.get( 3 ) : pos.get( 1 );
-		Image img = ( _model.isGo() ) ? _model.getGo() : _model.getReady();
-		
-		g.drawImage( img, x, y, imgObserver );
-	}
-	
-	/**
-	 * テトリスの描画処理を実行する。
-	 * 
-	 * @param g グラフィックオブジェクト
-	 * @param imgObserver 描画監視オブジェクト
-	 */
-	private void drawTetris( Graphics g, ImageObserver imgObserver ) {
-		
-		// グリッドの描画
-		short[][] grid = _model.getGrid();
-		short[][] gridColor = _model.getGridColor();
-		
-		for ( int y = 0; y < Game.GRID_Y; y++ ) {
-			
-			for ( int x = 0; x < Game.GRID_X; x++ ) {
-				
-				if (grid[ y ][ x ] == 1) {
-					
-					g.drawImage(_model.getBlock(), ( x + 1 ) * Game.BLOCK_SIZE, y * Game.BLOCK_SIZE,
-							( x + 1 ) * Game.BLOCK_SIZE + Game.BLOCK_SIZE, y * Game.BLOCK_SIZE + Game.BLOCK_SIZE,
-							gridColor[ y ][ x ] * Game.BLOCK_SIZE, 0, gridColor[ y ][ x ] * Game.BLOCK_SIZE + Game.BLOCK_SIZE,
-							Game.BLOCK_SIZE, imgObserver);
-				}
-			}
-		}
-		
-		// ブロックの描画
-		Block block = _model.getBlockObj();
-		
-		for ( int y = 0; y < Block.MAX_Y; y++ ) {
-			for ( int x = 0; x < Block.MAX_X; x++ ) {
-				
-				if ( block.getBlock()[ y ][ x ] == 1 ) {
-					g.drawImage(_model.getBlock(), ( block.getPos().x + 1 + x ) * Game.BLOCK_SIZE, ( block.getPos().y + y ) * Game.BLOCK_SIZE,
-							( block.getPos().x + 1 + x ) * Game.BLOCK_SIZE + Game.BLOCK_SIZE, ( block.getPos().y + y ) * Game.BLOCK_SIZE + Game.BLOCK_SIZE,
-							block.getImageNo() * Game.BLOCK_SIZE, 0, block.getImageNo() * Game.BLOCK_SIZE + Game.BLOCK_SIZE, Game.BLOCK_SIZE, imgObserver);
-				}
-			}
-		}
-	}
-	
-	/**
-	 * ゲームオーバーシーケンスの描画を実行する。
-	 * 
-	 * @param g グラフィックオブジェクト
-	 * @param imgObserver 描画監視オブジェクト
-	 */
-	private void drawGameOver( Graphics g, ImageObserver imgObserver ) {
-		
-		int yMax = Game.GRID_Y - 1;
-		
-		for ( int i = 0, len = _model.getGameOverPos().size(), y = yMax; i < len; i++, y-- ) {
-			for ( int x = 1; x < Game.GRID_X + 1; x++ ) {
-				g.drawImage( _model.getBlock(), x * Game.BLOCK_SIZE, y * Game.BLOCK_SIZE, x * Game.BLOCK_SIZE + Game.BLOCK_SIZE,
-						y * Game.BLOCK_SIZE + Game.BLOCK_SIZE, Game.WALL_BLOCK_POS, 0, Game.WALL_BLOCK_POS + Game.BLOCK_SIZE, Game.BLOCK_SIZE, imgObserver );
-			}
-		}
-	}
-}
+package h.sakai.game.main.scene.game;
+
+import java.awt.Composite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.event.KeyEvent;
+import java.awt.image.ImageObserver;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import h.sakai.game.engine.PointBuffer;
+import h.sakai.game.engine.Scene;
+import h.sakai.game.engine.SpriteAtlas;
+import h.sakai.game.engine.SystemProperty;
+import h.sakai.game.engine.TripleBuffer;
+
+/**
+ * ゲームシーンクラス(暫定でテトリス)
+ * 
+ * @author H.Sakai
+ * @version V1.00 2012/12/31 新規作成
+ */
+public class SceneGame extends Scene {
+	
+	/** 本シーンのモデルクラス */
+	private Game _model = null;
+	
+	/** 描画用スナップショット */
+	private final TripleBuffer< GameSnapshot > _snapshots = new TripleBuffer< GameSnapshot >(
+			new GameSnapshot(), new GameSnapshot(), new GameSnapshot() );
+	
+	/** 盤面の描画キャッシュ(描画スレッドのみ使用) */
+	private final FieldLayer _fieldLayer = new FieldLayer();
+	
+	/** 自動操作(nullの場合はキー入力で操作) */
+	private TetrisBot _bot = null;
+	
+	/** 自動操作の1フレームあたりの最大操作数 */
+	private int _botMoves = 1;
+	
+	/** テトリスシーケンスで処理するキー(処理順) */
+	private static final int[] TETRIS_KEYS = { KeyEvent.VK_SPACE, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_DOWN };
+	
+	/** シーケンス番号：スタートシーケンス */
+	protected static final byte SQ_START    = 1;
+	
+	/** シーケンス番号：テトリス準備シーケンス */
+	protected static final byte SQ_READY_GO = 2;
+	
+	/** シーケンス番号：テトリスシーケンス */
+	protected static final byte SQ_TETRIS   = 3;
+	
+	/** シーケンス番号：ゲームオーバーシーケンス */
+	protected static final byte SQ_GAMEOVER = 4;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * モデルのインスタンス作成
+	 */
+	public SceneGame() {
+		_model = new Game( SQ_START );
+		
+		// 自動操作の設定が無い場合はキー入力で操作
+		boolean isBot = false;
+		try {
+			isBot = SystemProperty.getInstance().getBoolean( "bot", false );
+		} catch (Exception e) {
+			isBot = false;
+		}
+		
+		if ( isBot ) {
+			try {
+				setBot( createBot(), SystemProperty.getInstance().getInt( "botMovesPerFrame", 1 ) );
+			} catch (Exception e) {
+				System.out.println( "自動操作の設定の読み込みに失敗しました。" );
+			}
+		}
+	}
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 作成済みのモデルで初期化する。
+	 * 
+	 * @param model モデルクラス
+	 */
+	protected SceneGame( Game model ) {
+		_model = model;
+	}
+	
+	/**
+	 * 設定ファイルの評価の重みで自動操作を作成する。<br />
+	 * 
+	 * 重みは「高さ,削除行数,穴,凹凸」の順にカンマ区切りで指定する。
+	 * 
+	 * @return 自動操作
+	 * @throws Exception 設定ファイルの読み込みに失敗した場合
+	 */
+	private static TetrisBot createBot() throws Exception {
+		
+		List<String> weights = SystemProperty.getInstance().getList( "botWeights" );
+		
+		return new TetrisBot( Double.parseDouble( weights.get( 0 ) ), Double.parseDouble( weights.get( 1 ) ),
+				Double.parseDouble( weights.get( 2 ) ), Double.parseDouble( weights.get( 3 ) ), ForkJoinPool.commonPool() );
+	}
+	
+	/**
+	 * キー入力の代わりに自動操作で操作する。<br />
+	 * 
+	 * スタート画面は自動で開始し、ゲームオーバー後も繰り返す。
+	 * 
+	 * @param bot 自動操作(nullの場合はキー入力で操作)
+	 * @param movesPerFrame 1フレームあたりの最大操作数
+	 */
+	protected void setBot( TetrisBot bot, int movesPerFrame ) {
+		_bot = bot;
+		_botMoves = Math.max( movesPerFrame, 1 );
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.Scene#processInitialize()
+	 */
+	@Override
+	public void processInitialize() {
+		_model.init();
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.Scene#dispose()
+	 */
+	@Override
+	public void dispose() {
+		_model.dispose();
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.Scene#processUpdaste(boolean)
+	 */
+	@Override
+	public void processUpdaste( boolean isEnterSub ) {
+		
+		switch ( _model.getSqNo() ) {
+			case SQ_START:
+				_model.onUpdateStart( _bot != null || isPressKey( KeyEvent.VK_ENTER ) );
+				break;
+			case SQ_READY_GO:
+				_model.onUpdateReadyGo();
+				break;
+			case SQ_TETRIS:
+				if ( _bot != null ) {
+					updateBot();
+				} else {
+					updateTetris();
+				}
+				break;
+			case SQ_GAMEOVER:
+				_model.onUpdateGameOver();
+				break;
+		}
+		
+		publishSnapshot();
+	}
+	
+	/**
+	 * テトリスシーケンスのキー入力を処理する。<br />
+	 * 
+	 * 回転・左右移動・落下の順に、同じフレームで入力されたキーを全て反映する。
+	 * 左右移動と落下は押下し続けるとリピートする。
+	 */
+	private void updateTetris() {
+		
+		int inputs = 0;
+		
+		for ( int i = 0; i < TETRIS_KEYS.length && _model.getSqNo() == SQ_TETRIS; i++ ) {
+			
+			int keyCode = TETRIS_KEYS[ i ];
+			boolean isInput = ( keyCode == KeyEvent.VK_SPACE ) ? isPressKey( keyCode ) : isRepeatKey( keyCode );
+			
+			if ( isInput ) {
+				_model.onUpdateTetris( keyCode );
+				inputs++;
+			}
+		}
+		
+		// 入力が無ければ自然落下
+		if ( inputs == 0 ) {
+			_model.onUpdateTetris( 0 );
+		}
+	}
+	
+	/**
+	 * テトリスシーケンスを自動操作で処理する。<br />
+	 * 
+	 * 1フレームに最大操作数まで自動操作のキーを反映する。
+	 */
+	private void updateBot() {
+		
+		int inputs = 0;
+		
+		for ( int i = 0; i < _botMoves && _model.getSqNo() == SQ_TETRIS; i++ ) {
+			
+			int keyCode = _bot.nextKey( _model );
+			if ( keyCode == 0 ) {
+				break;
+			}
+			
+			_model.onUpdateTetris( keyCode );
+			inputs++;
+		}
+		
+		// 入力が無ければ自然落下
+		if ( inputs == 0 ) {
+			_model.onUpdateTetris( 0 );
+		}
+	}
+	
+	/**
+	 * 現在のモデルの状態を描画用スナップショットとして公開する。
+	 */
+	protected void publishSnapshot() {
+		_snapshots.getWriteBuffer().copyFrom( _model );
+		_snapshots.publish();
+	}
+	
+	/**
+	 * @see h.sakai.game.engine.Scene#processDraw(Graphics, boolean)
+	 */
+	@Override
+	public void processDraw(Graphics g, ImageObserver imgObserver, boolean isEnterSub) {
+		
+		// 最新の更新結果のみを描画する
+		GameSnapshot snapshot = _snapshots.acquire();
+		if ( !snapshot.isValid() ) {
+			return;
+		}
+		
+		// 背景・背景ブロック・壁ブロックはキャッシュした画像を転送し、盤面を表示する場合は固定済みのブロックも含める
+		boolean isField = snapshot.getSqNo() == SQ_TETRIS || snapshot.getSqNo() == SQ_GAMEOVER;
+		
+		if ( isField ) {
+			_fieldLayer.drawField( g, imgObserver, _model, snapshot );
+		} else {
+			_fieldLayer.drawStatic( g, imgObserver, _model, snapshot );
+		}
+		
+		if ( snapshot.getSqNo() == SQ_START ) {
+			drawEnterKey( g, imgObserver, snapshot );
+		} else if ( snapshot.getSqNo() == SQ_READY_GO ) {
+			drawReadyGo( g, imgObserver, snapshot );
+		} else if ( snapshot.getSqNo() == SQ_TETRIS ) {
+			drawTetris( g, imgObserver, snapshot );
+		} else if ( snapshot.getSqNo() == SQ_GAMEOVER ) {
+			drawTetris( g, imgObserver, snapshot );
+			drawGameOver( g, imgObserver, snapshot );
+		}
+	}
+	
+	/**
+	 * PressKeyEnter画像の描画を実行する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視オブジェクト
+	 * @param snapshot 描画用スナップショット
+	 */
+	private void drawEnterKey( Graphics g, ImageObserver imgObserver, GameSnapshot snapshot ) {
+		Graphics2D g2d = (Graphics2D) g;
+		Composite composite = g2d.getComposite();
+		g2d.setComposite( snapshot.getPressEnterAlpha() );
+		g.drawImage( _model.getPressEnter(), snapshot.getPressEnterX(), snapshot.getPressEnterY(), imgObserver );
+		g2d.setComposite( composite );
+	}
+	
+	/**
+	 * Ready⇒GO!!!の描画を実行する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視オブジェクト
+	 * @param snapshot 描画用スナップショット
+	 */
+	private void drawReadyGo( Graphics g, ImageObserver imgObserver, GameSnapshot snapshot ) {
+		
+		PointBuffer pos = snapshot.getReadyGoPos();
+		
+		int index = ( snapshot.isGo() ) ? 1 : 0;
+		int x = pos.getX( index );
+		int y = pos.getY( index );
+		Image img = ( snapshot.isGo() ) ? _model.getGo() : _model.getReady();
+		
+		g.drawImage( img, x, y, imgObserver );
+	}
+	
+	/**
+	 * テトリスの描画処理を実行する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視オブジェクト
+	 * @param snapshot 描画用スナップショット
+	 */
+	private void drawTetris( Graphics g, ImageObserver imgObserver, GameSnapshot snapshot ) {
+		
+		// 固定済みのブロックは盤面の描画キャッシュで描画済みのため、操作中のブロックのみ描画
+		if ( !snapshot.hasBlock() ) {
+			return;
+		}
+		
+		// ブロックの描画(表示範囲の座標に変換し、範囲外の部分は描画しない)
+		int cols = snapshot.getViewCols();
+		int rows = snapshot.getViewRows();
+		short[][] block = snapshot.getBlock();
+		int blockX = snapshot.getBlockX() - snapshot.getViewLeft();
+		int blockY = snapshot.getBlockY() - snapshot.getViewTop();
+		int imageNo = snapshot.getBlockImageNo();
+		SpriteAtlas atlas = _model.getBlockAtlas();
+		
+		for ( int y = 0; y < Block.MAX_Y; y++ ) {
+			for ( int x = 0; x < Block.MAX_X; x++ ) {
+				
+				if ( block[ y ][ x ] == 1 && blockX + x >= 0 && blockX + x < cols && blockY + y < rows ) {
+					atlas.draw( g, imageNo, ( blockX + 1 + x ) * Game.BLOCK_SIZE, ( blockY + y ) * Game.BLOCK_SIZE, imgObserver );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * ゲームオーバーシーケンスの描画を実行する。
+	 * 
+	 * @param g グラフィックオブジェクト
+	 * @param imgObserver 描画監視オブジェクト
+	 * @param snapshot 描画用スナップショット
+	 */
+	private void drawGameOver( Graphics g, ImageObserver imgObserver, GameSnapshot snapshot ) {
+		
+		int yMax = snapshot.getViewRows() - 1;
+		SpriteAtlas atlas = _model.getBlockAtlas();
+		
+		for ( int i = 0, len = snapshot.getGameOverRows(), y = yMax; i < len; i++, y-- ) {
+			for ( int x = 1; x < snapshot.getViewCols() + 1; x++ ) {
+				atlas.draw( g, Game.WALL_SPRITE, x * Game.BLOCK_SIZE, y * Game.BLOCK_SIZE, imgObserver );
+			}
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * 固定のキー入力を繰り返す操作クラス<br />
+ * 
+ * 指定したキーコードの並びを1回の操作ごとに1つずつ繰り返し入力する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class ScriptedPlayer implements TetrisPlayer {
+	
+	/** キーコードの並び(0は入力なし) */
+	private final int[] _keys;
+	
+	/** 次に入力する要素番号 */
+	private int _index = 0;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param keys キーコードの並び(0は入力なし)
+	 */
+	public ScriptedPlayer( int... keys ) {
+		
+		if ( keys.length == 0 ) {
+			throw new IllegalArgumentException( "キーコードが指定されていません。" );
+		}
+		
+		_keys = keys.clone();
+	}
+	
+	/**
+	 * @see TetrisPlayer#nextKey(Game)
+	 */
+	@Override
+	public int nextKey( Game game ) {
+		
+		int keyCode = _keys[ _index ];
+		_index = ( _index + 1 ) % _keys.length;
+		
+		return keyCode;
+	}
+}
@@ -0,0 +1,189 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * 一括シミュレーションの集計結果クラス<br />
+ * 
+ * 1ゲームごとの結果を作成し、{@link #add(SimulationResult)}で全ゲーム分を合算する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class SimulationResult {
+	
+	/** ゲーム数 */
+	private int _games = 0;
+	
+	/** ゲームオーバーになったゲーム数 */
+	private int _gameOvers = 0;
+	
+	/** 固定したブロック数の合計 */
+	private long _pieces = 0;
+	
+	/** 削除した行数の合計 */
+	private long _lines = 0;
+	
+	/** ゲームの長さ(フレーム数)の合計 */
+	private long _frames = 0;
+	
+	/** ゲームの長さ(フレーム数)の最小 */
+	private long _minFrames = Long.MAX_VALUE;
+	
+	/** ゲームの長さ(フレーム数)の最大 */
+	private long _maxFrames = 0;
+	
+	/** 経過時間(ナノ秒) */
+	private long _elapsedNanos = 0;
+	
+	/** ワーカースレッド数 */
+	private int _threads = 1;
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 0ゲームの結果を作成する。
+	 */
+	public SimulationResult() {
+	}
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 1ゲームの結果を作成する。
+	 * 
+	 * @param pieces 固定したブロック数
+	 * @param lines 削除した行数
+	 * @param frames ゲームの長さ(フレーム数)
+	 * @param isGameOver ゲームオーバーで終了したか
+	 */
+	public SimulationResult( long pieces, long lines, long frames, boolean isGameOver ) {
+		_games = 1;
+		_gameOvers = isGameOver ? 1 : 0;
+		_pieces = pieces;
+		_lines = lines;
+		_frames = frames;
+		_minFrames = frames;
+		_maxFrames = frames;
+	}
+	
+	/**
+	 * 結果を合算する。
+	 * 
+	 * @param result 合算する結果
+	 */
+	public void add( SimulationResult result ) {
+		_games += result._games;
+		_gameOvers += result._gameOvers;
+		_pieces += result._pieces;
+		_lines += result._lines;
+		_frames += result._frames;
+		_minFrames = Math.min( _minFrames, result._minFrames );
+		_maxFrames = Math.max( _maxFrames, result._maxFrames );
+	}
+	
+	/**
+	 * 実行環境を設定する。
+	 * 
+	 * @param elapsedNanos 経過時間(ナノ秒)
+	 * @param threads ワーカースレッド数
+	 */
+	protected void setRun( long elapsedNanos, int threads ) {
+		_elapsedNanos = elapsedNanos;
+		_threads = threads;
+	}
+	
+	/**
+	 * ゲーム数を取得する。
+	 * 
+	 * @return ゲーム数
+	 */
+	public int getGames() {
+		return _games;
+	}
+	
+	/**
+	 * ゲームオーバーになったゲーム数を取得する。
+	 * 
+	 * @return ゲーム数
+	 */
+	public int getGameOvers() {
+		return _gameOvers;
+	}
+	
+	/**
+	 * 固定したブロック数の合計を取得する。
+	 * 
+	 * @return ブロック数
+	 */
+	public long getPieces() {
+		return _pieces;
+	}
+	
+	/**
+	 * 削除した行数の合計を取得する。
+	 * 
+	 * @return 行数
+	 */
+	public long getLines() {
+		return _lines;
+	}
+	
+	/**
+	 * ゲームの長さの平均を取得する。
+	 * 
+	 * @return フレーム数
+	 */
+	public double getAverageFrames() {
+		return ( _games > 0 ) ? ( double ) _frames / _games : 0;
+	}
+	
+	/**
+	 * ゲームの長さの最小を取得する。
+	 * 
+	 * @return フレーム数
+	 */
+	public long getMinFrames() {
+		return ( _games > 0 ) ? _minFrames : 0;
+	}
+	
+	/**
+	 * ゲームの長さの最大を取得する。
+	 * 
+	 * @return フレーム数
+	 */
+	public long getMaxFrames() {
+		return _maxFrames;
+	}
+	
+	/**
+	 * 経過時間を取得する。
+	 * 
+	 * @return 経過時間(ナノ秒)
+	 */
+	public long getElapsedNanos() {
+		return _elapsedNanos;
+	}
+	
+	/**
+	 * 1コアあたりの1秒間のゲーム数を取得する。<br />
+	 * 
+	 * スレッド数がコア数を超える場合、同時に実行できるのはコア数までのためコア数で割る。
+	 * 
+	 * @return ゲーム数
+	 */
+	public double getGamesPerSecondPerCore() {
+		
+		int cores = Math.min( _threads, Runtime.getRuntime().availableProcessors() );
+		
+		return ( _elapsedNanos > 0 ) ? _games * 1.0e9 / _elapsedNanos / cores : 0;
+	}
+	
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format( "games=%d gameOvers=%d pieces=%d lines=%d frames(avg/min/max)=%.1f/%d/%d elapsed=%dms threads=%d games/s/core=%.2f",
+				_games, _gameOvers, _pieces, _lines, getAverageFrames(), getMinFrames(), _maxFrames,
+				_elapsedNanos / 1000000, _threads, getGamesPerSecondPerCore() );
+	}
+}
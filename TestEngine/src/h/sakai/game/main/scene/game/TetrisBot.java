@@ -0,0 +1,520 @@
+package h.sakai.game.main.scene.game;
+
+import java.awt.event.KeyEvent;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * テトリスの自動操作クラス<br />
+ * 
+ * キー入力の代わりにゲームシーンへキーコードを供給する。デモ表示や長時間の負荷試験に使用する。
+ * 新しいブロックが出現するたびに、操作中と次のブロックの到達できる全ての回転・列への置き方を列挙し、
+ * 置いた後の盤面を評価値(高さ・削除行数・穴・凹凸の重み付き和)が最大になる置き方を選ぶ。
+ * 操作中のブロックの置き方ごとに探索をForkJoinPoolへ分配する。
+ * 探索量は盤面の幅の2乗に比例するため、幅が{@link #LOOKAHEAD_MAX_WIDTH}を超える盤面では次のブロックを探索せず、
+ * 操作中のブロックを置いた盤面のみを評価して1フレーム内に収める。
+ * 置いた盤面の作業領域はスレッドごとに使い回し、積み上がった行のみを書き写すため、
+ * 探索の処理量は盤面の面積ではなく積み上がった行数に比例し、探索ごとに盤面を生成しない。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class TetrisBot implements TetrisPlayer {
+	
+	/** 評価の重み：高さの合計(初期値) */
+	protected static final double DEFAULT_HEIGHT_WEIGHT = -0.510066;
+	
+	/** 評価の重み：削除行数(初期値) */
+	protected static final double DEFAULT_LINE_WEIGHT = 0.760666;
+	
+	/** 評価の重み：穴の数(初期値) */
+	protected static final double DEFAULT_HOLE_WEIGHT = -0.35663;
+	
+	/** 評価の重み：隣り合う列の高さの差の合計(初期値) */
+	protected static final double DEFAULT_BUMPINESS_WEIGHT = -0.184483;
+	
+	/** ゲームオーバーになる置き方の評価値 */
+	private static final double GAME_OVER_SCORE = -1.0e9;
+	
+	/** 到達できない置き方 */
+	private static final int UNREACHABLE = Integer.MIN_VALUE;
+	
+	/** 次のブロックまで探索する盤面の最大幅 */
+	protected static final int LOOKAHEAD_MAX_WIDTH = 24;
+	
+	/** 次のブロックを探索しない場合の種類 */
+	private static final int NO_LOOKAHEAD = -1;
+	
+	/** 評価の重み：高さの合計 */
+	private final double _heightWeight;
+	
+	/** 評価の重み：削除行数 */
+	private final double _lineWeight;
+	
+	/** 評価の重み：穴の数 */
+	private final double _holeWeight;
+	
+	/** 評価の重み：隣り合う列の高さの差の合計 */
+	private final double _bumpinessWeight;
+	
+	/** 探索の分配先(nullの場合は呼び出し元のスレッドで探索) */
+	private final ForkJoinPool _pool;
+	
+	/** 探索したブロックオブジェクト */
+	private Block _plannedBlock = null;
+	
+	/** 探索時の固定したブロック数 */
+	private int _plannedFixCount = -1;
+	
+	/** 目標の回転番号 */
+	private int _targetRotation = 0;
+	
+	/** 目標のX座標 */
+	private int _targetX = 0;
+	
+	/** 前回操作時の回転番号 */
+	private int _lastRotation = -1;
+	
+	/** 前回操作時のX座標 */
+	private int _lastX = 0;
+	
+	/** 前回の探索時間(ナノ秒) */
+	private volatile long _lastSearchNanos = 0;
+	
+	/** 探索するスレッドごとの作業領域 */
+	private final ThreadLocal< Workspace > _workspace = new ThreadLocal< Workspace >();
+	
+	/**
+	 * コンストラクタ<br />
+	 * 
+	 * 評価の重みを初期値で作成する。
+	 * 
+	 * @param pool 探索の分配先(nullの場合は呼び出し元のスレッドで探索)
+	 */
+	public TetrisBot( ForkJoinPool pool ) {
+		this( DEFAULT_HEIGHT_WEIGHT, DEFAULT_LINE_WEIGHT, DEFAULT_HOLE_WEIGHT, DEFAULT_BUMPINESS_WEIGHT, pool );
+	}
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param heightWeight 評価の重み：高さの合計
+	 * @param lineWeight 評価の重み：削除行数
+	 * @param holeWeight 評価の重み：穴の数
+	 * @param bumpinessWeight 評価の重み：隣り合う列の高さの差の合計
+	 * @param pool 探索の分配先(nullの場合は呼び出し元のスレッドで探索)
+	 */
+	public TetrisBot( double heightWeight, double lineWeight, double holeWeight, double bumpinessWeight, ForkJoinPool pool ) {
+		_heightWeight = heightWeight;
+		_lineWeight = lineWeight;
+		_holeWeight = holeWeight;
+		_bumpinessWeight = bumpinessWeight;
+		_pool = pool;
+	}
+	
+	/**
+	 * 次に入力するキーコードを取得する。<br />
+	 * 
+	 * 新しいブロックが出現していれば置き方を探索し、目標の回転・列に向けて1操作ずつ返す。
+	 * 目標に達したら落下させる。回転・移動が壁や他のブロックに阻まれた場合は、その場で落下させる。
+	 * 
+	 * @param game ゲームモデル
+	 * @return キーコード(操作中のブロックが無い場合は0)
+	 * @see TetrisPlayer#nextKey(Game)
+	 */
+	@Override
+	public int nextKey( Game game ) {
+		
+		Block block = game.getBlockObj();
+		if ( block == null ) {
+			return 0;
+		}
+		
+		if ( block != _plannedBlock || game.getFixCount() != _plannedFixCount ) {
+			
+			search( game );
+			
+			_plannedBlock = block;
+			_plannedFixCount = game.getFixCount();
+			_lastRotation = -1;
+			
+		} else if ( block.getRotation() == _lastRotation && block.getX() == _lastX ) {
+			
+			// 前回の操作で動けなかったため、現在の位置を目標にする
+			_targetRotation = block.getRotation();
+			_targetX = block.getX();
+		}
+		
+		_lastRotation = block.getRotation();
+		_lastX = block.getX();
+		
+		if ( block.getRotation() != _targetRotation ) {
+			return KeyEvent.VK_SPACE;
+		}
+		if ( block.getX() < _targetX ) {
+			return KeyEvent.VK_RIGHT;
+		}
+		if ( block.getX() > _targetX ) {
+			return KeyEvent.VK_LEFT;
+		}
+		
+		// 落下中は位置が変わらないため、動けなかった判定から外す
+		_lastRotation = -1;
+		
+		return KeyEvent.VK_DOWN;
+	}
+	
+	/**
+	 * 操作中のブロックの置き方を探索し、目標の回転・列を決める。
+	 * 
+	 * @param game ゲームモデル
+	 */
+	protected void search( Game game ) {
+		
+		long start = System.nanoTime();
+		
+		Block block = game.getBlockObj();
+		Board board = game.getBoard();
+		int kind = block.getKind();
+		int nextKind = ( board.getWidth() <= LOOKAHEAD_MAX_WIDTH ) ? game.getPieceQueue().peek( 0 ) : NO_LOOKAHEAD;
+		
+		// 操作中のブロックの置き方ごとに探索を作成
+		PlacementTask[] tasks = new PlacementTask[ BlockShape.ROTATION_COUNT * board.getWidth() ];
+		int count = 0;
+		
+		for ( int rotation = 0; rotation < BlockShape.ROTATION_COUNT; rotation++ ) {
+			for ( int x = -BlockShape.getLeft( kind, rotation ); x + BlockShape.getRight( kind, rotation ) < board.getWidth(); x++ ) {
+				tasks[ count++ ] = new PlacementTask( board, kind, rotation, block.getX(), block.getY(), x, nextKind );
+			}
+		}
+		
+		if ( _pool != null ) {
+			_pool.invoke( new SearchAction( tasks, count ) );
+		} else {
+			for ( int i = 0; i < count; i++ ) {
+				tasks[ i ].invoke();
+			}
+		}
+		
+		// 評価値が同じ場合は先に列挙した置き方を優先
+		PlacementTask best = null;
+		
+		for ( int i = 0; i < count; i++ ) {
+			if ( tasks[ i ]._isReachable && ( best == null || tasks[ i ]._score > best._score ) ) {
+				best = tasks[ i ];
+			}
+		}
+		
+		if ( best != null ) {
+			_targetRotation = best._rotation;
+			_targetX = best._x;
+		} else {
+			_targetRotation = block.getRotation();
+			_targetX = block.getX();
+		}
+		
+		_lastSearchNanos = System.nanoTime() - start;
+	}
+	
+	/**
+	 * 前回の探索時間を取得する。
+	 * 
+	 * @return 探索時間(ナノ秒)
+	 */
+	public long getLastSearchNanos() {
+		return _lastSearchNanos;
+	}
+	
+	/**
+	 * 呼び出し元スレッドの作業領域を取得する。<br />
+	 * 
+	 * 初回または盤面のサイズが変わった場合のみ作成する。
+	 * 
+	 * @param board 探索元の盤面
+	 * @return 作業領域
+	 */
+	private Workspace getWorkspace( Board board ) {
+		
+		Workspace workspace = _workspace.get();
+		
+		if ( workspace == null || workspace._placed.getWidth() != board.getWidth() || workspace._placed.getHeight() != board.getHeight() ) {
+			workspace = new Workspace( board );
+			_workspace.set( workspace );
+		}
+		
+		return workspace;
+	}
+	
+	/**
+	 * ブロックを指定の回転・列へ動かして落とした場合のY座標を求める。<br />
+	 * 
+	 * 開始位置でその場回転した後、同じ高さで横に移動してから落とす経路のみを調べる。
+	 * 
+	 * @param board 盤面
+	 * @param kind ブロックの種類
+	 * @param rotation 回転番号
+	 * @param fromX 開始X座標
+	 * @param fromY 開始Y座標
+	 * @param toX 目標のX座標
+	 * @return 落とした後のY座標(到達できない場合は{@link #UNREACHABLE})
+	 */
+	private static int dropY( Board board, int kind, int rotation, int fromX, int fromY, int toX ) {
+		
+		int[] rowMasks = BlockShape.getRowMasks( kind, rotation );
+		
+		if ( !board.isMovable( fromX, fromY, rowMasks ) ) {
+			return UNREACHABLE;
+		}
+		
+		int step = ( toX > fromX ) ? 1 : -1;
+		for ( int x = fromX; x != toX; x += step ) {
+			if ( !board.isMovable( x + step, fromY, rowMasks ) ) {
+				return UNREACHABLE;
+			}
+		}
+		
+		// 積み上がった行より上は空いているため、ブロックが積み上がった行に届く直前まで一度に落とす
+		int y = Math.max( fromY, board.getTop() - Block.MAX_Y );
+		while ( board.isMovable( toX, y + 1, rowMasks ) ) {
+			y++;
+		}
+		
+		return y;
+	}
+	
+	/**
+	 * 操作中のブロックの置き方ごとの探索をまとめて分配するタスク
+	 */
+	private static class SearchAction extends RecursiveAction {
+		
+		/** シリアルバージョンUID */
+		private static final long serialVersionUID = 1L;
+		
+		/** 置き方ごとの探索 */
+		private final PlacementTask[] _tasks;
+		
+		/** 探索数 */
+		private final int _count;
+		
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param tasks 置き方ごとの探索
+		 * @param count 探索数
+		 */
+		SearchAction( PlacementTask[] tasks, int count ) {
+			_tasks = tasks;
+			_count = count;
+		}
+		
+		/**
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			
+			for ( int i = 0; i < _count; i++ ) {
+				_tasks[ i ].fork();
+			}
+			
+			for ( int i = _count - 1; i >= 0; i-- ) {
+				_tasks[ i ].join();
+			}
+		}
+	}
+	
+	/**
+	 * 操作中のブロックの1つの置き方について、次のブロックまで置いた盤面の最大評価値を求めるタスク<br />
+	 * 
+	 * 次のブロックを探索しない場合は、操作中のブロックを置いた盤面の評価値を求める。
+	 */
+	private class PlacementTask extends RecursiveAction {
+		
+		/** シリアルバージョンUID */
+		private static final long serialVersionUID = 1L;
+		
+		/** 探索元の盤面(参照のみ) */
+		private final Board _board;
+		
+		/** ブロックの種類 */
+		private final int _kind;
+		
+		/** 回転番号 */
+		private final int _rotation;
+		
+		/** 開始X座標 */
+		private final int _fromX;
+		
+		/** 開始Y座標 */
+		private final int _fromY;
+		
+		/** 目標のX座標 */
+		private final int _x;
+		
+		/** 次のブロックの種類 */
+		private final int _nextKind;
+		
+		/** 到達可否 */
+		private boolean _isReachable = false;
+		
+		/** 評価値 */
+		private double _score = GAME_OVER_SCORE;
+		
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param board 探索元の盤面
+		 * @param kind ブロックの種類
+		 * @param rotation 回転番号
+		 * @param fromX 開始X座標
+		 * @param fromY 開始Y座標
+		 * @param x 目標のX座標
+		 * @param nextKind 次のブロックの種類({@link #NO_LOOKAHEAD}の場合は探索しない)
+		 */
+		PlacementTask( Board board, int kind, int rotation, int fromX, int fromY, int x, int nextKind ) {
+			_board = board;
+			_kind = kind;
+			_rotation = rotation;
+			_fromX = fromX;
+			_fromY = fromY;
+			_x = x;
+			_nextKind = nextKind;
+		}
+		
+		/**
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			
+			int y = dropY( _board, _kind, _rotation, _fromX, _fromY, _x );
+			if ( y == UNREACHABLE ) {
+				return;
+			}
+			
+			_isReachable = true;
+			
+			Workspace workspace = getWorkspace( _board );
+			int[] heights = workspace._heights;
+			long[] covered = workspace._covered;
+			
+			Board placed = workspace._placed;
+			placed.copyFrom( _board );
+			placed.fix( _x, y, BlockShape.getRowMasks( _kind, _rotation ), _kind );
+			int lines = placed.clearFullRows( y, y + Block.MAX_Y - 1 );
+			
+			if ( y + BlockShape.getTop( _kind, _rotation ) < 0 || Game.isStacked( placed ) ) {
+				return;
+			}
+			
+			if ( _nextKind == NO_LOOKAHEAD ) {
+				_score = evaluate( placed, lines, heights, covered );
+				return;
+			}
+			
+			// 次のブロックの置き方のうち最大の評価値
+			Board next = workspace._next;
+			
+			for ( int rotation = 0; rotation < BlockShape.ROTATION_COUNT; rotation++ ) {
+				for ( int x = -BlockShape.getLeft( _nextKind, rotation ); x + BlockShape.getRight( _nextKind, rotation ) < next.getWidth(); x++ ) {
+					
+					int nextY = dropY( placed, _nextKind, rotation, Block.getStartX( placed.getWidth() ), Block.START_Y, x );
+					if ( nextY == UNREACHABLE || nextY + BlockShape.getTop( _nextKind, rotation ) < 0 ) {
+						continue;
+					}
+					
+					next.copyFrom( placed );
+					next.fix( x, nextY, BlockShape.getRowMasks( _nextKind, rotation ), _nextKind );
+					int nextLines = next.clearFullRows( nextY, nextY + Block.MAX_Y - 1 );
+					
+					if ( Game.isStacked( next ) ) {
+						continue;
+					}
+					
+					_score = Math.max( _score, evaluate( next, lines + nextLines, heights, covered ) );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 探索1スレッド分の作業領域
+	 */
+	private static final class Workspace {
+		
+		/** 操作中のブロックを置いた盤面 */
+		private final Board _placed;
+		
+		/** 次のブロックまで置いた盤面 */
+		private final Board _next;
+		
+		/** 列の高さの作業領域 */
+		private final int[] _heights;
+		
+		/** 埋まった列の作業領域 */
+		private final long[] _covered;
+		
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param board 探索元の盤面(同じサイズで作成する)
+		 */
+		Workspace( Board board ) {
+			_placed = new Board( board.getWidth(), board.getHeight() );
+			_next = new Board( board.getWidth(), board.getHeight() );
+			_heights = new int[ board.getWidth() ];
+			_covered = new long[ board.getWordCount() ];
+		}
+	}
+	
+	/**
+	 * 盤面を評価する。
+	 * 
+	 * @param board 盤面
+	 * @param lines 削除した行数
+	 * @param heights 列の高さの作業領域(盤面の幅以上の長さ)
+	 * @param covered 埋まった列の作業領域(盤面の1行のワード数以上の長さ)
+	 * @return 評価値
+	 */
+	private double evaluate( Board board, int lines, int[] heights, long[] covered ) {
+		
+		int width = board.getWidth();
+		int height = board.getHeight();
+		int words = board.getWordCount();
+		int holes = 0;
+		
+		for ( int x = 0; x < width; x++ ) {
+			heights[ x ] = 0;
+		}
+		for ( int w = 0; w < words; w++ ) {
+			covered[ w ] = 0;
+		}
+		
+		// 積み上がった最上行から順に、初めて埋まった列の高さを記録し、埋まった列の下の空きを穴として数える
+		for ( int y = board.getTop(); y < height; y++ ) {
+			for ( int w = 0; w < words; w++ ) {
+				
+				long row = board.getRowWord( y, w );
+				
+				for ( long top = row & ~covered[ w ]; top != 0; top &= top - 1 ) {
+					heights[ w * Long.SIZE + Long.numberOfTrailingZeros( top ) ] = height - y;
+				}
+				
+				holes += Long.bitCount( covered[ w ] & ~row );
+				covered[ w ] |= row;
+			}
+		}
+		
+		int aggregateHeight = 0;
+		int bumpiness = 0;
+		
+		for ( int x = 0; x < width; x++ ) {
+			aggregateHeight += heights[ x ];
+			if ( x > 0 ) {
+				bumpiness += Math.abs( heights[ x ] - heights[ x - 1 ] );
+			}
+		}
+		
+		return _heightWeight * aggregateHeight + _lineWeight * lines + _holeWeight * holes + _bumpinessWeight * bumpiness;
+	}
+}
@@ -0,0 +1,20 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * テトリスの操作インタフェース<br />
+ * 
+ * キー入力の代わりにテトリスシーケンスの操作を供給する。自動操作や一括シミュレーションで使用する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public interface TetrisPlayer {
+	
+	/**
+	 * 次に入力するキーコードを取得する。
+	 * 
+	 * @param game ゲームモデル
+	 * @return キーコード(入力しない場合は0)
+	 */
+	int nextKey( Game game );
+}
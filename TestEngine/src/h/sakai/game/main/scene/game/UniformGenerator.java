@@ -0,0 +1,77 @@
+package h.sakai.game.main.scene.game;
+
+/**
+ * 一様乱数によるブロックの出現順の生成クラス<br />
+ * 
+ * 乱数はSplittableRandomと同じSplitMix64で生成する。
+ * 状態がlong1つのため、オブジェクトを生成せずに書き出し・復元できる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class UniformGenerator implements PieceGenerator {
+	
+	/** 状態の増分(黄金比) */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	
+	/** 乱数の状態 */
+	private long _seed;
+	
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param seed 乱数の種
+	 */
+	public UniformGenerator( long seed ) {
+		_seed = seed;
+	}
+	
+	/**
+	 * 0以上bound未満の乱数を生成する。
+	 * 
+	 * @param bound 上限(1以上)
+	 * @return 乱数
+	 */
+	public int nextInt( int bound ) {
+		
+		long z = ( _seed += GOLDEN_GAMMA );
+		z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+		z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+		z = z ^ ( z >>> 31 );
+		
+		// 上位32ビットを上限倍して範囲内に写す
+		return ( int ) ( ( ( z >>> 32 ) * bound ) >>> 32 );
+	}
+	
+	/**
+	 * @see PieceGenerator#next()
+	 */
+	@Override
+	public int next() {
+		return nextInt( BlockShape.KIND_COUNT );
+	}
+	
+	/**
+	 * @see PieceGenerator#getStateSize()
+	 */
+	@Override
+	public int getStateSize() {
+		return 1;
+	}
+	
+	/**
+	 * @see PieceGenerator#saveState(long[], int)
+	 */
+	@Override
+	public void saveState( long[] state, int offset ) {
+		state[ offset ] = _seed;
+	}
+	
+	/**
+	 * @see PieceGenerator#restoreState(long[], int)
+	 */
+	@Override
+	public void restoreState( long[] state, int offset ) {
+		_seed = state[ offset ];
+	}
+}
@@ -0,0 +1,89 @@
+package h.sakai.game.main.scene.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import h.sakai.game.engine.Sound;
+
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+/**
+ * テトリスのフレーム更新のメモリ確保量のテストクラス<br />
+ * 
+ * 十分にウォームアップした後、左右移動・回転・落下・固定のフレーム更新を繰り返し、
+ * その間に更新スレッドが確保したバイト数が0であることをThreadMXBeanで確認する。
+ * 画像と設定ファイルを作業ディレクトリから読み込むため、TestEngineディレクトリで実行する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public class GameAllocationTest {
+	
+	/** ウォームアップの回数 */
+	private static final int WARMUP_ROUNDS = 100;
+	
+	/** ウォームアップ1回のフレーム数 */
+	private static final int WARMUP_FRAMES = 10000;
+	
+	/** 計測のフレーム数 */
+	private static final int MEASURE_FRAMES = 100000;
+	
+	/** 1フレームごとに順に与えるキー入力(0は入力なし) */
+	private static final int[] KEYS = { KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE, KeyEvent.VK_DOWN, 0 };
+	
+	/**
+	 * ウォームアップ後のフレーム更新でメモリを確保しないことを確認する。
+	 */
+	@Test
+	public void updateTetrisAllocatesNothing() {
+		
+		com.sun.management.ThreadMXBean threadBean = ( com.sun.management.ThreadMXBean ) ManagementFactory.getThreadMXBean();
+		assumeTrue( threadBean.isThreadAllocatedMemorySupported() );
+		threadBean.setThreadAllocatedMemoryEnabled( true );
+		
+		long threadId = Thread.currentThread().getId();
+		
+		Sound.setMute( true );
+		
+		Game game = new Game( SceneGame.SQ_START );
+		game.init();
+		game.startTetris();
+		
+		// ループの途中でコンパイルが切り替わらないよう、計測と同じメソッドを繰り返し呼び出してウォームアップする
+		for ( int i = 0; i < WARMUP_ROUNDS; i++ ) {
+			run( game, WARMUP_FRAMES );
+		}
+		
+		long before = threadBean.getThreadAllocatedBytes( threadId );
+		run( game, MEASURE_FRAMES );
+		long allocated = threadBean.getThreadAllocatedBytes( threadId ) - before;
+		
+		assertEquals( "フレーム更新で確保したバイト数", 0L, allocated );
+	}
+	
+	/**
+	 * 指定のフレーム数だけテトリスのフレーム更新を実行する。<br />
+	 * 
+	 * ウォームアップ中からブロックの固定が起きるよう落下の入力を与え続け、
+	 * ゲームオーバーにならないよう出現位置付近まで積み上がったら盤面を空にする。
+	 * 
+	 * @param game ゲームモデル
+	 * @param frames フレーム数
+	 */
+	private static void run( Game game, int frames ) {
+		
+		for ( int i = 0; i < frames; i++ ) {
+			
+			Block block = game.getBlockObj();
+			
+			if ( block.getY() < Block.MAX_Y && !game.isMovable( block.getX(), block.getY() + 1, block.getRowMasks() ) ) {
+				game.getBoard().clear();
+			}
+			
+			game.onUpdateTetris( KEYS[ i % KEYS.length ] );
+		}
+	}
+}
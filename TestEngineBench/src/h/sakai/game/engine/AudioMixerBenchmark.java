@@ -0,0 +1,77 @@
+package h.sakai.game.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ソフトウェアミキサーの合成のベンチマーク<br />
+ * 
+ * 出力なしのミキサーで、効果音をループ再生するボイスを指定数だけ鳴らし、1回分(512フレーム)の合成時間を計測する。
+ * 効果音は実際のファイルを読み込み、サンプリング周波数が出力と異なるものとピッチを変えたものを混ぜる。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class AudioMixerBenchmark {
+	
+	/** 1回に合成するフレーム数 */
+	private static final int BUFFER_FRAMES = 512;
+	
+	/** 同時に鳴らすボイス数 */
+	@Param( { "1", "16" } )
+	public int voices;
+	
+	/** ミキサー */
+	private AudioMixer _mixer = null;
+	
+	/** 合成結果 */
+	private short[] _out = null;
+	
+	/**
+	 * 効果音を読み込み、ボイスを鳴らしておく。
+	 * 
+	 * @throws Exception 効果音の読み込みに失敗した場合
+	 */
+	@Setup( Level.Trial )
+	public void setUp() throws Exception {
+		
+		PcmData fix = PcmData.load( "res/sound/se/kachi.wav" );
+		PcmData delete = PcmData.load( "res/sound/se/delete.wav" );
+		
+		_mixer = new AudioMixer( voices, BUFFER_FRAMES, true );
+		_out = new short[ BUFFER_FRAMES * AudioMixer.CHANNELS ];
+		
+		for ( int i = 0; i < voices; i++ ) {
+			_mixer.play( ( i % 2 == 0 ) ? fix : delete, 0.5f, 1.0f + i * 0.05f, true );
+		}
+	}
+	
+	/**
+	 * 1回分を合成
+	 * 
+	 * @return 合成結果
+	 */
+	@Benchmark
+	public short[] mix() {
+		_mixer.mix( _out );
+		return _out;
+	}
+}
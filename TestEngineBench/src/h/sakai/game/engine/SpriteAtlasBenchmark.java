@@ -0,0 +1,120 @@
+package h.sakai.game.engine;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.ImageIcon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * スプライトの描画方法のベンチマーク<br />
+ * 
+ * 盤面1画面分(10×16マス)のブロックを、元画像から範囲を切り出す描画と
+ * スプライトアトラスの切り出し済み画像の転送とで描画して比較する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+@State( Scope.Thread )
+public class SpriteAtlasBenchmark {
+	
+	/** スプライトのサイズ */
+	private static final int SIZE = 24;
+	
+	/** 色の数 */
+	private static final int COLORS = 7;
+	
+	/** 描画する列数 */
+	private static final int COLS = 10;
+	
+	/** 描画する行数 */
+	private static final int ROWS = 16;
+	
+	/** 元画像 */
+	private Image _source = null;
+	
+	/** スプライトアトラス */
+	private SpriteAtlas _atlas = null;
+	
+	/** 描画先画像 */
+	private BufferedImage _image = null;
+	
+	/** 描画先グラフィック */
+	private Graphics2D _g = null;
+	
+	/**
+	 * 画像と描画先を準備する。
+	 */
+	@Setup( Level.Trial )
+	public void setUp() {
+		
+		_source = new ImageIcon( new File( "" ).getAbsolutePath() + "/res/image/block.png" ).getImage();
+		_atlas = new SpriteAtlas( "bench", _source, SIZE, SIZE );
+		_image = new BufferedImage( ( COLS + 2 ) * SIZE, ( ROWS + 1 ) * SIZE, BufferedImage.TYPE_INT_RGB );
+		_g = _image.createGraphics();
+	}
+	
+	/**
+	 * 描画先を破棄する。
+	 */
+	@TearDown( Level.Trial )
+	public void tearDown() {
+		_g.dispose();
+	}
+	
+	/**
+	 * 元画像から範囲を切り出して描画
+	 * 
+	 * @return 描画先画像
+	 */
+	@Benchmark
+	public BufferedImage drawRegion() {
+		
+		for ( int y = 0; y < ROWS; y++ ) {
+			for ( int x = 0; x < COLS; x++ ) {
+				int color = ( x + y ) % COLORS;
+				_g.drawImage( _source, ( x + 1 ) * SIZE, y * SIZE, ( x + 2 ) * SIZE, ( y + 1 ) * SIZE,
+						color * SIZE, 0, ( color + 1 ) * SIZE, SIZE, null );
+			}
+		}
+		
+		return _image;
+	}
+	
+	/**
+	 * スプライトアトラスの切り出し済み画像を転送
+	 * 
+	 * @return 描画先画像
+	 */
+	@Benchmark
+	public BufferedImage drawSprite() {
+		
+		for ( int y = 0; y < ROWS; y++ ) {
+			for ( int x = 0; x < COLS; x++ ) {
+				_atlas.draw( _g, ( x + y ) % COLORS, ( x + 1 ) * SIZE, y * SIZE, null );
+			}
+		}
+		
+		return _image;
+	}
+}
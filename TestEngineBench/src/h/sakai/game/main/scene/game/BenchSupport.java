@@ -0,0 +1,72 @@
+package h.sakai.game.main.scene.game;
+
+import h.sakai.game.engine.Sound;
+
+/**
+ * ベンチマークの共通処理クラス<br />
+ * 
+ * 画像と設定ファイルを作業ディレクトリから読み込むため、TestEngineディレクトリで実行すること。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public final class BenchSupport {
+	
+	/**
+	 * コンストラクタ
+	 */
+	private BenchSupport() {
+	}
+	
+	/**
+	 * テトリスシーケンスを開始したゲームモデルを作成する。
+	 * 
+	 * @param board 盤面状態
+	 * @return ゲームモデル
+	 */
+	public static Game createGame( BoardState board ) {
+		
+		Sound.setMute( true );
+		
+		Game game = new Game( SceneGame.SQ_START );
+		game.init();
+		board.apply( game );
+		game.startTetris();
+		
+		return game;
+	}
+	
+	/**
+	 * テトリスシーケンスを開始した、指定サイズの盤面のみのゲームモデルを作成する。<br />
+	 * 
+	 * 設定ファイルと素材を読み込まないため、盤面を操作する処理の計測のみに使用する。
+	 * 
+	 * @param board 盤面状態
+	 * @param width 盤面の幅
+	 * @param height 盤面の高さ
+	 * @return ゲームモデル
+	 */
+	public static Game createGame( BoardState board, int width, int height ) {
+		
+		Game game = new Game( new BagGenerator( 0 ), width, height );
+		game.init();
+		board.apply( game );
+		game.startTetris();
+		
+		return game;
+	}
+	
+	/**
+	 * 操作中のブロックを落下できる一番下の位置まで移動する。
+	 * 
+	 * @param game ゲームモデル
+	 */
+	public static void lowerBlock( Game game ) {
+		
+		Block block = game.getBlockObj();
+		
+		while ( game.isMovable( block.getX(), block.getY() + 1, block.getRowMasks() ) ) {
+			block.move( Block.DOWN, game );
+		}
+	}
+}
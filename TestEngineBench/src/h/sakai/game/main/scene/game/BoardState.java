@@ -0,0 +1,69 @@
+package h.sakai.game.main.scene.game;
+
+import java.util.Random;
+
+/**
+ * ベンチマーク用の盤面状態
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+public enum BoardState {
+	
+	/** 空の盤面 */
+	EMPTY,
+	
+	/** 下半分まで積まれた盤面 */
+	HALF,
+	
+	/** 最上行の手前まで積まれた盤面 */
+	STACKED;
+	
+	/** 盤面作成の乱数シード */
+	private static final long SEED = 20130103L;
+	
+	/**
+	 * 盤面の高さに対して積まれている行数を取得する。
+	 * 
+	 * @param height 盤面の高さ
+	 * @return 積まれている行数
+	 */
+	private int getRows( int height ) {
+		
+		switch ( this ) {
+			case HALF:
+				return height / 2;
+			case STACKED:
+				return height - 1;
+			default:
+				return 0;
+		}
+	}
+	
+	/**
+	 * ゲームの盤面に配置を設定する。<br />
+	 * 
+	 * 毎回同じ配置になるよう固定シードで作成し、各行に必ず1つ以上の穴を空ける。
+	 * 
+	 * @param game ゲームモデル
+	 */
+	public void apply( Game game ) {
+		
+		Board board = game.getBoard();
+		Random random = new Random( SEED );
+		
+		int width = board.getWidth();
+		int height = board.getHeight();
+		
+		for ( int y = height - 1; y >= height - getRows( height ); y-- ) {
+			
+			for ( int x = 0; x < width; x++ ) {
+				if ( random.nextInt( 10 ) < 7 ) {
+					board.setCell( x, y, random.nextInt( 7 ) );
+				}
+			}
+			
+			board.clearCell( random.nextInt( width ), y );
+		}
+	}
+}
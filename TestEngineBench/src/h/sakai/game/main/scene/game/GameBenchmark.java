@@ -0,0 +1,112 @@
+package h.sakai.game.main.scene.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ゲームモデルの主要処理のベンチマーク<br />
+ * 
+ * 盤面状態ごとに衝突判定・固定・行削除・回転・移動の処理時間を計測する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class GameBenchmark {
+	
+	/** 盤面状態 */
+	@Param
+	public BoardState board;
+	
+	/** ゲームモデル */
+	private Game _game = null;
+	
+	/** 操作中のブロック */
+	private Block _block = null;
+	
+	/** 衝突判定の移動先：X座標 */
+	private int _belowX = 0;
+	
+	/** 衝突判定の移動先：Y座標 */
+	private int _belowY = 0;
+	
+	/**
+	 * ゲームモデルを準備する。
+	 */
+	@Setup( Level.Trial )
+	public void setUp() {
+		
+		_game = BenchSupport.createGame( board );
+		BenchSupport.lowerBlock( _game );
+		
+		_block = _game.getBlockObj();
+		_belowX = _block.getX();
+		_belowY = _block.getY() + 1;
+	}
+	
+	/**
+	 * 接地しているブロックの1マス下への衝突判定
+	 * 
+	 * @return 移動可否
+	 */
+	@Benchmark
+	public boolean isMovable() {
+		return _game.isMovable( _belowX, _belowY, _block.getRowMasks() );
+	}
+	
+	/**
+	 * 接地しているブロックの固定
+	 * 
+	 * 同じ位置への固定は冪等のため、毎回同じ処理量になる。
+	 */
+	@Benchmark
+	public void fixBlock() {
+		_game.fixBlock( _block.getX(), _block.getY(), _block.getRowMasks(), ( byte ) _block.getImageNo() );
+	}
+	
+	/**
+	 * そろった行が無い状態での行削除(ブロック固定ごとに実行される処理)
+	 * 
+	 * @return 削除した行数
+	 */
+	@Benchmark
+	public int deleteLine() {
+		return _game.deleteLine( _block.getY(), _block.getY() + Block.MAX_Y - 1 );
+	}
+	
+	/**
+	 * ブロックの回転
+	 */
+	@Benchmark
+	public void turn() {
+		_block.turn();
+	}
+	
+	/**
+	 * ブロックの左右移動(位置が変わらないよう左右1回ずつ)
+	 * 
+	 * @return 固定されたか
+	 */
+	@Benchmark
+	public boolean move() {
+		_block.move( Block.LEFT, _game );
+		return _block.move( Block.RIGHT, _game );
+	}
+}
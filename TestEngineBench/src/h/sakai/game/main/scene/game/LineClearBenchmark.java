@@ -0,0 +1,87 @@
+package h.sakai.game.main.scene.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * そろった行がある場合の行削除のベンチマーク<br />
+ * 
+ * 削除で盤面が変わるため、毎回盤面を作り直してから計測する。
+ * 盤面のサイズを変えて、処理時間が盤面の面積に比例しないことを確認する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class LineClearBenchmark {
+	
+	/** 盤面状態 */
+	@Param
+	public BoardState board;
+	
+	/** 盤面のサイズ(幅x高さ) */
+	@Param( { "10x16", "200x4000" } )
+	public String size;
+	
+	/** そろえる行数(最下段から) */
+	@Param( { "1", "4" } )
+	public int lines;
+	
+	/** ゲームモデル */
+	private Game _game = null;
+	
+	/**
+	 * ゲームモデルを準備する。
+	 */
+	@Setup( Level.Trial )
+	public void setUp() {
+		String[] wh = size.split( "x" );
+		_game = BenchSupport.createGame( BoardState.EMPTY, Integer.parseInt( wh[ 0 ] ), Integer.parseInt( wh[ 1 ] ) );
+	}
+	
+	/**
+	 * 盤面を作り直し、最下段から指定行数をそろえる。
+	 */
+	@Setup( Level.Invocation )
+	public void resetBoard() {
+		
+		Board grid = _game.getBoard();
+		grid.clear();
+		
+		board.apply( _game );
+		
+		for ( int y = grid.getHeight() - lines; y < grid.getHeight(); y++ ) {
+			for ( int x = 0; x < grid.getWidth(); x++ ) {
+				grid.setCell( x, y, 0 );
+			}
+		}
+	}
+	
+	/**
+	 * そろった行の削除
+	 * 
+	 * @return 削除した行数
+	 */
+	@Benchmark
+	public int deleteLine() {
+		Board grid = _game.getBoard();
+		return _game.deleteLine( grid.getHeight() - Block.MAX_Y, grid.getHeight() - 1 );
+	}
+}
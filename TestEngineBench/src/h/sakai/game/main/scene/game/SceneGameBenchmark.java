@@ -0,0 +1,101 @@
+package h.sakai.game.main.scene.game;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ゲームシーン描画のベンチマーク<br />
+ * 
+ * テトリスシーケンスの1フレーム分をオフスクリーン画像に描画する。
+ * 併せて更新スレッド側のスナップショット公開の処理時間を計測する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+@State( Scope.Thread )
+public class SceneGameBenchmark {
+	
+	/** 画面幅 */
+	private static final int WIDTH = 288;
+	
+	/** 画面高さ */
+	private static final int HEIGHT = 408;
+	
+	/** 盤面状態 */
+	@Param
+	public BoardState board;
+	
+	/** ゲームシーン */
+	private SceneGame _scene = null;
+	
+	/** 描画先画像 */
+	private BufferedImage _image = null;
+	
+	/** 描画先グラフィック */
+	private Graphics2D _g = null;
+	
+	/**
+	 * ゲームシーンと描画先を準備する。
+	 */
+	@Setup( Level.Trial )
+	public void setUp() {
+		
+		Game game = BenchSupport.createGame( board );
+		BenchSupport.lowerBlock( game );
+		
+		_scene = new SceneGame( game );
+		_scene.publishSnapshot();
+		_image = new BufferedImage( WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB );
+		_g = _image.createGraphics();
+	}
+	
+	/**
+	 * 描画先を破棄する。
+	 */
+	@TearDown( Level.Trial )
+	public void tearDown() {
+		_g.dispose();
+	}
+	
+	/**
+	 * 1フレーム分の描画
+	 * 
+	 * @return 描画先画像
+	 */
+	@Benchmark
+	public BufferedImage processDraw() {
+		_scene.processDraw( _g, null, false );
+		return _image;
+	}
+	
+	/**
+	 * 描画用スナップショットの公開
+	 * 
+	 * @return ゲームシーン
+	 */
+	@Benchmark
+	public SceneGame publishSnapshot() {
+		_scene.publishSnapshot();
+		return _scene;
+	}
+}
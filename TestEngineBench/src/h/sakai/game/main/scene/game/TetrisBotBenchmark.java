@@ -0,0 +1,66 @@
+package h.sakai.game.main.scene.game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 自動操作の置き方探索のベンチマーク<br />
+ * 
+ * 1回の探索が60FPSの1フレーム(約16.7ms)に収まるかを、
+ * 呼び出し元のスレッドのみの場合とForkJoinPoolに分配した場合で計測する。
+ * 
+ * @author H.Sakai
+ * @version V1.00 2026/10/18 H.Sakai 新規作成
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class TetrisBotBenchmark {
+	
+	/** 盤面状態 */
+	@Param
+	public BoardState board;
+	
+	/** 探索の分配 */
+	@Param( { "false", "true" } )
+	public boolean parallel;
+	
+	/** ゲームモデル */
+	private Game _game = null;
+	
+	/** 自動操作 */
+	private TetrisBot _bot = null;
+	
+	/**
+	 * ゲームモデルと自動操作を準備する。
+	 */
+	@Setup( Level.Trial )
+	public void setUp() {
+		_game = BenchSupport.createGame( board );
+		_bot = new TetrisBot( parallel ? ForkJoinPool.commonPool() : null );
+	}
+	
+	/**
+	 * 出現直後のブロックの置き方探索
+	 */
+	@Benchmark
+	public void search() {
+		_bot.search( _game );
+	}
+}